@@ -0,0 +1,42 @@
+package io.hhplus.tdd;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.hhplus.tdd.point.binary.PointBinaryHttpMessageConverter;
+import io.hhplus.tdd.point.cluster.PointClusterRouter;
+import io.hhplus.tdd.point.ratelimit.RateLimitInterceptor;
+import io.hhplus.tdd.point.ratelimit.UserRateLimiter;
+import io.hhplus.tdd.point.trace.RequestTraceInterceptor;
+import io.hhplus.tdd.point.trace.RequestTracer;
+
+@Configuration
+class WebConfig implements WebMvcConfigurer {
+
+    private final RequestTracer requestTracer;
+    private final UserRateLimiter userRateLimiter;
+    private final PointClusterRouter clusterRouter;
+
+    WebConfig(RequestTracer requestTracer, UserRateLimiter userRateLimiter, PointClusterRouter clusterRouter) {
+        this.requestTracer = requestTracer;
+        this.userRateLimiter = userRateLimiter;
+        this.clusterRouter = clusterRouter;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Accept 를 지정하지 않은 요청은 기존처럼 JSON 이 선택되도록 맨 뒤에 추가
+        converters.add(new PointBinaryHttpMessageConverter());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestTraceInterceptor(requestTracer)).addPathPatterns("/point/**");
+        registry.addInterceptor(new RateLimitInterceptor(userRateLimiter, clusterRouter))
+                .addPathPatterns("/point/*/charge", "/point/*/use", "/point/*/transfer", "/point/*/holds", "/point/*/holds/*/capture");
+    }
+}
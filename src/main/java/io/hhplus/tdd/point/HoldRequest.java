@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 예약 요청
+ * - ttlMillis : 예약 유지 시간(ms), 0 이하이면 기본값
+ */
+public record HoldRequest(
+        long amount,
+        long ttlMillis
+) {
+}
@@ -0,0 +1,31 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 여러 유저 조회 결과 중 유저 한 명의 결과
+ * - OK : value 에 결과
+ * - FAILED : 조회 실패 (없는 유저 등), message 에 사유
+ * - TIMEOUT : 제한 시간 안에 조회하지 못함
+ */
+public record MultiGetEntry<T>(
+        long userId,
+        Status status,
+        T value,
+        String message
+) {
+
+    public enum Status {
+        OK, FAILED, TIMEOUT
+    }
+
+    public static <T> MultiGetEntry<T> ok(long userId, T value) {
+        return new MultiGetEntry<>(userId, Status.OK, value, null);
+    }
+
+    public static <T> MultiGetEntry<T> failed(long userId, String message) {
+        return new MultiGetEntry<>(userId, Status.FAILED, null, message);
+    }
+
+    public static <T> MultiGetEntry<T> timeout(long userId) {
+        return new MultiGetEntry<>(userId, Status.TIMEOUT, null, "제한 시간 안에 조회하지 못했습니다.");
+    }
+}
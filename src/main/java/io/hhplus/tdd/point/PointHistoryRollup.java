@@ -0,0 +1,39 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 보관 기간이 지나 하루 단위로 접힌 히스토리
+ * - epochDay : 1970-01-01 부터의 일 수 (point.history.retention.zone 기준)
+ * - netAmount : 충전 - 사용 - 만료 합계
+ * - lastHistoryId : 접힌 히스토리 중 가장 큰 id
+ */
+public record PointHistoryRollup(
+        long userId,
+        long epochDay,
+        long netAmount,
+        int chargeCount,
+        int useCount,
+        int expireCount,
+        long lastHistoryId
+) {
+
+    public static PointHistoryRollup empty(long userId, long epochDay) {
+        return new PointHistoryRollup(userId, epochDay, 0L, 0, 0, 0, 0L);
+    }
+
+    public PointHistoryRollup plus(PointHistory pointHistory) {
+        return switch (pointHistory.type()) {
+            case CHARGE -> new PointHistoryRollup(userId, epochDay, netAmount + pointHistory.amount(), chargeCount + 1, useCount, expireCount,
+                    Math.max(lastHistoryId, pointHistory.id()));
+            case USE -> new PointHistoryRollup(userId, epochDay, netAmount - pointHistory.amount(), chargeCount, useCount + 1, expireCount,
+                    Math.max(lastHistoryId, pointHistory.id()));
+            case EXPIRE -> new PointHistoryRollup(userId, epochDay, netAmount - pointHistory.amount(), chargeCount, useCount, expireCount + 1,
+                    Math.max(lastHistoryId, pointHistory.id()));
+        };
+    }
+
+    // 같은 유저, 같은 날의 rollup 합치기
+    public PointHistoryRollup merge(PointHistoryRollup other) {
+        return new PointHistoryRollup(userId, epochDay, netAmount + other.netAmount, chargeCount + other.chargeCount,
+                useCount + other.useCount, expireCount + other.expireCount, Math.max(lastHistoryId, other.lastHistoryId));
+    }
+}
@@ -0,0 +1,14 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 유저의 전체 포인트 내역
+ * 보관 기간이 지난 기간은 일별 rollup 으로, 최근 기간은 원본 히스토리로 돌려준다.
+ */
+public record PointHistoryTimeline(
+        long userId,
+        List<PointHistoryRollup> rollups,
+        List<PointHistory> histories
+) {
+}
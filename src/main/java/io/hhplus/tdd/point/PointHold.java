@@ -0,0 +1,14 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 예약(hold)
+ * 잔액은 그대로 두고 사용 가능 포인트에서만 빠지며, capture 시 실제로 차감된다.
+ * - expireAtMillis : 이 시각까지 capture/release 되지 않으면 자동으로 취소된다.
+ */
+public record PointHold(
+        long holdId,
+        long userId,
+        long amount,
+        long expireAtMillis
+) {
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 이체 결과
+ * - from : 포인트를 보낸 유저의 변경된 포인트
+ * - to : 포인트를 받은 유저의 변경된 포인트
+ */
+public record TransferResult(
+        UserPoint from,
+        UserPoint to
+) {
+}
@@ -0,0 +1,31 @@
+package io.hhplus.tdd.point.binary;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 포인트 / 히스토리 응답용 바이너리 포맷
+ *
+ * 첫 byte 는 내용 종류(kind), 이후 값들은 모두 varint(7bit 단위 가변 길이)로 기록한다.
+ * 음수가 될 수 있는 값은 zig-zag 로 바꿔서 기록한다.
+ *
+ * - USER_POINT : id, zig-zag point, updateMillis
+ * - HISTORIES : 건수, 이후 건마다 id, userId, zig-zag amount, type ordinal, updateMillis
+ * - HISTORIES_DELTA : 건수, 이후 건마다 직전 건과의 차이(zig-zag)로 id, userId,
+ *   그리고 zig-zag amount, type ordinal, 직전 건과의 차이(zig-zag)로 updateMillis
+ *   첫 건의 직전 값은 0 으로 본다.
+ */
+public final class PointBinaryFormat {
+
+    public static final String VARINT_VALUE = "application/vnd.hhplus.point+binary";
+    public static final String DELTA_VALUE = "application/vnd.hhplus.point-delta+binary";
+
+    public static final MediaType VARINT = MediaType.parseMediaType(VARINT_VALUE);
+    public static final MediaType DELTA = MediaType.parseMediaType(DELTA_VALUE);
+
+    public static final byte USER_POINT = 1;
+    public static final byte HISTORIES = 2;
+    public static final byte HISTORIES_DELTA = 3;
+
+    private PointBinaryFormat() {
+    }
+}
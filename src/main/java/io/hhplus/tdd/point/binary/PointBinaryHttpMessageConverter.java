@@ -0,0 +1,84 @@
+package io.hhplus.tdd.point.binary;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * Accept 헤더가 PointBinaryFormat 미디어 타입이면 UserPoint / List<PointHistory> 응답을 바이너리로 기록
+ * 컨트롤러는 그대로 객체를 반환하고, Spring 의 content negotiation 으로 JSON / 바이너리가 선택된다.
+ * 응답 전용이므로 요청 body 는 읽지 않는다.
+ */
+public class PointBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public PointBinaryHttpMessageConverter() {
+        super(PointBinaryFormat.VARINT, PointBinaryFormat.DELTA);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return UserPoint.class == clazz || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (UserPoint.class == clazz) {
+            return true;
+        }
+        // List<PointHistory> 만 지원
+        return type instanceof ParameterizedType parameterizedType
+                && List.class.isAssignableFrom(clazz)
+                && parameterizedType.getActualTypeArguments()[0] == PointHistory.class;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        PointBinaryWriter writer = new PointBinaryWriter(outputMessage.getBody());
+        if (body instanceof UserPoint userPoint) {
+            writer.writeUserPoint(userPoint);
+            return;
+        }
+
+        List<PointHistory> histories = (List<PointHistory>) body;
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        if (contentType != null && PointBinaryFormat.DELTA.equalsTypeAndSubtype(contentType)) {
+            writer.writeHistoriesDelta(histories);
+        } else {
+            writer.writeHistories(histories);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("바이너리 요청 body 는 지원하지 않습니다.", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("바이너리 요청 body 는 지원하지 않습니다.", inputMessage);
+    }
+}
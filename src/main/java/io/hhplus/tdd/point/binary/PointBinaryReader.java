@@ -0,0 +1,79 @@
+package io.hhplus.tdd.point.binary;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * PointBinaryFormat 해석, 클라이언트 / 테스트용
+ */
+public final class PointBinaryReader {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private PointBinaryReader() {
+    }
+
+    public static UserPoint readUserPoint(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        expectKind(buffer, PointBinaryFormat.USER_POINT);
+        return new UserPoint(readVarLong(buffer), unZigZag(readVarLong(buffer)), readVarLong(buffer));
+    }
+
+    // HISTORIES, HISTORIES_DELTA 모두 읽는다.
+    public static List<PointHistory> readHistories(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte kind = buffer.get();
+        if (kind != PointBinaryFormat.HISTORIES && kind != PointBinaryFormat.HISTORIES_DELTA) {
+            throw new IllegalArgumentException("히스토리 바이너리가 아닙니다. kind=" + kind);
+        }
+        boolean delta = kind == PointBinaryFormat.HISTORIES_DELTA;
+
+        int count = (int) readVarLong(buffer);
+        List<PointHistory> histories = new ArrayList<>(count);
+        long id = 0L;
+        long userId = 0L;
+        long updateMillis = 0L;
+        for (int i = 0; i < count; i++) {
+            if (delta) {
+                id += unZigZag(readVarLong(buffer));
+                userId += unZigZag(readVarLong(buffer));
+            } else {
+                id = readVarLong(buffer);
+                userId = readVarLong(buffer);
+            }
+            long amount = unZigZag(readVarLong(buffer));
+            TransactionType type = TYPES[(int) readVarLong(buffer)];
+            updateMillis = delta ? updateMillis + unZigZag(readVarLong(buffer)) : readVarLong(buffer);
+            histories.add(new PointHistory(id, userId, amount, type, updateMillis));
+        }
+        return histories;
+    }
+
+    private static void expectKind(ByteBuffer buffer, byte kind) {
+        byte actual = buffer.get();
+        if (actual != kind) {
+            throw new IllegalArgumentException("바이너리 종류가 다릅니다. expected=" + kind + ", actual=" + actual);
+        }
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0L;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
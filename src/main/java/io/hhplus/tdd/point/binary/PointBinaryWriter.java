@@ -0,0 +1,98 @@
+package io.hhplus.tdd.point.binary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * PointBinaryFormat 으로 응답 스트림에 바로 기록
+ * 건마다 객체를 만들지 않고 고정 크기 버퍼에 varint 를 채운 뒤 가득 차면 스트림으로 내보낸다.
+ */
+public final class PointBinaryWriter {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    // varint 하나의 최대 길이
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    public PointBinaryWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public void writeUserPoint(UserPoint userPoint) throws IOException {
+        writeByte(PointBinaryFormat.USER_POINT);
+        writeVarLong(userPoint.id());
+        writeVarLong(zigZag(userPoint.point()));
+        writeVarLong(userPoint.updateMillis());
+        flush();
+    }
+
+    public void writeHistories(List<PointHistory> histories) throws IOException {
+        writeByte(PointBinaryFormat.HISTORIES);
+        writeVarLong(histories.size());
+        for (PointHistory history : histories) {
+            writeVarLong(history.id());
+            writeVarLong(history.userId());
+            writeVarLong(zigZag(history.amount()));
+            writeVarLong(history.type().ordinal());
+            writeVarLong(history.updateMillis());
+        }
+        flush();
+    }
+
+    public void writeHistoriesDelta(List<PointHistory> histories) throws IOException {
+        writeByte(PointBinaryFormat.HISTORIES_DELTA);
+        writeVarLong(histories.size());
+        long previousId = 0L;
+        long previousUserId = 0L;
+        long previousMillis = 0L;
+        for (PointHistory history : histories) {
+            writeVarLong(zigZag(history.id() - previousId));
+            writeVarLong(zigZag(history.userId() - previousUserId));
+            writeVarLong(zigZag(history.amount()));
+            writeVarLong(history.type().ordinal());
+            writeVarLong(zigZag(history.updateMillis() - previousMillis));
+            previousId = history.id();
+            previousUserId = history.userId();
+            previousMillis = history.updateMillis();
+        }
+        flush();
+    }
+
+    private void writeByte(byte value) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = value;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        ensureCapacity(MAX_VARINT_BYTES);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
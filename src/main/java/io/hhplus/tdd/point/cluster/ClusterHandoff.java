@@ -0,0 +1,17 @@
+package io.hhplus.tdd.point.cluster;
+
+import java.util.List;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+
+/**
+ * 노드 추가로 담당 노드가 바뀐 유저의 데이터를 새 담당 노드로 넘길 때 사용
+ */
+public record ClusterHandoff(
+        long userId,
+        long point,
+        List<PointHistory> histories,
+        List<PointHistoryRollup> rollups
+) {
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point.cluster;
+
+/**
+ * 클러스터를 구성하는 노드
+ * - nodeId : 노드 식별자 (ring 위치 계산에 사용)
+ * - url : 노드의 base url (ex. http://localhost:8081)
+ */
+public record ClusterNode(
+        String nodeId,
+        String url
+) {
+}
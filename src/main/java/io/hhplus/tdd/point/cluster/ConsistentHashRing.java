@@ -0,0 +1,101 @@
+package io.hhplus.tdd.point.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 가상 노드(virtual node)를 사용하는 consistent hash ring
+ *
+ * 노드 하나당 virtualNodes 개의 위치를 ring 위에 배치하고,
+ * userId 의 hash 값에서 시계방향으로 가장 가까운 위치의 노드가 해당 유저를 담당한다.
+ * 노드가 추가/제거되어도 약 1/N 의 유저만 담당 노드가 바뀐다.
+ *
+ * 조회는 lock 없이 volatile 로 게시된 불변 snapshot 을 읽고,
+ * 변경(add/remove)은 새 snapshot 을 만들어 교체한다.
+ */
+public class ConsistentHashRing {
+
+    private final int virtualNodes;
+
+    private volatile NavigableMap<Long, ClusterNode> ring = Collections.emptyNavigableMap();
+    private volatile Map<String, ClusterNode> nodes = Collections.emptyMap();
+
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes 는 1 이상이어야 합니다.");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    // 노드 추가, 이미 같은 nodeId 가 있으면 url 만 교체된다.
+    public synchronized void addNode(ClusterNode node) {
+        Map<String, ClusterNode> newNodes = new LinkedHashMap<>(nodes);
+        newNodes.put(node.nodeId(), node);
+        publish(newNodes);
+    }
+
+    public synchronized void removeNode(String nodeId) {
+        Map<String, ClusterNode> newNodes = new LinkedHashMap<>(nodes);
+        if (newNodes.remove(nodeId) != null) {
+            publish(newNodes);
+        }
+    }
+
+    // userId 를 담당하는 노드 조회
+    public ClusterNode ownerOf(long userId) {
+        NavigableMap<Long, ClusterNode> snapshot = ring;
+        if (snapshot.isEmpty()) {
+            throw new IllegalStateException("ring 에 등록된 노드가 없습니다.");
+        }
+        Map.Entry<Long, ClusterNode> entry = snapshot.ceilingEntry(mix(userId));
+        return entry != null ? entry.getValue() : snapshot.firstEntry().getValue();
+    }
+
+    public boolean contains(String nodeId) {
+        return nodes.containsKey(nodeId);
+    }
+
+    public List<ClusterNode> nodes() {
+        return List.copyOf(nodes.values());
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    private void publish(Map<String, ClusterNode> newNodes) {
+        TreeMap<Long, ClusterNode> newRing = new TreeMap<>();
+        for (ClusterNode node : newNodes.values()) {
+            for (int i = 0; i < virtualNodes; i++) {
+                newRing.put(hash(node.nodeId() + "#" + i), node);
+            }
+        }
+        this.nodes = Collections.unmodifiableMap(newNodes);
+        this.ring = Collections.unmodifiableNavigableMap(newRing);
+    }
+
+    // FNV-1a 64bit 후 mix 로 한번 더 섞어서 ring 위에 고르게 분포시킨다.
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    // murmur3 fmix64, 연속된 userId 도 ring 위에 흩어지도록 한다.
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,14 @@
+package io.hhplus.tdd.point.cluster;
+
+/**
+ * 담당 노드로 전달한 조건부 조회(If-None-Match)의 응답
+ *
+ * 담당 노드가 304 를 응답하면 notModified 이고 body 는 null 이다.
+ * entityTag 는 담당 노드가 응답한 ETag 를 그대로 담는다.
+ */
+public record ForwardedRead<T>(
+        boolean notModified,
+        String entityTag,
+        T body
+) {
+}
@@ -0,0 +1,405 @@
+package io.hhplus.tdd.point.cluster;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.custom.CustomException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.hhplus.tdd.point.HoldRequest;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryTimeline;
+import io.hhplus.tdd.point.PointHold;
+import io.hhplus.tdd.point.TransferRequest;
+import io.hhplus.tdd.point.TransferResult;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.readmodel.ReadConsistency;
+import io.hhplus.tdd.point.readmodel.UserPointView;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.trace.RequestTracer;
+import io.hhplus.tdd.point.trace.TraceStage;
+import io.hhplus.tdd.repository.UserPointRepository;
+
+/**
+ * 클러스터 모드에서 userId 를 담당 노드로 라우팅한다.
+ *
+ * - 담당 노드는 ConsistentHashRing 으로 결정
+ * - 로컬 유저가 아니면 담당 노드로 HTTP 요청을 그대로 전달 (forward)
+ * - 별도 coordinator 없이, 새 노드는 기동 시 seed 노드들에 자신을 알리고(join)
+ *   응답으로 받은 멤버 목록에 다시 자신을 알리는 방식으로 전체 멤버에 전파된다.
+ * - join 을 받은 노드는 ring 을 갱신한 뒤, 담당이 바뀐 로컬 유저 데이터를 새 노드로 넘기고(handoff) 나서 join 에 응답한다.
+ *   넘길 유저는 저장소를 순회해서 찾으므로 어떤 경로(API, 예약 확정, 만료, import 등)로 쓰인 유저든 빠짐없이 넘어간다.
+ *   새 노드는 join 응답을 받기 전이라 보낸 노드를 아직 ring 에 두지 않았으므로, handoff 는 ring 멤버가 아니라 클러스터 토큰으로 인증한다.
+ *   유저를 넘기는 동안은 유저 lock 을 잡고 있고, ring 이 바뀐 뒤에는 PointService 가 담당이 아닌 유저의 쓰기를 거절하므로
+ *   넘긴 뒤의 쓰기가 이전 노드에 남지 않는다.
+ * - 새 노드는 모든 멤버에게 join 을 마칠 때까지(= 넘겨받을 데이터를 모두 받을 때까지) 요청을 거절한다.
+ *   이 사이와 다른 노드가 아직 새 노드를 모르는 사이에 들어온 요청은 실패하며, 클라이언트는 다시 시도해야 한다.
+ * - 진행중인 포인트 예약(hold)과 만료 예정 충전분(charge lot)은 넘기지 않는다.
+ *   넘어간 유저의 예약은 확정할 수 없고, 만료 예정이던 충전분은 새 노드에서 만료되지 않는다.
+ * - forward 된 요청도 이 노드가 담당하는 유저가 아니면 거절한다. (헤더만으로 로컬 처리하지 않음)
+ * - 노드간 API(/cluster/**) 와 forward 요청에는 point.cluster.secret 으로 만든 토큰을 실어 보내고,
+ *   /cluster/** 는 토큰이 맞는 요청만 받는다.
+ *
+ * point.cluster.enabled=false (기본값) 이면 모든 유저를 로컬에서 처리한다.
+ */
+@Component
+public class PointClusterRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointClusterRouter.class);
+
+    // forward 된 요청 표시 (보낸 노드의 id), 이 헤더가 있으면 다시 forward 하지 않아 노드간 핑퐁을 막는다.
+    public static final String FORWARDED_HEADER = "X-Point-Forwarded";
+
+    // 노드간 요청 인증용 공유 비밀값
+    public static final String TOKEN_HEADER = "X-Point-Cluster-Token";
+
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    private static final String ETAG_HEADER = "ETag";
+    private static final int NOT_MODIFIED = 304;
+
+    private static final TypeReference<UserPoint> USER_POINT = new TypeReference<>() {};
+    private static final TypeReference<List<PointHistory>> POINT_HISTORIES = new TypeReference<>() {};
+    private static final TypeReference<PointHistoryTimeline> POINT_HISTORY_TIMELINE = new TypeReference<>() {};
+    private static final TypeReference<TransferResult> TRANSFER_RESULT = new TypeReference<>() {};
+    private static final TypeReference<PointHold> POINT_HOLD = new TypeReference<>() {};
+    private static final TypeReference<List<ClusterNode>> CLUSTER_NODES = new TypeReference<>() {};
+
+    private final boolean enabled;
+    private final ClusterNode self;
+    private final List<String> seedUrls;
+    private final ConsistentHashRing ring;
+    private final PointService pointService;
+    private final UserPointRepository userPointRepository;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final Duration joinTimeout;
+    private final byte[] secret;
+
+    // 모든 멤버에게 join 을 마쳐서 넘겨받을 데이터를 다 받았는지, 그 전까지는 담당 유저라도 처리하지 않는다.
+    private volatile boolean ready;
+
+    @Autowired
+    public PointClusterRouter(@Value("${point.cluster.enabled:false}") boolean enabled,
+                              @Value("${point.cluster.self-id:local}") String selfId,
+                              @Value("${point.cluster.self-url:}") String selfUrl,
+                              @Value("${point.cluster.seeds:}") String seeds,
+                              @Value("${point.cluster.virtual-nodes:160}") int virtualNodes,
+                              @Value("${point.cluster.request-timeout-millis:5000}") long requestTimeoutMillis,
+                              @Value("${point.cluster.join-timeout-millis:60000}") long joinTimeoutMillis,
+                              @Value("${point.cluster.secret:}") String secret,
+                              PointService pointService,
+                              UserPointRepository userPointRepository,
+                              ObjectMapper objectMapper) {
+        if (enabled && secret.isBlank()) {
+            throw new IllegalStateException("클러스터 모드에서는 point.cluster.secret 을 설정해야 합니다.");
+        }
+        this.enabled = enabled;
+        this.self = new ClusterNode(selfId, selfUrl);
+        this.seedUrls = Arrays.stream(seeds.split(","))
+                .map(String::trim)
+                .filter(seed -> !seed.isEmpty())
+                .toList();
+        this.ring = new ConsistentHashRing(virtualNodes);
+        this.ring.addNode(self);
+        this.pointService = pointService;
+        this.userPointRepository = userPointRepository;
+        this.objectMapper = objectMapper;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.joinTimeout = Duration.ofMillis(joinTimeoutMillis);
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(this.requestTimeout)
+                .build();
+        if (enabled) {
+            pointService.setOwnership(this::ownsLocally);
+        }
+    }
+
+    // 클러스터 모드를 사용하지 않는 단일 노드용
+    public static PointClusterRouter standalone(PointService pointService) {
+        return new PointClusterRouter(false, "local", "", "", 1, 5000L, 60000L, "", pointService, null, new ObjectMapper());
+    }
+
+    /**
+     * forward 가 필요한 요청인지 판단, forward 된 요청은 다시 forward 하지 않는다.
+     * 로컬에서 처리할 요청인데 이 노드가 담당하지 않는 유저면(forward 된 요청의 ring 이 다르거나 join 중) 거절한다.
+     */
+    public boolean shouldForward(long userId, String forwardedBy) throws CustomException {
+        if (!enabled) {
+            return false;
+        }
+        if (forwardedBy == null && !ring.ownerOf(userId).nodeId().equals(self.nodeId())) {
+            return true;
+        }
+        if (!ownsLocally(userId)) {
+            throw new CustomException(String.format("유저 %d는 이 노드(%s)에서 처리하지 않습니다. 잠시 후 다시 시도해 주세요.", userId, self.nodeId()));
+        }
+        return false;
+    }
+
+    // 이 노드가 지금 처리해야 하는 유저인지
+    public boolean ownsLocally(long userId) {
+        return !enabled || (ready && ring.ownerOf(userId).nodeId().equals(self.nodeId()));
+    }
+
+    // 노드간 요청의 토큰 확인, 길이와 관계없이 비교 시간이 일정하도록 MessageDigest.isEqual 을 사용한다.
+    public void authenticate(String token) throws CustomException {
+        if (!enabled || token == null || !MessageDigest.isEqual(secret, token.getBytes(StandardCharsets.UTF_8))) {
+            throw new CustomException("클러스터 인증에 실패했습니다.");
+        }
+    }
+
+    public ClusterNode ownerOf(long userId) {
+        return enabled ? ring.ownerOf(userId) : self;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<ClusterNode> members() {
+        return ring.nodes();
+    }
+
+    public UserPoint forwardGetPoint(long userId, ReadConsistency consistency) throws CustomException {
+        return forward(userId, "GET", "/point/" + userId + query(consistency), null, USER_POINT);
+    }
+
+    public List<PointHistory> forwardGetHistories(long userId, ReadConsistency consistency) throws CustomException {
+        return forward(userId, "GET", "/point/" + userId + "/histories" + query(consistency), null, POINT_HISTORIES);
+    }
+
+    // If-None-Match 를 담당 노드에 그대로 넘기고, 담당 노드의 ETag 와 304 여부를 돌려준다.
+    public ForwardedRead<UserPoint> forwardGetPoint(long userId, ReadConsistency consistency, String ifNoneMatch) throws CustomException {
+        return forwardRead(userId, "/point/" + userId + query(consistency), ifNoneMatch, USER_POINT);
+    }
+
+    public ForwardedRead<List<PointHistory>> forwardGetHistories(long userId, ReadConsistency consistency, String ifNoneMatch) throws CustomException {
+        return forwardRead(userId, "/point/" + userId + "/histories" + query(consistency), ifNoneMatch, POINT_HISTORIES);
+    }
+
+    public PointHistoryTimeline forwardGetTimeline(long userId, ReadConsistency consistency) throws CustomException {
+        return forward(userId, "GET", "/point/" + userId + "/timeline" + query(consistency), null, POINT_HISTORY_TIMELINE);
+    }
+
+    public UserPoint forwardCharge(long userId, long amount, long expireAtMillis) throws CustomException {
+        return forward(userId, "PATCH", "/point/" + userId + "/charge?expireAtMillis=" + expireAtMillis, new AmountBody(amount), USER_POINT);
+    }
+
+    public UserPoint forwardUse(long userId, long amount) throws CustomException {
+        return forward(userId, "PATCH", "/point/" + userId + "/use", new AmountBody(amount), USER_POINT);
+    }
+
+    public TransferResult forwardTransfer(long fromUserId, TransferRequest transferRequest) throws CustomException {
+        return forward(fromUserId, "PATCH", "/point/" + fromUserId + "/transfer", transferRequest, TRANSFER_RESULT);
+    }
+
+    public PointHold forwardHold(long userId, HoldRequest holdRequest) throws CustomException {
+        return forward(userId, "POST", "/point/" + userId + "/holds", holdRequest, POINT_HOLD);
+    }
+
+    public UserPoint forwardCapture(long userId, long holdId) throws CustomException {
+        return forward(userId, "PATCH", "/point/" + userId + "/holds/" + holdId + "/capture", null, USER_POINT);
+    }
+
+    public PointHold forwardRelease(long userId, long holdId) throws CustomException {
+        return forward(userId, "PATCH", "/point/" + userId + "/holds/" + holdId + "/release", null, POINT_HOLD);
+    }
+
+    // 이체는 보내는 유저의 담당 노드에서 처리하므로, 받는 유저도 같은 노드에 있어야 원자적으로 처리할 수 있다.
+    public void checkTransferable(long fromUserId, long toUserId) throws CustomException {
+        if (enabled && !ownerOf(fromUserId).nodeId().equals(ownerOf(toUserId).nodeId())) {
+            throw new CustomException(String.format("유저 %d와 유저 %d는 서로 다른 노드에 있어 이체 할 수 없습니다.", fromUserId, toUserId));
+        }
+    }
+
+    /**
+     * 다른 노드의 join 요청 처리
+     * ring 에 노드를 추가하고, 담당이 바뀐 로컬 유저들을 새 노드로 넘긴다.
+     *
+     * @return 현재 알고 있는 멤버 목록 (join 한 노드가 나머지 멤버에게도 자신을 알릴 수 있도록)
+     */
+    public List<ClusterNode> accept(ClusterNode node) {
+        if (!ring.contains(node.nodeId())) {
+            ring.addNode(node);
+            log.info("cluster node joined: {} ({}), members={}", node.nodeId(), node.url(), ring.size());
+            // handoff 가 끝난 뒤에 응답해야 새 노드가 넘겨받을 데이터를 다 받은 뒤 요청을 받기 시작한다.
+            handOff(node);
+        }
+        return ring.nodes();
+    }
+
+    /**
+     * 다른 노드에서 넘어온 유저 데이터로 교체, 토큰 인증(authenticate)을 통과한 요청만 호출한다.
+     * join 중인 새 노드는 아직 보낸 노드를 ring 에 두지 않았으므로 ring 멤버인지는 확인하지 않는다.
+     */
+    public UserPoint receive(ClusterHandoff handoff, String sender) throws CustomException {
+        if (!enabled) {
+            throw new CustomException("클러스터 모드가 아닌 노드는 handoff 를 받을 수 없습니다.");
+        }
+        UserPoint userPoint = pointService.restoreUser(handoff.userId(), handoff.point(), handoff.histories(),
+                handoff.rollups() == null ? List.of() : handoff.rollups());
+        log.debug("cluster handoff received: user={}, from={}", handoff.userId(), sender);
+        return userPoint;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void joinCluster() {
+        if (!enabled) {
+            return;
+        }
+        if (seedUrls.isEmpty()) {
+            ready = true;
+            return;
+        }
+
+        // seed 부터 시작해서 응답으로 알게 된 멤버들에게도 차례로 join 을 알린다.
+        Deque<String> pending = new ArrayDeque<>(seedUrls);
+        Set<String> contacted = new HashSet<>(Collections.singleton(self.url()));
+        while (!pending.isEmpty()) {
+            String url = pending.poll();
+            if (!contacted.add(url)) {
+                continue;
+            }
+            try {
+                List<ClusterNode> members = send(url + "/cluster/nodes", "POST", self, CLUSTER_NODES, joinTimeout);
+                for (ClusterNode member : members) {
+                    if (!ring.contains(member.nodeId())) {
+                        ring.addNode(member);
+                    }
+                    pending.add(member.url());
+                }
+            } catch (CustomException e) {
+                log.warn("cluster join failed: {} - {}", url, e.getMessage());
+            }
+        }
+        ready = true;
+        log.info("cluster joined as {}, members={}", self.nodeId(), ring.size());
+    }
+
+    /**
+     * 저장소에서 새 노드가 담당하게 된 유저를 찾아 넘긴다. (포인트가 0 인 유저는 없는 유저로 취급)
+     * 넘기는 동안 유저 lock 을 잡고 있으므로 그 유저의 쓰기는 기다렸다가 담당 노드 확인에서 거절된다.
+     */
+    private void handOff(ClusterNode node) {
+        List<Long> userIds = new ArrayList<>();
+        userPointRepository.forEach(userPoint -> {
+            if (userPoint.point() != 0L && ring.ownerOf(userPoint.id()).nodeId().equals(node.nodeId())) {
+                userIds.add(userPoint.id());
+            }
+        });
+        for (long userId : userIds) {
+            try {
+                pointService.handOffUser(userId, snapshot -> send(node.url() + "/cluster/handoff", "POST", toHandoff(userId, snapshot), USER_POINT));
+            } catch (CustomException e) {
+                log.warn("cluster handoff failed: user={}, node={} - {}", userId, node.nodeId(), e.getMessage());
+            }
+        }
+    }
+
+    private static ClusterHandoff toHandoff(long userId, UserPointView snapshot) {
+        return new ClusterHandoff(userId, snapshot.userPoint().point(), List.copyOf(snapshot.histories()), snapshot.rollups());
+    }
+
+    private static String query(ReadConsistency consistency) {
+        return String.format("?maxStalenessMillis=%d&minUpdateMillis=%d", consistency.maxStalenessMillis(), consistency.minUpdateMillis());
+    }
+
+    private <T> T forward(long userId, String method, String path, Object body, TypeReference<T> type) throws CustomException {
+        RequestTracer.mark(TraceStage.FORWARD);
+        return send(ring.ownerOf(userId).url() + path, method, body, type);
+    }
+
+    private <T> ForwardedRead<T> forwardRead(long userId, String path, String ifNoneMatch, TypeReference<T> type) throws CustomException {
+        RequestTracer.mark(TraceStage.FORWARD);
+        String url = ring.ownerOf(userId).url() + path;
+        HttpRequest.Builder builder = request(url, "GET", null, requestTimeout);
+        if (ifNoneMatch != null) {
+            builder.header(IF_NONE_MATCH_HEADER, ifNoneMatch);
+        }
+        HttpResponse<byte[]> response = exchange(builder.build(), "GET", url);
+        String entityTag = response.headers().firstValue(ETAG_HEADER).orElse(null);
+        if (response.statusCode() == NOT_MODIFIED) {
+            return new ForwardedRead<>(true, entityTag, null);
+        }
+        checkSucceeded(response, "GET", url);
+        return new ForwardedRead<>(false, entityTag, read(response, type, "GET", url));
+    }
+
+    private <T> T send(String url, String method, Object body, TypeReference<T> type) throws CustomException {
+        return send(url, method, body, type, requestTimeout);
+    }
+
+    private <T> T send(String url, String method, Object body, TypeReference<T> type, Duration timeout) throws CustomException {
+        HttpResponse<byte[]> response = exchange(request(url, method, body, timeout).build(), method, url);
+        checkSucceeded(response, method, url);
+        return read(response, type, method, url);
+    }
+
+    private HttpRequest.Builder request(String url, String method, Object body, Duration timeout) throws CustomException {
+        try {
+            return HttpRequest.newBuilder(URI.create(url))
+                    .timeout(timeout)
+                    .header(FORWARDED_HEADER, self.nodeId())
+                    .header(TOKEN_HEADER, new String(secret, StandardCharsets.UTF_8))
+                    .header("Content-Type", "application/json")
+                    .method(method, body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new CustomException(String.format("노드 요청 중 오류가 발생했습니다. %s %s", method, url));
+        }
+    }
+
+    private HttpResponse<byte[]> exchange(HttpRequest request, String method, String url) throws CustomException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new CustomException(String.format("노드 요청 중 오류가 발생했습니다. %s %s", method, url));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException(String.format("노드 요청이 중단되었습니다. %s %s", method, url));
+        }
+    }
+
+    private static void checkSucceeded(HttpResponse<byte[]> response, String method, String url) throws CustomException {
+        if (response.statusCode() / 100 != 2) {
+            throw new CustomException(String.format("노드 요청이 실패했습니다. [%d] %s %s", response.statusCode(), method, url));
+        }
+    }
+
+    private <T> T read(HttpResponse<byte[]> response, TypeReference<T> type, String method, String url) throws CustomException {
+        try {
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new CustomException(String.format("노드 요청 중 오류가 발생했습니다. %s %s", method, url));
+        }
+    }
+
+    // charge/use 요청 body, PointController 는 amount 만 읽는다.
+    private record AmountBody(long amount) {
+    }
+}
@@ -0,0 +1,54 @@
+package io.hhplus.tdd.point.controller;
+
+import java.util.List;
+
+import io.hhplus.tdd.custom.CustomException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.cluster.ClusterHandoff;
+import io.hhplus.tdd.point.cluster.ClusterNode;
+import io.hhplus.tdd.point.cluster.PointClusterRouter;
+
+/**
+ * 클러스터 멤버십 / 데이터 handoff 용 노드간 API
+ * join 과 handoff 는 point.cluster.secret 토큰을 가진 클러스터 멤버만 호출할 수 있다.
+ */
+@RestController
+@RequestMapping("/cluster")
+public class ClusterController {
+
+    private final PointClusterRouter clusterRouter;
+
+    public ClusterController(PointClusterRouter clusterRouter) {
+        this.clusterRouter = clusterRouter;
+    }
+
+    // 현재 ring 멤버 조회
+    @GetMapping("/nodes")
+    public List<ClusterNode> nodes() {
+        return clusterRouter.members();
+    }
+
+    // 새 노드 join, 응답으로 현재 멤버 목록을 돌려준다.
+    @PostMapping("/nodes")
+    public List<ClusterNode> join(@RequestBody ClusterNode node,
+                                  @RequestHeader(value = PointClusterRouter.TOKEN_HEADER, required = false) String token) throws CustomException {
+        clusterRouter.authenticate(token);
+        return clusterRouter.accept(node);
+    }
+
+    // 담당이 바뀐 유저 데이터 수신
+    @PostMapping("/handoff")
+    public UserPoint handoff(@RequestBody ClusterHandoff handoff,
+                             @RequestHeader(value = PointClusterRouter.TOKEN_HEADER, required = false) String token,
+                             @RequestHeader(value = PointClusterRouter.FORWARDED_HEADER, required = false) String sender) throws CustomException {
+        clusterRouter.authenticate(token);
+        return clusterRouter.receive(handoff, sender);
+    }
+}
@@ -0,0 +1,89 @@
+package io.hhplus.tdd.point.controller;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.hhplus.tdd.custom.CustomException;
+import io.hhplus.tdd.point.dump.PointDumpResult;
+import io.hhplus.tdd.point.dump.PointDumpService;
+import io.hhplus.tdd.point.hotkey.HotKey;
+import io.hhplus.tdd.point.hotkey.HotKeyDetector;
+import io.hhplus.tdd.point.reconcile.LedgerReconciler;
+import io.hhplus.tdd.point.reconcile.ReconciliationStatus;
+import io.hhplus.tdd.point.trace.RequestTrace;
+import io.hhplus.tdd.point.trace.RequestTracer;
+
+/**
+ * 운영자용 API
+ */
+@RestController
+@RequestMapping("/admin/point")
+public class PointAdminController {
+
+    private final HotKeyDetector hotKeyDetector;
+    private final PointDumpService pointDumpService;
+    private final RequestTracer requestTracer;
+    private final LedgerReconciler ledgerReconciler;
+
+    public PointAdminController(HotKeyDetector hotKeyDetector, PointDumpService pointDumpService, RequestTracer requestTracer,
+                                LedgerReconciler ledgerReconciler) {
+        this.hotKeyDetector = hotKeyDetector;
+        this.pointDumpService = pointDumpService;
+        this.requestTracer = requestTracer;
+        this.ledgerReconciler = ledgerReconciler;
+    }
+
+    /**
+     * 현재 요청이 몰리고 있는(hot) 유저 목록을 조회합니다.
+     */
+    @GetMapping("/hot-keys")
+    public List<HotKey> hotKeys() {
+        return hotKeyDetector.hotKeys();
+    }
+
+    /**
+     * 최근 보관된 요청 trace 중 오래 걸린 순으로 limit 건을 조회합니다.
+     * (threshold 이상 걸린 요청과 일부 샘플 요청만 보관됩니다.)
+     */
+    @GetMapping("/traces")
+    public List<RequestTrace> traces(@RequestParam(defaultValue = "20") int limit) {
+        return requestTracer.slowest(limit);
+    }
+
+    /**
+     * 전체 유저 포인트와 히스토리를 덤프 디렉토리의 파일로 내보냅니다.
+     */
+    @PostMapping("/export")
+    public PointDumpResult export(@RequestParam String fileName) throws CustomException {
+        return pointDumpService.export(fileName);
+    }
+
+    /**
+     * 덤프 디렉토리의 파일을 읽어 유저 포인트와 히스토리를 적재합니다.
+     */
+    @PostMapping("/import")
+    public PointDumpResult importDump(@RequestParam String fileName) throws CustomException {
+        return pointDumpService.importDump(fileName);
+    }
+
+    /**
+     * 전체 유저의 잔액과 히스토리 합계를 비교하는 원장 검증을 백그라운드로 시작합니다.
+     */
+    @PostMapping("/reconciliation")
+    public ReconciliationStatus startReconciliation() throws CustomException {
+        return ledgerReconciler.start();
+    }
+
+    /**
+     * 원장 검증 진행 상황과 완료된 경우 결과(불일치 유저 목록)를 조회합니다.
+     */
+    @GetMapping("/reconciliation")
+    public ReconciliationStatus reconciliation() {
+        return ledgerReconciler.status();
+    }
+}
@@ -6,15 +6,27 @@ import io.hhplus.tdd.custom.CustomException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryTimeline;
+import io.hhplus.tdd.point.TransferRequest;
+import io.hhplus.tdd.point.TransferResult;
 import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.cluster.ForwardedRead;
+import io.hhplus.tdd.point.cluster.PointClusterRouter;
+import io.hhplus.tdd.point.readmodel.ReadConsistency;
+import io.hhplus.tdd.point.readmodel.UserPointView;
 import io.hhplus.tdd.point.service.PointService;
 
 @RestController
@@ -26,39 +38,141 @@ public class PointController {
     @Autowired
     private final PointService pointService;
 
+    private final PointClusterRouter clusterRouter;
+
     public PointController(PointService pointService) {
+        this(pointService, PointClusterRouter.standalone(pointService));
+    }
+
+    @Autowired
+    public PointController(PointService pointService, PointClusterRouter clusterRouter) {
         this.pointService = pointService;
+        this.clusterRouter = clusterRouter;
     }
 
     /**
      * TODO - 특정 유저의 포인트를 조회하는 기능을 작성해주세요.
+     *
+     * maxStalenessMillis : 허용하는 최대 지연 시간(ms), 지정하지 않으면 제한 없음
+     * minUpdateMillis : 이전 충전/사용 응답의 updateMillis 를 넘기면 그 이후 상태를 보장 (read-your-writes)
+     * If-None-Match : 이전 응답의 ETag 를 넘기면 그 사이 변경이 없을 때 본문 없이 304 를 응답
+     *                 클러스터 모드에서 담당 노드가 아니면 담당 노드에 그대로 넘기고 담당 노드의 ETag 와 304 를 응답
      */
     @GetMapping("/{id}")
-    public UserPoint point(@PathVariable("id") long id) throws CustomException {
-        return pointService.getUserPoint(id);
+    public ResponseEntity<UserPoint> point(@PathVariable("id") long id,
+                                           @RequestParam(value = "maxStalenessMillis", required = false, defaultValue = "-1") long maxStalenessMillis,
+                                           @RequestParam(value = "minUpdateMillis", required = false, defaultValue = "0") long minUpdateMillis,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                           @RequestHeader(value = PointClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy) throws CustomException {
+        ReadConsistency consistency = new ReadConsistency(maxStalenessMillis, minUpdateMillis);
+        if (clusterRouter.shouldForward(id, forwardedBy)) {
+            ForwardedRead<UserPoint> forwarded = clusterRouter.forwardGetPoint(id, consistency, ifNoneMatch);
+            return conditional(forwarded.notModified(), forwarded.entityTag(), forwarded.body());
+        }
+        // 없는 유저는 If-None-Match 와 관계없이 먼저 실패시키고, ETag 와 본문은 같은 view 에서 만든다.
+        UserPointView view = pointService.getUserPointView(id, consistency);
+        return conditional(matches(ifNoneMatch, view.entityTag()), view.entityTag(), view.userPoint());
     }
 
     /**
      * TODO - 특정 유저의 포인트 충전/이용 내역을 조회하는 기능을 작성해주세요.
+     *
+     * If-None-Match : 포인트 조회와 같은 ETag 를 사용
      */
     @GetMapping("/{id}/histories")
-    public List<PointHistory> history(@PathVariable("id") long id) throws CustomException {
-        return pointService.getPointHistories(id);
+    public ResponseEntity<List<PointHistory>> history(@PathVariable("id") long id,
+                                                      @RequestParam(value = "maxStalenessMillis", required = false, defaultValue = "-1") long maxStalenessMillis,
+                                                      @RequestParam(value = "minUpdateMillis", required = false, defaultValue = "0") long minUpdateMillis,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                      @RequestHeader(value = PointClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy) throws CustomException {
+        ReadConsistency consistency = new ReadConsistency(maxStalenessMillis, minUpdateMillis);
+        if (clusterRouter.shouldForward(id, forwardedBy)) {
+            ForwardedRead<List<PointHistory>> forwarded = clusterRouter.forwardGetHistories(id, consistency, ifNoneMatch);
+            return conditional(forwarded.notModified(), forwarded.entityTag(), forwarded.body());
+        }
+        // 없는 유저는 If-None-Match 와 관계없이 먼저 실패시키고, ETag 와 본문은 같은 view 에서 만든다.
+        UserPointView view = pointService.getPointHistoryView(id, consistency);
+        return conditional(matches(ifNoneMatch, view.entityTag()), view.entityTag(), view.histories());
+    }
+
+    /**
+     * 특정 유저의 전체 포인트 내역을 조회합니다.
+     * 보관 기간이 지난 기간은 일별 합계(rollup)로, 최근 기간은 원본 내역으로 반환됩니다.
+     */
+    @GetMapping("/{id}/timeline")
+    public PointHistoryTimeline timeline(@PathVariable("id") long id,
+                                         @RequestParam(value = "maxStalenessMillis", required = false, defaultValue = "-1") long maxStalenessMillis,
+                                         @RequestParam(value = "minUpdateMillis", required = false, defaultValue = "0") long minUpdateMillis,
+                                         @RequestHeader(value = PointClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy) throws CustomException {
+        ReadConsistency consistency = new ReadConsistency(maxStalenessMillis, minUpdateMillis);
+        if (clusterRouter.shouldForward(id, forwardedBy)) {
+            return clusterRouter.forwardGetTimeline(id, consistency);
+        }
+        return pointService.getHistoryTimeline(id, consistency);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
+     *
+     * expireAtMillis : 충전분의 만료 시각(epoch ms), 지정하지 않으면 만료되지 않음
      */
     @PatchMapping("/{id}/charge")
-    public UserPoint charge(@PathVariable("id") long id, @RequestBody PointHistory pointHistory) throws CustomException {
-        return pointService.chargePoints(id, pointHistory.amount());
+    public UserPoint charge(@PathVariable("id") long id, @RequestBody PointHistory pointHistory,
+                            @RequestParam(value = "expireAtMillis", required = false, defaultValue = "0") long expireAtMillis,
+                            @RequestHeader(value = PointClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy) throws CustomException {
+        if (clusterRouter.shouldForward(id, forwardedBy)) {
+            return clusterRouter.forwardCharge(id, pointHistory.amount(), expireAtMillis);
+        }
+        return pointService.chargePoints(id, pointHistory.amount(), expireAtMillis);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 사용하는 기능을 작성해주세요.
      */
     @PatchMapping("/{id}/use")
-    public UserPoint use(@PathVariable("id") long id, @RequestBody PointHistory pointHistory) throws CustomException {
+    public UserPoint use(@PathVariable("id") long id, @RequestBody PointHistory pointHistory,
+                         @RequestHeader(value = PointClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy) throws CustomException {
+        if (clusterRouter.shouldForward(id, forwardedBy)) {
+            return clusterRouter.forwardUse(id, pointHistory.amount());
+        }
         return pointService.usePoints(id, pointHistory.amount());
     }
+
+    /**
+     * 특정 유저의 포인트를 다른 유저에게 이체합니다.
+     */
+    @PatchMapping("/{id}/transfer")
+    public TransferResult transfer(@PathVariable("id") long id, @RequestBody TransferRequest transferRequest,
+                                   @RequestHeader(value = PointClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy) throws CustomException {
+        if (clusterRouter.shouldForward(id, forwardedBy)) {
+            return clusterRouter.forwardTransfer(id, transferRequest);
+        }
+        clusterRouter.checkTransferable(id, transferRequest.toUserId());
+        return pointService.transferPoints(id, transferRequest.toUserId(), transferRequest.amount());
+    }
+
+    // If-None-Match 는 "*" 또는 쉼표로 구분된 태그 목록, 약한 비교(W/ 무시)로 판단한다.
+    // JSON 과 바이너리 표현이 같은 ETag 를 쓰므로, 공유 캐시가 다른 형식의 요청에 304 를 주지 않도록 Vary: Accept 를 붙인다.
+    private static <T> ResponseEntity<T> conditional(boolean notModified, String entityTag, T body) {
+        if (notModified) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(entityTag).varyBy(HttpHeaders.ACCEPT).body(body);
+    }
+
+    private static boolean matches(String ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null || entityTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
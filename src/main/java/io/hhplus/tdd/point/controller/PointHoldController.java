@@ -0,0 +1,69 @@
+package io.hhplus.tdd.point.controller;
+
+import io.hhplus.tdd.custom.CustomException;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.hhplus.tdd.point.HoldRequest;
+import io.hhplus.tdd.point.PointHold;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.cluster.PointClusterRouter;
+import io.hhplus.tdd.point.service.PointService;
+
+/**
+ * 포인트 예약 API (결제 흐름용)
+ * 결제 시작 시 예약하고, 결제가 끝나면 확정(capture)하거나 취소(release)한다.
+ */
+@RestController
+@RequestMapping("/point/{id}/holds")
+public class PointHoldController {
+
+    private final PointService pointService;
+    private final PointClusterRouter clusterRouter;
+
+    public PointHoldController(PointService pointService, PointClusterRouter clusterRouter) {
+        this.pointService = pointService;
+        this.clusterRouter = clusterRouter;
+    }
+
+    /**
+     * 사용 가능 포인트에서 amount 만큼을 예약합니다. ttlMillis 안에 확정/취소하지 않으면 자동으로 취소됩니다.
+     */
+    @PostMapping
+    public PointHold hold(@PathVariable("id") long id, @RequestBody HoldRequest holdRequest,
+                          @RequestHeader(value = PointClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy) throws CustomException {
+        if (clusterRouter.shouldForward(id, forwardedBy)) {
+            return clusterRouter.forwardHold(id, holdRequest);
+        }
+        return pointService.holdPoints(id, holdRequest.amount(), holdRequest.ttlMillis());
+    }
+
+    /**
+     * 예약한 포인트를 차감합니다.
+     */
+    @PatchMapping("/{holdId}/capture")
+    public UserPoint capture(@PathVariable("id") long id, @PathVariable("holdId") long holdId,
+                             @RequestHeader(value = PointClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy) throws CustomException {
+        if (clusterRouter.shouldForward(id, forwardedBy)) {
+            return clusterRouter.forwardCapture(id, holdId);
+        }
+        return pointService.captureHold(id, holdId);
+    }
+
+    /**
+     * 예약을 취소합니다.
+     */
+    @PatchMapping("/{holdId}/release")
+    public PointHold release(@PathVariable("id") long id, @PathVariable("holdId") long holdId,
+                             @RequestHeader(value = PointClusterRouter.FORWARDED_HEADER, required = false) String forwardedBy) throws CustomException {
+        if (clusterRouter.shouldForward(id, forwardedBy)) {
+            return clusterRouter.forwardRelease(id, holdId);
+        }
+        return pointService.releaseHold(id, holdId);
+    }
+}
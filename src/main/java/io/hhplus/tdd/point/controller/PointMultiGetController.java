@@ -0,0 +1,50 @@
+package io.hhplus.tdd.point.controller;
+
+import java.util.List;
+
+import io.hhplus.tdd.custom.CustomException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.hhplus.tdd.point.MultiGetEntry;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.readmodel.ReadConsistency;
+import io.hhplus.tdd.point.service.PointMultiGetService;
+
+/**
+ * 여러 유저를 한 번에 조회하는 API (대시보드용)
+ */
+@RestController
+@RequestMapping("/point/multi")
+public class PointMultiGetController {
+
+    private final PointMultiGetService pointMultiGetService;
+
+    public PointMultiGetController(PointMultiGetService pointMultiGetService) {
+        this.pointMultiGetService = pointMultiGetService;
+    }
+
+    /**
+     * 여러 유저의 포인트를 병렬로 조회합니다. 결과는 요청한 유저 순서대로 유저별 성공 여부와 함께 반환됩니다.
+     */
+    @GetMapping
+    public List<MultiGetEntry<UserPoint>> points(@RequestParam("ids") List<Long> ids,
+                                                 @RequestParam(value = "maxStalenessMillis", required = false, defaultValue = "-1") long maxStalenessMillis,
+                                                 @RequestParam(value = "minUpdateMillis", required = false, defaultValue = "0") long minUpdateMillis) throws CustomException {
+        return pointMultiGetService.getUserPoints(ids, new ReadConsistency(maxStalenessMillis, minUpdateMillis));
+    }
+
+    /**
+     * 여러 유저의 최근 포인트 히스토리를 병렬로 조회합니다.
+     */
+    @GetMapping("/histories")
+    public List<MultiGetEntry<List<PointHistory>>> histories(@RequestParam("ids") List<Long> ids,
+                                                             @RequestParam(value = "limit", required = false, defaultValue = "20") int limit,
+                                                             @RequestParam(value = "maxStalenessMillis", required = false, defaultValue = "-1") long maxStalenessMillis,
+                                                             @RequestParam(value = "minUpdateMillis", required = false, defaultValue = "0") long minUpdateMillis) throws CustomException {
+        return pointMultiGetService.getRecentHistories(ids, limit, new ReadConsistency(maxStalenessMillis, minUpdateMillis));
+    }
+}
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.point.dump;
+
+/**
+ * 전체 유저 포인트 / 히스토리 덤프 파일 형식
+ *
+ * 파일 헤더(MAGIC 4byte + VERSION 1byte) 뒤에 레코드가 이어지고, END 레코드로 끝난다.
+ * 레코드는 종류 1byte 뒤에 필드를 varint 로 기록한다. (음수가 될 수 있는 값은 zig-zag)
+ * - USER_POINT : id, zigZag(point), updateMillis
+ * - HISTORY    : id, userId, zigZag(amount), type ordinal, updateMillis
+ * - ROLLUP     : userId, zigZag(epochDay), zigZag(netAmount), chargeCount, useCount, expireCount, lastHistoryId (VERSION 2 부터)
+ * - END        : 유저 수, 히스토리 수, rollup 수 (import 시 잘린 파일을 걸러내는 데 사용, rollup 수는 VERSION 2 부터)
+ * VERSION 1 파일도 읽을 수 있다.
+ */
+public final class PointDumpFormat {
+
+    public static final byte[] MAGIC = {'P', 'T', 'D', 'P'};
+    public static final byte VERSION = 2;
+
+    public static final byte USER_POINT = 1;
+    public static final byte HISTORY = 2;
+    public static final byte END = 3;
+    public static final byte ROLLUP = 4;
+
+    // 레코드 하나의 최대 길이, 종류 1byte + varint 10byte * 7
+    static final int MAX_RECORD_BYTES = 1 + 10 * 7;
+
+    private PointDumpFormat() {
+    }
+}
@@ -0,0 +1,135 @@
+package io.hhplus.tdd.point.dump;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * PointDumpFormat 파일을 처음부터 끝까지 한 번 읽으며 레코드를 전달
+ * 고정 크기 direct buffer 를 채워가며 읽으므로 파일 크기와 관계없이 메모리 사용량이 일정하다.
+ */
+public final class PointDumpReader implements Closeable {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final byte version;
+    private boolean endOfFile;
+
+    public PointDumpReader(Path path, int bufferBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferBytes, PointDumpFormat.MAX_RECORD_BYTES * 2));
+        buffer.flip();
+
+        fill();
+        byte[] magic = new byte[PointDumpFormat.MAGIC.length];
+        if (buffer.remaining() < magic.length + 1) {
+            throw new IOException("덤프 파일이 아닙니다.");
+        }
+        buffer.get(magic);
+        this.version = buffer.get();
+        if (!Arrays.equals(magic, PointDumpFormat.MAGIC) || version < 1 || version > PointDumpFormat.VERSION) {
+            throw new IOException("지원하지 않는 덤프 파일입니다. version=" + version);
+        }
+    }
+
+    /**
+     * END 레코드까지 읽으며 유저는 users 로, 히스토리는 histories 로, rollup 은 rollups 로 전달
+     * END 레코드가 없거나 건수가 맞지 않으면 IOException
+     */
+    public void read(Consumer<UserPoint> users, Consumer<PointHistory> histories, Consumer<PointHistoryRollup> rollups) throws IOException {
+        long userCount = 0L;
+        long historyCount = 0L;
+        long rollupCount = 0L;
+        while (true) {
+            fill();
+            if (!buffer.hasRemaining()) {
+                throw new IOException("덤프 파일이 잘렸습니다. END 레코드가 없습니다.");
+            }
+            byte kind = buffer.get();
+            switch (kind) {
+                case PointDumpFormat.USER_POINT -> {
+                    users.accept(new UserPoint(readVarLong(), unZigZag(readVarLong()), readVarLong()));
+                    userCount++;
+                }
+                case PointDumpFormat.HISTORY -> {
+                    long id = readVarLong();
+                    long userId = readVarLong();
+                    long amount = unZigZag(readVarLong());
+                    int type = (int) readVarLong();
+                    if (type < 0 || type >= TYPES.length) {
+                        throw new IOException("알 수 없는 TransactionType 입니다. ordinal=" + type);
+                    }
+                    histories.accept(new PointHistory(id, userId, amount, TYPES[type], readVarLong()));
+                    historyCount++;
+                }
+                case PointDumpFormat.ROLLUP -> {
+                    rollups.accept(new PointHistoryRollup(readVarLong(), unZigZag(readVarLong()), unZigZag(readVarLong()),
+                            (int) readVarLong(), (int) readVarLong(), (int) readVarLong(), readVarLong()));
+                    rollupCount++;
+                }
+                case PointDumpFormat.END -> {
+                    long expectedUsers = readVarLong();
+                    long expectedHistories = readVarLong();
+                    long expectedRollups = version >= 2 ? readVarLong() : 0L;
+                    if (expectedUsers != userCount || expectedHistories != historyCount || expectedRollups != rollupCount) {
+                        throw new IOException(String.format("덤프 건수가 맞지 않습니다. users=%d/%d, histories=%d/%d, rollups=%d/%d",
+                                userCount, expectedUsers, historyCount, expectedHistories, rollupCount, expectedRollups));
+                    }
+                    return;
+                }
+                default -> throw new IOException("알 수 없는 레코드 종류입니다. kind=" + kind);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // 남은 바이트가 레코드 하나보다 적으면 앞으로 당기고 파일에서 더 읽어온다.
+    private void fill() throws IOException {
+        if (endOfFile || buffer.remaining() >= PointDumpFormat.MAX_RECORD_BYTES) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                endOfFile = true;
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0L;
+        int shift = 0;
+        byte b;
+        do {
+            if (!buffer.hasRemaining()) {
+                throw new IOException("덤프 파일이 잘렸습니다.");
+            }
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
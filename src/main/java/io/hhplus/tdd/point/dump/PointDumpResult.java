@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point.dump;
+
+public record PointDumpResult(
+        String fileName,
+        long userCount,
+        long historyCount,
+        long rollupCount,
+        long fileBytes,
+        long elapsedMillis
+) {
+}
@@ -0,0 +1,147 @@
+package io.hhplus.tdd.point.dump;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.hhplus.tdd.custom.CustomException;
+import io.hhplus.tdd.repository.PointHistoryRepository;
+import io.hhplus.tdd.repository.UserPointRepository;
+
+/**
+ * 전체 유저 포인트 / 히스토리(보관 기간이 지나 접힌 rollup 포함)를 파일로 내보내고(export) 다시 적재(import)
+ *
+ * - export : repository 를 순회하며 바로 파일에 기록한다. 순회 중 들어온 쓰기는 반영될 수도, 안 될 수도 있다.
+ * - import : 파일을 읽으며 repository 에 바로 적재한다. (table 의 throttle 을 거치지 않음)
+ *   트래픽을 받기 전 빈 노드에 데이터를 옮기는 용도이며, 이미 쓰기가 일어난 유저/히스토리가 있으면 실패한다.
+ * 파일은 point.dump.dir 아래에만 만들고 읽는다.
+ */
+@Service
+public class PointDumpService {
+
+    private static final Logger log = LoggerFactory.getLogger(PointDumpService.class);
+
+    private final Path dumpDir;
+    private final int bufferBytes;
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+
+    @Autowired
+    public PointDumpService(@Value("${point.dump.dir:${java.io.tmpdir}/point-dump}") String dumpDir,
+                            @Value("${point.dump.buffer-bytes:4194304}") int bufferBytes,
+                            UserPointRepository userPointRepository,
+                            PointHistoryRepository pointHistoryRepository) {
+        this.dumpDir = Path.of(dumpDir).toAbsolutePath().normalize();
+        this.bufferBytes = bufferBytes;
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+    }
+
+    public PointDumpResult export(String fileName) throws CustomException {
+        Path target = resolve(fileName);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long start = System.currentTimeMillis();
+        try {
+            Files.createDirectories(dumpDir);
+            PointDumpWriter writer = new PointDumpWriter(temp, bufferBytes);
+            try (writer) {
+                userPointRepository.forEach(userPoint -> {
+                    // 포인트가 0 인 유저는 없는 유저로 취급하므로 내보내지 않는다.
+                    if (userPoint.point() != 0) {
+                        write(() -> writer.writeUserPoint(userPoint));
+                    }
+                });
+                pointHistoryRepository.forEach(pointHistory -> write(() -> writer.writeHistory(pointHistory)));
+                pointHistoryRepository.forEachRollup(rollup -> write(() -> writer.writeRollup(rollup)));
+                writer.finish();
+            }
+            // 다 쓴 파일만 보이도록 임시 파일로 기록한 뒤 이름을 바꾼다.
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            PointDumpResult result = new PointDumpResult(fileName, writer.userCount(), writer.historyCount(), writer.rollupCount(),
+                    Files.size(target), System.currentTimeMillis() - start);
+            log.info("point dump exported: {}", result);
+            return result;
+        } catch (IOException | UncheckedIOException e) {
+            deleteQuietly(temp);
+            throw new CustomException(String.format("덤프 파일을 쓰는 중 오류가 발생했습니다. %s - %s", fileName, e.getMessage()));
+        }
+    }
+
+    public PointDumpResult importDump(String fileName) throws CustomException {
+        Path source = resolve(fileName);
+        if (!Files.isRegularFile(source)) {
+            throw new CustomException("덤프 파일이 없습니다. " + fileName);
+        }
+
+        long start = System.currentTimeMillis();
+        long[] counts = new long[3];
+        try (PointDumpReader reader = new PointDumpReader(source, bufferBytes)) {
+            reader.read(userPoint -> {
+                userPointRepository.bulkInsert(userPoint);
+                counts[0]++;
+            }, pointHistory -> {
+                pointHistoryRepository.bulkInsert(pointHistory);
+                counts[1]++;
+            }, rollup -> {
+                pointHistoryRepository.insertRollup(rollup);
+                counts[2]++;
+            });
+            // 모아 둔 행까지 반영되어야 적재가 끝난 것으로 본다.
+            userPointRepository.flushBulkInserts();
+            pointHistoryRepository.flushBulkInserts();
+
+            PointDumpResult result = new PointDumpResult(fileName, counts[0], counts[1], counts[2],
+                    Files.size(source), System.currentTimeMillis() - start);
+            log.info("point dump imported: {}", result);
+            return result;
+        } catch (IOException e) {
+            throw new CustomException(String.format("덤프 파일을 읽는 중 오류가 발생했습니다. %s - %s (적재된 유저 %d, 히스토리 %d)",
+                    fileName, e.getMessage(), counts[0], counts[1]));
+        } catch (IllegalStateException e) {
+            throw new CustomException(String.format("덤프를 적재할 수 없습니다. %s - %s (적재된 유저 %d, 히스토리 %d)",
+                    fileName, e.getMessage(), counts[0], counts[1]));
+        }
+    }
+
+    // point.dump.dir 밖의 경로는 허용하지 않는다.
+    private Path resolve(String fileName) throws CustomException {
+        if (fileName == null || fileName.isBlank()) {
+            throw new CustomException("덤프 파일 이름이 없습니다.");
+        }
+        Path path = dumpDir.resolve(fileName).normalize();
+        if (!dumpDir.equals(path.getParent())) {
+            throw new CustomException("덤프 파일 이름이 올바르지 않습니다. " + fileName);
+        }
+        return path;
+    }
+
+    private static void write(DumpWrite dumpWrite) {
+        try {
+            dumpWrite.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("point dump temp file not deleted: {}", path);
+        }
+    }
+
+    @FunctionalInterface
+    private interface DumpWrite {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,118 @@
+package io.hhplus.tdd.point.dump;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * PointDumpFormat 으로 파일에 기록
+ * 고정 크기 direct buffer 에 레코드를 채우고 가득 차면 FileChannel 로 내보내므로 메모리 사용량은 buffer 크기로 고정된다.
+ */
+public final class PointDumpWriter implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long userCount;
+    private long historyCount;
+    private long rollupCount;
+
+    public PointDumpWriter(Path path, int bufferBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferBytes, PointDumpFormat.MAX_RECORD_BYTES * 2));
+        buffer.put(PointDumpFormat.MAGIC).put(PointDumpFormat.VERSION);
+    }
+
+    public void writeUserPoint(UserPoint userPoint) throws IOException {
+        ensureRemaining();
+        buffer.put(PointDumpFormat.USER_POINT);
+        putVarLong(userPoint.id());
+        putVarLong(zigZag(userPoint.point()));
+        putVarLong(userPoint.updateMillis());
+        userCount++;
+    }
+
+    public void writeHistory(PointHistory pointHistory) throws IOException {
+        ensureRemaining();
+        buffer.put(PointDumpFormat.HISTORY);
+        putVarLong(pointHistory.id());
+        putVarLong(pointHistory.userId());
+        putVarLong(zigZag(pointHistory.amount()));
+        putVarLong(pointHistory.type().ordinal());
+        putVarLong(pointHistory.updateMillis());
+        historyCount++;
+    }
+
+    public void writeRollup(PointHistoryRollup rollup) throws IOException {
+        ensureRemaining();
+        buffer.put(PointDumpFormat.ROLLUP);
+        putVarLong(rollup.userId());
+        putVarLong(zigZag(rollup.epochDay()));
+        putVarLong(zigZag(rollup.netAmount()));
+        putVarLong(rollup.chargeCount());
+        putVarLong(rollup.useCount());
+        putVarLong(rollup.expireCount());
+        putVarLong(rollup.lastHistoryId());
+        rollupCount++;
+    }
+
+    // END 레코드를 기록하고 디스크까지 반영, 이 메서드를 호출하지 않은 파일은 import 할 수 없다.
+    public void finish() throws IOException {
+        ensureRemaining();
+        buffer.put(PointDumpFormat.END);
+        putVarLong(userCount);
+        putVarLong(historyCount);
+        putVarLong(rollupCount);
+        flush();
+        channel.force(false);
+    }
+
+    public long userCount() {
+        return userCount;
+    }
+
+    public long historyCount() {
+        return historyCount;
+    }
+
+    public long rollupCount() {
+        return rollupCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void ensureRemaining() throws IOException {
+        if (buffer.remaining() < PointDumpFormat.MAX_RECORD_BYTES) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void putVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,48 @@
+package io.hhplus.tdd.point.expiry;
+
+/**
+ * 충전 단위(lot), 사용 시 오래된 lot 부터 차감된다.
+ * remaining 은 해당 유저의 lock 안에서만 변경한다.
+ */
+public final class ChargeLot {
+
+    // 만료되지 않는 lot 의 만료 시각
+    static final long NEVER = Long.MAX_VALUE;
+
+    private final long userId;
+    private final long expireAtMillis;
+    private long remaining;
+
+    ChargeLot(long userId, long amount, long expireAtMillis) {
+        this.userId = userId;
+        this.remaining = amount;
+        this.expireAtMillis = expireAtMillis;
+    }
+
+    public long userId() {
+        return userId;
+    }
+
+    public long expireAtMillis() {
+        return expireAtMillis;
+    }
+
+    public long remaining() {
+        return remaining;
+    }
+
+    boolean expires() {
+        return expireAtMillis != NEVER;
+    }
+
+    void add(long amount) {
+        remaining += amount;
+    }
+
+    // 최대 amount 만큼 차감하고 실제 차감된 양을 반환
+    long take(long amount) {
+        long taken = Math.min(remaining, amount);
+        remaining -= taken;
+        return taken;
+    }
+}
@@ -0,0 +1,160 @@
+package io.hhplus.tdd.point.expiry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 유저별 충전 lot 장부와 만료 일정
+ *
+ * - 만료되는 충전이 한 번이라도 있는 유저만 lot 을 기록한다. 처음 기록할 때 기존 잔액은 만료되지 않는 가장 오래된 lot 으로 본다.
+ *   만료되는 lot 이 모두 소진/만료되면 장부에서 지워 다시 기록하지 않는 상태로 돌아간다.
+ * - 만료되지 않는 충전이 연달아 들어오면 마지막 lot 에 합쳐서 lot 수가 늘어나지 않도록 한다.
+ * - 만료되는 lot 은 TimingWheel 에 등록하고, 만료 전에 모두 사용된 lot 은 만료 시점에 건너뛴다.
+ *
+ * lot 을 바꾸는 메서드(charge, use, expire, forget)는 반드시 해당 유저의 lock 을 잡은 상태에서 호출해야 한다.
+ */
+@Component
+public class ChargeLotLedger {
+
+    private final ConcurrentHashMap<Long, ArrayDeque<ChargeLot>> lots = new ConcurrentHashMap<>();
+    private final TimingWheel<ChargeLot> timingWheel;
+
+    // 예약에 묶여 다 소멸시키지 못한 lot, timingWheel lock 안에서만 접근
+    private final List<ChargeLot> deferred = new ArrayList<>();
+
+    @Autowired
+    public ChargeLotLedger(@Value("${point.expiry.tick-millis:1000}") long tickMillis) {
+        // 1 tick * 64^5, tick 이 1초면 약 34년까지 등록할 수 있다.
+        this.timingWheel = new TimingWheel<>(tickMillis, 6, 5, System.currentTimeMillis());
+    }
+
+    /**
+     * 충전 기록
+     *
+     * @param balanceBefore 충전 전 잔액, 처음 기록하는 유저의 기존 잔액 lot 으로 사용
+     * @param expireAtMillis 만료 시각, 0 이면 만료되지 않는 충전
+     */
+    public void charge(long userId, long balanceBefore, long amount, long expireAtMillis) {
+        ArrayDeque<ChargeLot> userLots = lots.get(userId);
+        if (expireAtMillis <= 0) {
+            if (userLots != null) {
+                ChargeLot last = userLots.peekLast();
+                if (last != null && !last.expires()) {
+                    last.add(amount);
+                } else {
+                    userLots.addLast(new ChargeLot(userId, amount, ChargeLot.NEVER));
+                }
+            }
+            return;
+        }
+
+        if (userLots == null) {
+            userLots = new ArrayDeque<>();
+            if (balanceBefore > 0) {
+                userLots.addLast(new ChargeLot(userId, balanceBefore, ChargeLot.NEVER));
+            }
+            lots.put(userId, userLots);
+        }
+        ChargeLot lot = new ChargeLot(userId, amount, expireAtMillis);
+        userLots.addLast(lot);
+        synchronized (timingWheel) {
+            timingWheel.schedule(expireAtMillis, lot);
+        }
+    }
+
+    // 사용 기록, 오래된 lot 부터 차감한다.
+    public void use(long userId, long amount) {
+        ArrayDeque<ChargeLot> userLots = lots.get(userId);
+        if (userLots == null) {
+            return;
+        }
+        while (amount > 0 && !userLots.isEmpty()) {
+            ChargeLot head = userLots.peekFirst();
+            amount -= head.take(amount);
+            if (head.remaining() == 0) {
+                userLots.pollFirst();
+            }
+        }
+        forgetIfNoExpiringLot(userId, userLots);
+    }
+
+    /**
+     * 만료 처리, lot 의 남은 양에서 최대 maxAmount 만큼 소멸시킨다.
+     * 다 소멸시키지 못한 lot 은 장부에 그대로 두고 미뤄 두었다가 rescheduleDeferred 때 다시 등록한다.
+     *
+     * @return 만료된 양, 이미 모두 사용된 lot 이면 0
+     */
+    public long expire(ChargeLot lot, long maxAmount) {
+        ArrayDeque<ChargeLot> userLots = lots.get(lot.userId());
+        long expired = lot.take(maxAmount);
+        if (lot.remaining() > 0) {
+            synchronized (timingWheel) {
+                deferred.add(lot);
+            }
+        } else if (userLots != null) {
+            userLots.remove(lot);
+            forgetIfNoExpiringLot(lot.userId(), userLots);
+        }
+        return expired;
+    }
+
+    // 외부에서 잔액을 덮어쓴 유저는 lot 을 맞출 수 없으므로 장부에서 지운다.
+    public void forget(long userId) {
+        ArrayDeque<ChargeLot> userLots = lots.remove(userId);
+        if (userLots != null) {
+            // TimingWheel 에 남은 lot 은 만료 시점에 건너뛰도록 비운다.
+            userLots.forEach(lot -> lot.take(lot.remaining()));
+        }
+    }
+
+    // 만료 시각이 지난 lot 을 최대 maxLots 개 꺼낸다.
+    public List<ChargeLot> pollDue(long nowMillis, int maxLots) {
+        List<ChargeLot> due = new ArrayList<>();
+        synchronized (timingWheel) {
+            timingWheel.advance(nowMillis, maxLots, due);
+        }
+        return due;
+    }
+
+    /**
+     * 미뤄 둔 lot 을 deadlineMillis 에 다시 등록, 만료 처리 한 번(pollDue 반복)이 끝난 뒤 호출한다.
+     *
+     * @return 다시 등록한 lot 수
+     */
+    public int rescheduleDeferred(long deadlineMillis) {
+        synchronized (timingWheel) {
+            int rescheduled = deferred.size();
+            deferred.forEach(lot -> timingWheel.schedule(deadlineMillis, lot));
+            deferred.clear();
+            return rescheduled;
+        }
+    }
+
+    // 만료 대기중인 lot 수 (이미 사용된 lot 포함)
+    public int scheduledLots() {
+        synchronized (timingWheel) {
+            return timingWheel.size();
+        }
+    }
+
+    // 유저의 남은 lot (운영/테스트 확인용), 해당 유저의 lock 안에서 호출해야 한다.
+    public List<ChargeLot> lotsOf(long userId) {
+        ArrayDeque<ChargeLot> userLots = lots.get(userId);
+        return userLots == null ? List.of() : List.copyOf(userLots);
+    }
+
+    private void forgetIfNoExpiringLot(long userId, ArrayDeque<ChargeLot> userLots) {
+        for (ChargeLot lot : userLots) {
+            if (lot.expires()) {
+                return;
+            }
+        }
+        lots.remove(userId, userLots);
+    }
+}
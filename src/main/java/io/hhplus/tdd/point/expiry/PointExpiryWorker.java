@@ -0,0 +1,109 @@
+package io.hhplus.tdd.point.expiry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.hhplus.tdd.point.service.PointService;
+
+/**
+ * 만료 시각이 지난 충전분을 주기적으로 소멸 처리
+ *
+ * tick 마다 ChargeLotLedger 에서 만료된 lot 을 batchSize 개씩 꺼내 유저별로 묶어 처리한다.
+ * 유저 lock 은 유저마다 따로 잡으므로 다른 유저의 충전/사용은 막지 않는다.
+ */
+@Component
+public class PointExpiryWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(PointExpiryWorker.class);
+
+    private final boolean enabled;
+    private final long tickMillis;
+    private final int batchSize;
+    private final ChargeLotLedger chargeLotLedger;
+    private final PointService pointService;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "point-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public PointExpiryWorker(@Value("${point.expiry.enabled:true}") boolean enabled,
+                             @Value("${point.expiry.tick-millis:1000}") long tickMillis,
+                             @Value("${point.expiry.batch-size:1000}") int batchSize,
+                             ChargeLotLedger chargeLotLedger,
+                             PointService pointService) {
+        this.enabled = enabled;
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.chargeLotLedger = chargeLotLedger;
+        this.pointService = pointService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::runOnce, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * nowMillis 기준으로 만료된 lot 을 모두 처리
+     *
+     * @return 꺼낸 lot 수 (만료 전에 모두 사용되어 건너뛴 lot 포함)
+     */
+    public int expireDue(long nowMillis) {
+        int processed = 0;
+        while (true) {
+            List<ChargeLot> due = chargeLotLedger.pollDue(nowMillis, batchSize);
+            if (due.isEmpty()) {
+                // 예약에 묶여 다 소멸시키지 못한 lot 은 다음 tick 에 다시 시도
+                chargeLotLedger.rescheduleDeferred(nowMillis + tickMillis);
+                return processed;
+            }
+
+            Map<Long, List<ChargeLot>> dueByUser = new LinkedHashMap<>();
+            for (ChargeLot lot : due) {
+                dueByUser.computeIfAbsent(lot.userId(), userId -> new ArrayList<>()).add(lot);
+            }
+            dueByUser.forEach((userId, lots) -> {
+                try {
+                    pointService.expirePoints(userId, lots);
+                } catch (RuntimeException e) {
+                    log.warn("point expiry failed: user={}, lots={} - {}", userId, lots.size(), e.getMessage());
+                }
+            });
+            processed += due.size();
+        }
+    }
+
+    private void runOnce() {
+        try {
+            int processed = expireDue(System.currentTimeMillis());
+            if (processed > 0) {
+                log.info("point expiry processed: lots={}, scheduled={}", processed, chargeLotLedger.scheduledLots());
+            }
+        } catch (RuntimeException e) {
+            log.warn("point expiry run failed - {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.hhplus.tdd.point.expiry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 계층형 타이밍 휠 (hierarchical timing wheel)
+ *
+ * tick 단위 시간을 level 마다 2^wheelBits 칸의 바퀴로 나눈다.
+ * level 0 의 한 칸은 1 tick, level 1 의 한 칸은 2^wheelBits tick ... 이고,
+ * 등록은 남은 tick 수에 맞는 level 의 칸에 넣기만 하므로 O(1) 이다.
+ * 시간이 흘러 상위 level 의 칸 경계를 지나면 그 칸의 항목을 하위 level 로 다시 나눠 담고(cascade),
+ * level 0 의 칸에 도달한 항목이 만료 대상이 된다.
+ *
+ * thread-safe 하지 않으므로 호출하는 쪽에서 동기화해야 한다.
+ */
+public final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int wheelMask;
+    private final List<Entry<T>>[][] buckets;
+    // 이미 지났거나 범위를 넘어선 항목
+    private List<Entry<T>> overdue = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelBits, int levels, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelBits = wheelBits;
+        this.wheelMask = (1 << wheelBits) - 1;
+        this.buckets = new List[levels][1 << wheelBits];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public void schedule(long deadlineMillis, T item) {
+        place(new Entry<>(deadlineMillis / tickMillis, item));
+        size++;
+    }
+
+    /**
+     * nowMillis 까지 시간을 진행하며 만료된 항목을 due 에 담는다.
+     * 한 번에 최대 maxItems 개까지만 꺼내고, 나머지는 다음 호출에서 꺼낸다.
+     */
+    public void advance(long nowMillis, int maxItems, List<T> due) {
+        long targetTick = nowMillis / tickMillis;
+        drainOverdue(maxItems, due);
+        while (due.size() < maxItems && currentTick < targetTick) {
+            currentTick++;
+            for (int level = buckets.length - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (wheelBits * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            List<Entry<T>> bucket = buckets[0][(int) (currentTick & wheelMask)];
+            if (bucket != null) {
+                buckets[0][(int) (currentTick & wheelMask)] = null;
+                overdue.addAll(bucket);
+            }
+            drainOverdue(maxItems, due);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 가장 먼 level 이 다룰 수 있는 tick 수, 넘어서면 마지막 칸에 넣었다가 cascade 때 다시 나눈다.
+    private void place(Entry<T> entry) {
+        long remainingTicks = entry.deadlineTick - currentTick;
+        if (remainingTicks <= 0) {
+            overdue.add(entry);
+            return;
+        }
+        for (int level = 0; level < buckets.length; level++) {
+            if (remainingTicks < 1L << (wheelBits * (level + 1)) || level == buckets.length - 1) {
+                long tick = Math.min(entry.deadlineTick, currentTick + (1L << (wheelBits * (level + 1))) - 1);
+                int slot = (int) ((tick >>> (wheelBits * level)) & wheelMask);
+                List<Entry<T>> bucket = buckets[level][slot];
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    buckets[level][slot] = bucket;
+                }
+                bucket.add(entry);
+                return;
+            }
+        }
+    }
+
+    private void cascade(int level) {
+        int slot = (int) ((currentTick >>> (wheelBits * level)) & wheelMask);
+        List<Entry<T>> bucket = buckets[level][slot];
+        if (bucket == null) {
+            return;
+        }
+        buckets[level][slot] = null;
+        for (Entry<T> entry : bucket) {
+            place(entry);
+        }
+    }
+
+    private void drainOverdue(int maxItems, List<T> due) {
+        if (overdue.isEmpty()) {
+            return;
+        }
+        int count = Math.min(overdue.size(), maxItems - due.size());
+        for (int i = 0; i < count; i++) {
+            due.add(overdue.get(i).item);
+        }
+        size -= count;
+        overdue = count == overdue.size() ? new ArrayList<>() : new ArrayList<>(overdue.subList(count, overdue.size()));
+    }
+
+    private record Entry<T>(long deadlineTick, T item) {
+    }
+}
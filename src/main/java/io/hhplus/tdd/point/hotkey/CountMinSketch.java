@@ -0,0 +1,59 @@
+package io.hhplus.tdd.point.hotkey;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * userId 별 요청 수를 근사하는 Count-Min Sketch
+ *
+ * depth 개의 행마다 서로 다른 hash 로 칸을 골라 증가시키고, 추정치는 그 중 최솟값을 사용한다.
+ * 추정치는 실제보다 작아지지 않으며(과대추정만 발생), 메모리는 depth * width 로 고정된다.
+ * 각 칸은 AtomicLongArray 로 lock 없이 증가시킨다.
+ */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9e3779b97f4a7c15L, 0xbf58476d1ce4e5b9L, 0x94d049bb133111ebL, 0x2545f4914f6cdd1dL,
+            0x62a9d9ed799705f5L, 0xd6e8feb86659fd93L, 0xa0761d6478bd642fL, 0xe7037ed1a0b428dbL
+    };
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth 는 1 ~ " + SEEDS.length + " 사이여야 합니다.");
+        }
+        if (width <= 0 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width 는 2의 거듭제곱이어야 합니다.");
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    // key 의 횟수를 1 증가시키고 증가 후 추정치를 반환
+    public long increment(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, key)));
+        }
+        return estimate;
+    }
+
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, key)));
+        }
+        return estimate;
+    }
+
+    private int index(int row, long key) {
+        long h = (key ^ SEEDS[row]) * 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return row * (mask + 1) + (int) (h & mask);
+    }
+}
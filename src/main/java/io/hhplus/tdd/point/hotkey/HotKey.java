@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point.hotkey;
+
+/**
+ * 현재 hot 으로 분류된 유저
+ * - userId : 유저 아이디
+ * - estimatedCount : 직전 window 의 추정 요청 수
+ */
+public record HotKey(
+        long userId,
+        long estimatedCount
+) {
+}
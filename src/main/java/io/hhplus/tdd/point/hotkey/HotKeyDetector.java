@@ -0,0 +1,153 @@
+package io.hhplus.tdd.point.hotkey;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 충전/사용 요청이 몰리는 유저(hot key) 탐지
+ *
+ * 고정 길이 window 마다 Count-Min Sketch 로 userId 별 요청 수를 세고,
+ * - window 안에서 추정치가 hotThreshold 이상이 되면 즉시 hot 으로 승격
+ * - window 가 끝날 때 추정치가 coolThreshold(hotThreshold / 2) 미만인 유저는 hot 에서 해제
+ * 한다. 승격/해제 기준을 다르게 두어 경계에 있는 유저가 매 window 마다 오가지 않도록 한다.
+ *
+ * window 교체는 별도 스레드 없이 record 호출 시점에 지연 처리한다.
+ */
+@Component
+public class HotKeyDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyDetector.class);
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final long hotThreshold;
+    private final long coolThreshold;
+    private final int sketchDepth;
+    private final int sketchWidth;
+
+    private volatile Window window;
+
+    // 현재 hot 유저와 직전 window 추정치, 변경 시 통째로 교체한다.
+    private volatile Map<Long, Long> hotKeys = Collections.emptyMap();
+
+    @Autowired
+    public HotKeyDetector(@Value("${point.hot-key.enabled:true}") boolean enabled,
+                          @Value("${point.hot-key.window-millis:1000}") long windowMillis,
+                          @Value("${point.hot-key.threshold:50}") long hotThreshold,
+                          @Value("${point.hot-key.sketch-depth:4}") int sketchDepth,
+                          @Value("${point.hot-key.sketch-width:4096}") int sketchWidth) {
+        this.enabled = enabled;
+        this.windowMillis = windowMillis;
+        this.hotThreshold = hotThreshold;
+        this.coolThreshold = Math.max(1L, hotThreshold / 2);
+        this.sketchDepth = sketchDepth;
+        this.sketchWidth = sketchWidth;
+        this.window = new Window(System.currentTimeMillis(), new CountMinSketch(sketchDepth, sketchWidth));
+    }
+
+    // hot key 처리를 사용하지 않는 경우
+    public static HotKeyDetector disabled() {
+        return new HotKeyDetector(false, 1000L, Long.MAX_VALUE, 1, 1);
+    }
+
+    /**
+     * 요청 1건 기록
+     *
+     * @return 해당 유저가 hot 이면 true
+     */
+    public boolean record(long userId) {
+        if (!enabled) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        Window current = window;
+        if (now - current.startMillis >= windowMillis) {
+            current = rotate(now);
+        }
+
+        long estimate = current.sketch.increment(userId);
+        if (estimate >= coolThreshold) {
+            current.candidates.put(userId, estimate);
+        }
+        if (estimate >= hotThreshold && !hotKeys.containsKey(userId)) {
+            promote(userId, estimate);
+        }
+        return hotKeys.containsKey(userId);
+    }
+
+    public boolean isHot(long userId) {
+        return hotKeys.containsKey(userId);
+    }
+
+    // 운영자 확인용, 추정 요청 수가 많은 순
+    public List<HotKey> hotKeys() {
+        long now = System.currentTimeMillis();
+        if (now - window.startMillis >= windowMillis) {
+            rotate(now);
+        }
+        return hotKeys.entrySet().stream()
+                .map(entry -> new HotKey(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(HotKey::estimatedCount).reversed())
+                .toList();
+    }
+
+    private synchronized void promote(long userId, long estimate) {
+        if (hotKeys.containsKey(userId)) {
+            return;
+        }
+        Map<Long, Long> next = new HashMap<>(hotKeys);
+        next.put(userId, estimate);
+        hotKeys = Collections.unmodifiableMap(next);
+        log.info("hot key promoted: user={}, estimate={}", userId, estimate);
+    }
+
+    // window 종료, 다음 window 의 hot 목록을 정하고 sketch 를 새로 만든다.
+    private synchronized Window rotate(long now) {
+        Window finished = window;
+        if (now - finished.startMillis < windowMillis) {
+            return finished;
+        }
+
+        // 요청이 없어 window 가 통째로 비었으면 모두 식은 것으로 본다.
+        boolean idle = now - finished.startMillis >= windowMillis * 2;
+        Map<Long, Long> next = new HashMap<>();
+        if (!idle) {
+            finished.candidates.forEach((userId, estimate) -> {
+                if (estimate >= hotThreshold || (hotKeys.containsKey(userId) && estimate >= coolThreshold)) {
+                    next.put(userId, estimate);
+                }
+            });
+        }
+        hotKeys.keySet().stream()
+                .filter(userId -> !next.containsKey(userId))
+                .forEach(userId -> log.info("hot key cooled down: user={}", userId));
+        hotKeys = Collections.unmodifiableMap(next);
+
+        Window started = new Window(now, new CountMinSketch(sketchDepth, sketchWidth));
+        window = started;
+        return started;
+    }
+
+    private static final class Window {
+        private final long startMillis;
+        private final CountMinSketch sketch;
+        // 추정치가 coolThreshold 이상인 유저만 기록하므로 크기는 (window 요청 수 / coolThreshold) 이하
+        private final ConcurrentHashMap<Long, Long> candidates = new ConcurrentHashMap<>();
+
+        private Window(long startMillis, CountMinSketch sketch) {
+            this.startMillis = startMillis;
+            this.sketch = sketch;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.hhplus.tdd.point.ratelimit;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.hhplus.tdd.custom.CustomException;
+import io.hhplus.tdd.point.cluster.PointClusterRouter;
+
+/**
+ * 충전/사용/이체 요청을 PointService 에 들어가기 전에 유저별로 제한
+ *
+ * 클러스터 모드에서는 담당 노드에서만 제한한다. (forward 할 요청은 담당 노드가 판단)
+ * 제한을 넘으면 429 와 Retry-After(초) 로 응답한다.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String REJECTED_BODY = "{\"code\":\"429\",\"message\":\"요청이 너무 많습니다. 잠시 후 다시 시도해주세요.\"}";
+
+    private final UserRateLimiter userRateLimiter;
+    private final PointClusterRouter clusterRouter;
+
+    public RateLimitInterceptor(UserRateLimiter userRateLimiter, PointClusterRouter clusterRouter) {
+        this.userRateLimiter = userRateLimiter;
+        this.clusterRouter = clusterRouter;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String id = variables == null ? null : variables.get("id");
+        if (id == null) {
+            return true;
+        }
+
+        long userId;
+        try {
+            userId = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return true;
+        }
+        try {
+            if (clusterRouter.shouldForward(userId, request.getHeader(PointClusterRouter.FORWARDED_HEADER))) {
+                return true;
+            }
+        } catch (CustomException e) {
+            // 이 노드가 담당하지 않는 유저, 컨트롤러에서 같은 판단으로 거절된다.
+            return true;
+        }
+
+        long waitNanos = userRateLimiter.tryAcquire(userId);
+        if (waitNanos == 0L) {
+            return true;
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(REJECTED_BODY);
+        return false;
+    }
+}
@@ -0,0 +1,27 @@
+package io.hhplus.tdd.point.ratelimit;
+
+/**
+ * 유저 등급별 요청 제한
+ * - permitsPerSecond : 초당 허용 요청 수 (0 이하면 제한 없음)
+ * - burst : 쉬고 있던 유저가 한 번에 보낼 수 있는 최대 요청 수
+ */
+public record RateLimitPolicy(
+        String name,
+        double permitsPerSecond,
+        int burst
+) {
+
+    public boolean unlimited() {
+        return permitsPerSecond <= 0;
+    }
+
+    // 요청 1건이 차지하는 시간(ns)
+    long intervalNanos() {
+        return (long) (1_000_000_000L / permitsPerSecond);
+    }
+
+    // 미리 당겨 쓸 수 있는 시간(ns), burst 건까지 연속으로 허용된다.
+    long toleranceNanos() {
+        return intervalNanos() * (Math.max(1, burst) - 1);
+    }
+}
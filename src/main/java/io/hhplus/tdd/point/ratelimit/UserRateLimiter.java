@@ -0,0 +1,199 @@
+package io.hhplus.tdd.point.ratelimit;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.LongSupplier;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 유저별 충전/사용 요청 제한 (token bucket)
+ *
+ * bucket 은 토큰 수와 마지막 충전 시각 대신, 다음 요청이 허용되는 이론상 시각(tat) 하나로 표현한다. (GCRA)
+ * - 요청 1건마다 tat 를 interval 만큼 뒤로 민다. (tat 가 과거면 현재 시각부터)
+ * - tat 가 현재보다 tolerance 이상 앞서 있으면 토큰이 없는 것이므로 거절
+ * 상태가 long 하나라서 lock 없이 CAS 로 갱신하고, 저장소는 전혀 거치지 않는다.
+ *
+ * tat 가 현재 시각 이전인 bucket 은 토큰이 가득 찬 상태로 새 bucket 과 같으므로 주기적으로 제거한다.
+ * 그래도 bucket 이 maxBuckets 를 넘으면 새 유저는 id 별로 나뉜 몇 개의 overflow bucket 을 함께 쓰며 기본 제한을 받는다.
+ * 여러 유저가 bucket 하나를 나눠 쓰므로 더 엄격해질 뿐, 메모리 상한 때문에 제한이 풀리지는 않는다.
+ */
+@Component
+public class UserRateLimiter {
+
+    private static final AtomicLongFieldUpdater<Bucket> TAT = AtomicLongFieldUpdater.newUpdater(Bucket.class, "tat");
+    private static final int OVERFLOW_BUCKETS = 16;
+
+    private final boolean enabled;
+    private final RateLimitPolicy defaultPolicy;
+    private final Map<Long, RateLimitPolicy> userPolicies;
+    private final int maxBuckets;
+    private final long sweepMillis;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket[] overflowBuckets = new Bucket[OVERFLOW_BUCKETS];
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "point-rate-limit-sweep");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * classes : 등급별 제한, "premium=200/400,internal=0/0" (이름=초당 요청 수/burst)
+     * users : 유저별 등급, "1=premium,2=internal" (지정하지 않은 유저는 기본 제한)
+     */
+    @Autowired
+    public UserRateLimiter(@Value("${point.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${point.rate-limit.permits-per-second:50}") double permitsPerSecond,
+                           @Value("${point.rate-limit.burst:100}") int burst,
+                           @Value("${point.rate-limit.classes:}") String classes,
+                           @Value("${point.rate-limit.users:}") String users,
+                           @Value("${point.rate-limit.max-buckets:1000000}") int maxBuckets,
+                           @Value("${point.rate-limit.sweep-millis:1000}") long sweepMillis) {
+        this(enabled, new RateLimitPolicy("default", permitsPerSecond, burst), userPolicies(parseClasses(classes), users),
+                maxBuckets, sweepMillis, System::nanoTime);
+    }
+
+    public UserRateLimiter(boolean enabled, RateLimitPolicy defaultPolicy, Map<Long, RateLimitPolicy> userPolicies,
+                           int maxBuckets, long sweepMillis, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.defaultPolicy = defaultPolicy;
+        this.userPolicies = Map.copyOf(userPolicies);
+        this.maxBuckets = maxBuckets;
+        this.sweepMillis = sweepMillis;
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        for (int i = 0; i < OVERFLOW_BUCKETS; i++) {
+            overflowBuckets[i] = new Bucket(now);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * 요청 1건 허용 여부 판단
+     *
+     * @return 허용되면 0, 거절되면 다음 요청이 허용될 때까지 남은 시간(ns)
+     */
+    public long tryAcquire(long userId) {
+        if (!enabled) {
+            return 0L;
+        }
+        RateLimitPolicy policy = policyOf(userId);
+        if (policy.unlimited()) {
+            return 0L;
+        }
+
+        Bucket bucket = buckets.get(userId);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                return acquire(overflowBuckets[Math.floorMod(Long.hashCode(userId), OVERFLOW_BUCKETS)], defaultPolicy);
+            }
+            bucket = buckets.computeIfAbsent(userId, id -> new Bucket(nanoClock.getAsLong()));
+        }
+        return acquire(bucket, policy);
+    }
+
+    public RateLimitPolicy policyOf(long userId) {
+        return userPolicies.getOrDefault(userId, defaultPolicy);
+    }
+
+    private long acquire(Bucket bucket, RateLimitPolicy policy) {
+        long interval = policy.intervalNanos();
+        long tolerance = policy.toleranceNanos();
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long tat = bucket.tat;
+            long start = tat - now > 0 ? tat : now;
+            long waitNanos = start - now - tolerance;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (TAT.compareAndSet(bucket, tat, start + interval)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * 토큰이 가득 찬(쉬고 있는) bucket 제거
+     * 제거 직전에 해당 bucket 으로 허용된 요청은 잊혀질 수 있지만, 그만큼 새 bucket 이 한 건 더 허용할 뿐이다.
+     *
+     * @return 제거한 bucket 수
+     */
+    public int sweep() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.tat - now <= 0);
+        return before - buckets.size();
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    private static Map<String, RateLimitPolicy> parseClasses(String classes) {
+        Map<String, RateLimitPolicy> policies = new HashMap<>();
+        for (String entry : split(classes)) {
+            String[] nameAndLimit = entry.split("=");
+            String[] limit = nameAndLimit.length == 2 ? nameAndLimit[1].split("/") : new String[0];
+            if (limit.length != 2) {
+                throw new IllegalArgumentException("point.rate-limit.classes 형식이 올바르지 않습니다: " + entry);
+            }
+            String name = nameAndLimit[0].trim();
+            policies.put(name, new RateLimitPolicy(name, Double.parseDouble(limit[0].trim()), Integer.parseInt(limit[1].trim())));
+        }
+        return policies;
+    }
+
+    private static Map<Long, RateLimitPolicy> userPolicies(Map<String, RateLimitPolicy> classes, String users) {
+        Map<Long, RateLimitPolicy> policies = new HashMap<>();
+        for (String entry : split(users)) {
+            String[] userAndClass = entry.split("=");
+            RateLimitPolicy policy = userAndClass.length == 2 ? classes.get(userAndClass[1].trim()) : null;
+            if (policy == null) {
+                throw new IllegalArgumentException("point.rate-limit.users 의 등급을 찾을 수 없습니다: " + entry);
+            }
+            policies.put(Long.parseLong(userAndClass[0].trim()), policy);
+        }
+        return Collections.unmodifiableMap(policies);
+    }
+
+    private static String[] split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    // 이론상 다음 요청 허용 시각(ns), 생성 시각에서 시작하므로 토큰이 가득 찬 상태
+    private static final class Bucket {
+        private volatile long tat;
+
+        private Bucket(long tat) {
+            this.tat = tat;
+        }
+    }
+}
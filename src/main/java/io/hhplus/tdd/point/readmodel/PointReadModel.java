@@ -0,0 +1,153 @@
+package io.hhplus.tdd.point.readmodel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 조회 전용 모델 (CQRS read side)
+ *
+ * 쓰기 경로(PointService)가 유저 lock 안에서 커밋 직후 새 view 를 게시하고,
+ * 조회는 lock 없이 ConcurrentHashMap 에서 최신 view 를 꺼내 읽기만 한다.
+ * 게시/적재(load, publish, invalidate)는 반드시 해당 유저의 lock 을 잡은 상태에서 호출해야 한다.
+ *
+ * view 는 최대 maxViews 개까지만 들고 있다.
+ * - 적재 시 maxViews 를 넘으면 가장 오래 사용되지 않은 view 부터 maxViews 의 90% 까지 정리한다. (근사 LRU)
+ * - maxIdleMillis 동안 사용되지 않은 view 도 정리 때 함께 제거한다.
+ * 제거된 유저는 다음 조회 때 저장소에서 다시 적재되므로 정리는 유저 lock 없이 해도 결과가 틀어지지 않는다.
+ */
+@Component
+public class PointReadModel {
+
+    private static final int DEFAULT_MAX_VIEWS = 100_000;
+    private static final long DEFAULT_MAX_IDLE_MILLIS = 600_000L;
+
+    // 조회마다 사용 시각을 쓰면 hot 유저의 entry 에 쓰기가 몰리므로 이 간격 이상 지났을 때만 갱신한다.
+    private static final long TOUCH_INTERVAL_MILLIS = 1_000L;
+
+    private final int maxViews;
+    private final long maxIdleMillis;
+    private final ConcurrentHashMap<Long, Entry> views = new ConcurrentHashMap<>();
+
+    // 정리는 한 스레드만, 나머지는 기다리지 않고 지나간다.
+    private final ReentrantLock evictLock = new ReentrantLock();
+    private volatile long nextIdleSweepMillis;
+
+    public PointReadModel() {
+        this(DEFAULT_MAX_VIEWS, DEFAULT_MAX_IDLE_MILLIS);
+    }
+
+    @Autowired
+    public PointReadModel(@Value("${point.read-model.max-views:100000}") int maxViews,
+                          @Value("${point.read-model.max-idle-millis:600000}") long maxIdleMillis) {
+        this.maxViews = maxViews;
+        this.maxIdleMillis = maxIdleMillis;
+        this.nextIdleSweepMillis = System.currentTimeMillis() + maxIdleMillis;
+    }
+
+    // lock 없이 최신 view 조회, 아직 적재되지 않았거나 정리된 유저는 null
+    public UserPointView get(long userId) {
+        Entry entry = views.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        entry.touch(System.currentTimeMillis());
+        return entry.view;
+    }
+
+    // 저장소에서 읽은 상태로 view 를 새로 만든다.
+    public UserPointView load(UserPoint userPoint, List<PointHistory> histories, List<PointHistoryRollup> rollups) {
+        Entry previous = views.get(userPoint.id());
+        UserPointView view = UserPointView.of(userPoint, histories, rollups, previous == null ? 1L : previous.view.version() + 1);
+        long nowMillis = System.currentTimeMillis();
+        views.put(userPoint.id(), new Entry(view, nowMillis));
+        evictIfNeeded(nowMillis);
+        return view;
+    }
+
+    // 커밋된 변경을 최신 view 에 이어 붙여 게시, 아직 적재되지 않은 유저는 다음 조회 때 저장소에서 적재된다.
+    public void publish(UserPoint updatedUserPoint, PointHistory... appended) {
+        Entry previous = views.get(updatedUserPoint.id());
+        if (previous != null) {
+            views.put(updatedUserPoint.id(), new Entry(previous.view.append(updatedUserPoint, appended), System.currentTimeMillis()));
+        }
+    }
+
+    public void invalidate(long userId) {
+        views.remove(userId);
+    }
+
+    public int size() {
+        return views.size();
+    }
+
+    /**
+     * maxIdleMillis 동안 사용되지 않은 view 와, maxViews 를 넘는 만큼 오래 사용되지 않은 view 제거
+     *
+     * @return 제거한 view 수
+     */
+    public int evict(long nowMillis) {
+        evictLock.lock();
+        try {
+            nextIdleSweepMillis = nowMillis + maxIdleMillis;
+            int evicted = 0;
+            for (Map.Entry<Long, Entry> view : views.entrySet()) {
+                if (nowMillis - view.getValue().accessMillis >= maxIdleMillis && views.remove(view.getKey(), view.getValue())) {
+                    evicted++;
+                }
+            }
+            if (views.size() <= maxViews) {
+                return evicted;
+            }
+
+            // 사용 시각 순으로 자를 기준을 정하고 그 이전에 사용된 view 를 제거, 자주 돌지 않도록 90% 까지 줄인다.
+            long[] accessMillis = views.values().stream().mapToLong(entry -> entry.accessMillis).toArray();
+            int excess = accessMillis.length - maxViews * 9 / 10;
+            if (excess <= 0) {
+                return evicted;
+            }
+            Arrays.sort(accessMillis);
+            long cutoffMillis = accessMillis[excess - 1];
+            for (Map.Entry<Long, Entry> view : views.entrySet()) {
+                if (view.getValue().accessMillis <= cutoffMillis && views.remove(view.getKey(), view.getValue())) {
+                    evicted++;
+                }
+            }
+            return evicted;
+        } finally {
+            evictLock.unlock();
+        }
+    }
+
+    private void evictIfNeeded(long nowMillis) {
+        if ((views.size() > maxViews || nowMillis >= nextIdleSweepMillis) && !evictLock.isLocked()) {
+            evict(nowMillis);
+        }
+    }
+
+    private static final class Entry {
+        private final UserPointView view;
+        private volatile long accessMillis;
+
+        private Entry(UserPointView view, long accessMillis) {
+            this.view = view;
+            this.accessMillis = accessMillis;
+        }
+
+        private void touch(long nowMillis) {
+            if (nowMillis - accessMillis >= TOUCH_INTERVAL_MILLIS) {
+                accessMillis = nowMillis;
+            }
+        }
+    }
+}
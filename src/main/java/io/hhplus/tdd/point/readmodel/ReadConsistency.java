@@ -0,0 +1,21 @@
+package io.hhplus.tdd.point.readmodel;
+
+/**
+ * 조회 시 요구하는 일관성 수준
+ * - maxStalenessMillis : 저장소와 마지막으로 맞춰진 뒤 허용하는 최대 경과 시간 (음수면 제한 없음)
+ * - minUpdateMillis : 자신이 쓴 결과(UserPoint.updateMillis) 이후의 상태를 요구할 때 사용 (read-your-writes)
+ */
+public record ReadConsistency(
+        long maxStalenessMillis,
+        long minUpdateMillis
+) {
+
+    public static final ReadConsistency ANY = new ReadConsistency(-1L, 0L);
+
+    public boolean isSatisfiedBy(UserPointView view, long nowMillis) {
+        if (maxStalenessMillis >= 0 && nowMillis - view.syncedMillis() > maxStalenessMillis) {
+            return false;
+        }
+        return view.userPoint().updateMillis() >= minUpdateMillis;
+    }
+}
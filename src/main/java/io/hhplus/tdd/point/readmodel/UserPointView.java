@@ -0,0 +1,105 @@
+package io.hhplus.tdd.point.readmodel;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 유저 한 명의 포인트 / 히스토리 조회용 불변 snapshot
+ *
+ * 히스토리는 append-only 배열을 여러 버전의 view 가 공유하고,
+ * 각 view 는 자신이 만들어질 때의 길이(historyCount)까지만 바라본다.
+ * 새 view 는 항상 최신 view 에서 이어서 만들어지므로(유저 lock 안에서 publish)
+ * 이미 게시된 view 가 보는 구간의 배열 원소는 다시 쓰이지 않는다.
+ * 보관 기간이 지나 접힌 히스토리(rollup)는 compact 때만 바뀌므로 append 시 그대로 이어받는다.
+ */
+public final class UserPointView {
+
+    private final UserPoint userPoint;
+    private final PointHistory[] histories;
+    private final int historyCount;
+    private final List<PointHistoryRollup> rollups;
+    private final long version;
+    private final long syncedMillis;
+
+    private UserPointView(UserPoint userPoint, PointHistory[] histories, int historyCount, List<PointHistoryRollup> rollups,
+                          long version, long syncedMillis) {
+        this.userPoint = userPoint;
+        this.histories = histories;
+        this.historyCount = historyCount;
+        this.rollups = rollups;
+        this.version = version;
+        this.syncedMillis = syncedMillis;
+    }
+
+    static UserPointView of(UserPoint userPoint, List<PointHistory> histories, List<PointHistoryRollup> rollups, long version) {
+        PointHistory[] array = histories.toArray(new PointHistory[Math.max(histories.size(), 8)]);
+        return new UserPointView(userPoint, array, histories.size(), List.copyOf(rollups), version, System.currentTimeMillis());
+    }
+
+    // read model 에 게시하지 않는 일회성 view
+    public static UserPointView detached(UserPoint userPoint, List<PointHistory> histories, List<PointHistoryRollup> rollups) {
+        return of(userPoint, histories, rollups, 0L);
+    }
+
+    // 다음 버전의 view 생성, 배열 공간이 남으면 그대로 공유하고 모자라면 2배로 늘려 복사한다.
+    UserPointView append(UserPoint updatedUserPoint, PointHistory... appended) {
+        PointHistory[] array = histories;
+        int newCount = historyCount + appended.length;
+        if (newCount > array.length) {
+            array = Arrays.copyOf(histories, Math.max(newCount, histories.length * 2));
+        }
+        System.arraycopy(appended, 0, array, historyCount, appended.length);
+        return new UserPointView(updatedUserPoint, array, newCount, rollups, version + 1, System.currentTimeMillis());
+    }
+
+    public UserPoint userPoint() {
+        return userPoint;
+    }
+
+    public List<PointHistory> histories() {
+        return new AbstractList<>() {
+            @Override
+            public PointHistory get(int index) {
+                if (index < 0 || index >= historyCount) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return histories[index];
+            }
+
+            @Override
+            public int size() {
+                return historyCount;
+            }
+        };
+    }
+
+    // 보관 기간이 지나 접힌 히스토리, 날짜 순서
+    public List<PointHistoryRollup> rollups() {
+        return rollups;
+    }
+
+    // 마지막 히스토리 id, 히스토리가 없으면 0
+    public long lastHistoryId() {
+        return historyCount == 0 ? 0L : histories[historyCount - 1].id();
+    }
+
+    // 조건부 조회(ETag)용 태그, 포인트 변경 시각과 마지막 히스토리 id 중 하나라도 바뀌면 달라진다.
+    // 히스토리 수는 compact 로 오래된 히스토리가 빠진 경우를 구분하기 위해 붙인다.
+    public String entityTag() {
+        return "\"" + userPoint.updateMillis() + "-" + lastHistoryId() + "-" + historyCount + "\"";
+    }
+
+    public long version() {
+        return version;
+    }
+
+    // 저장소와 마지막으로 맞춰진 시각
+    public long syncedMillis() {
+        return syncedMillis;
+    }
+}
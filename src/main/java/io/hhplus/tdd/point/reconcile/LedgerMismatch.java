@@ -0,0 +1,22 @@
+package io.hhplus.tdd.point.reconcile;
+
+/**
+ * 잔액과 히스토리 합계가 맞지 않는 유저
+ * expectedPoint = rolledUp + charged - used - expired
+ * (rolledUp : 보관 기간이 지나 일별 rollup 으로 접힌 히스토리의 합계)
+ */
+public record LedgerMismatch(
+        long userId,
+        long point,
+        long expectedPoint,
+        long charged,
+        long used,
+        long expired,
+        long rolledUp,
+        int historyCount
+) {
+
+    public long difference() {
+        return point - expectedPoint;
+    }
+}
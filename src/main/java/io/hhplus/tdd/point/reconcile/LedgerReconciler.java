@@ -0,0 +1,317 @@
+package io.hhplus.tdd.point.reconcile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.hhplus.tdd.custom.CustomException;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.readmodel.UserPointView;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.repository.PointHistoryRepository;
+import io.hhplus.tdd.repository.UserPointRepository;
+
+/**
+ * 원장 검증, 유저의 잔액이 히스토리 합계(충전 - 사용 - 만료)와 같은지 확인한다.
+ * 보관 기간이 지나 일별 rollup 으로 접힌 히스토리는 rollup 의 합계로 더한다.
+ *
+ * 1. 스캔 : repository 를 한 번씩 순회하며 유저/히스토리를 userId hash 로 나눈 파티션의 primitive 배열에 담는다.
+ * 2. 누적 : 파티션마다 fork-join 으로 히스토리 합계를 구해 잔액과 비교한다. 파티션끼리는 유저가 겹치지 않아 합칠 필요가 없다.
+ * 3. 재확인 : 스캔은 트래픽을 멈추지 않으므로 유저와 히스토리를 읽은 시점이 다를 수 있다.
+ *    맞지 않은 유저만 유저 lock 안에서 잔액과 히스토리를 다시 읽어 같은 시점 기준으로 비교하고,
+ *    그래도 맞지 않는 유저만 불일치로 보고한다.
+ */
+@Service
+public class LedgerReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerReconciler.class);
+
+    // 스캔 진행 상황을 갱신하는 간격 (행 수)
+    private static final int PROGRESS_INTERVAL = 64 * 1024;
+
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointService pointService;
+    private final ForkJoinPool forkJoinPool;
+    private final int partitionBits;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ledger-reconciliation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 마지막으로 시작한(또는 실행중인) 검증
+    private volatile Job job;
+
+    @Autowired
+    public LedgerReconciler(@Value("${point.reconciliation.parallelism:0}") int parallelism,
+                            UserPointRepository userPointRepository,
+                            PointHistoryRepository pointHistoryRepository,
+                            PointService pointService) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.pointService = pointService;
+        this.forkJoinPool = new ForkJoinPool(threads);
+        // 스레드보다 파티션을 넉넉히 두어 유저가 몰린 파티션이 있어도 작업이 고르게 나뉘도록 한다.
+        this.partitionBits = Integer.SIZE - Integer.numberOfLeadingZeros(threads * 4 - 1);
+    }
+
+    // 백그라운드에서 검증 시작, 진행 상황은 status 로 확인
+    public synchronized ReconciliationStatus start() throws CustomException {
+        Job current = job;
+        if (current != null && current.isRunning()) {
+            throw new CustomException("원장 검증이 이미 실행중입니다.");
+        }
+        Job started = new Job(1 << partitionBits);
+        job = started;
+        runner.submit(() -> run(started));
+        return started.status();
+    }
+
+    public ReconciliationStatus status() {
+        Job current = job;
+        if (current == null) {
+            return new ReconciliationStatus(ReconciliationStatus.State.IDLE, 0L, 0L, 0, 0, 0L, null, null);
+        }
+        return current.status();
+    }
+
+    // 현재 스레드에서 검증 실행
+    public ReconciliationReport reconcile() {
+        Job started = new Job(1 << partitionBits);
+        job = started;
+        return run(started);
+    }
+
+    private ReconciliationReport run(Job job) {
+        try {
+            long startedMillis = System.currentTimeMillis();
+            Partition[] partitions = new Partition[1 << partitionBits];
+            for (int i = 0; i < partitions.length; i++) {
+                partitions[i] = new Partition();
+            }
+
+            // 1. 스캔
+            job.state = ReconciliationStatus.State.SCANNING;
+            long[] counts = new long[2];
+            userPointRepository.forEach(userPoint -> {
+                partitions[partitionOf(userPoint.id())].addUser(userPoint);
+                if (++counts[0] % PROGRESS_INTERVAL == 0) {
+                    job.scannedUsers = counts[0];
+                }
+            });
+            job.scannedUsers = counts[0];
+            pointHistoryRepository.forEach(pointHistory -> {
+                partitions[partitionOf(pointHistory.userId())].addHistory(pointHistory);
+                if (++counts[1] % PROGRESS_INTERVAL == 0) {
+                    job.scannedHistories = counts[1];
+                }
+            });
+            pointHistoryRepository.forEachRollup(rollup -> partitions[partitionOf(rollup.userId())].addRollup(rollup));
+            job.scannedHistories = counts[1];
+            long scannedMillis = System.currentTimeMillis();
+
+            // 2. 누적
+            job.state = ReconciliationStatus.State.ACCUMULATING;
+            long accumulateStart = System.nanoTime();
+            List<long[]> candidates = forkJoinPool.invoke(new AccumulateTask(partitions, 0, partitions.length, job.accumulatedPartitions));
+            long accumulateNanos = Math.max(1L, System.nanoTime() - accumulateStart);
+
+            // 3. 재확인
+            job.state = ReconciliationStatus.State.VERIFYING;
+            List<LedgerMismatch> mismatches = new ArrayList<>();
+            long transientMismatches = 0L;
+            for (long[] candidate : candidates) {
+                LedgerMismatch mismatch = verify(candidate[0]);
+                if (mismatch == null) {
+                    transientMismatches++;
+                } else {
+                    mismatches.add(mismatch);
+                }
+                job.verifiedCandidates++;
+            }
+
+            int parallelism = forkJoinPool.getParallelism();
+            ReconciliationReport report = new ReconciliationReport(startedMillis, System.currentTimeMillis(), counts[0], counts[1],
+                    parallelism, scannedMillis - startedMillis, accumulateNanos / 1_000_000L,
+                    (long) (counts[1] * 1_000_000_000.0 / accumulateNanos / parallelism), transientMismatches, mismatches);
+            job.report = report;
+            job.state = ReconciliationStatus.State.DONE;
+            log.info("ledger reconciliation done: users={}, histories={}, mismatches={}, transient={}",
+                    counts[0], counts[1], mismatches.size(), transientMismatches);
+            return report;
+        } catch (RuntimeException e) {
+            job.failure = e.getMessage();
+            job.state = ReconciliationStatus.State.FAILED;
+            log.warn("ledger reconciliation failed - {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    // 유저 lock 안에서 다시 읽어 비교, 맞으면 null
+    private LedgerMismatch verify(long userId) {
+        UserPointView ledger = pointService.readLedger(userId);
+        long charged = 0L;
+        long used = 0L;
+        long expired = 0L;
+        for (PointHistory history : ledger.histories()) {
+            switch (history.type()) {
+                case CHARGE -> charged += history.amount();
+                case USE -> used += history.amount();
+                case EXPIRE -> expired += history.amount();
+            }
+        }
+        long rolledUp = 0L;
+        for (PointHistoryRollup rollup : ledger.rollups()) {
+            rolledUp += rollup.netAmount();
+        }
+        long expectedPoint = rolledUp + charged - used - expired;
+        if (expectedPoint == ledger.userPoint().point()) {
+            return null;
+        }
+        return new LedgerMismatch(userId, ledger.userPoint().point(), expectedPoint, charged, used, expired, rolledUp,
+                ledger.histories().size());
+    }
+
+    private int partitionOf(long userId) {
+        return (int) ((userId * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - partitionBits));
+    }
+
+    private static long signedAmount(PointHistory pointHistory) {
+        return switch (pointHistory.type()) {
+            case CHARGE -> pointHistory.amount();
+            case USE, EXPIRE -> -pointHistory.amount();
+        };
+    }
+
+    // 같은 파티션(userId hash)에 속한 유저와 히스토리
+    private static final class Partition {
+        private long[] userIds = new long[16];
+        private long[] points = new long[16];
+        private int userCount;
+        private long[] historyUserIds = new long[64];
+        private long[] historyAmounts = new long[64];
+        private int historyCount;
+
+        private void addUser(UserPoint userPoint) {
+            if (userCount == userIds.length) {
+                userIds = Arrays.copyOf(userIds, userCount * 2);
+                points = Arrays.copyOf(points, userCount * 2);
+            }
+            userIds[userCount] = userPoint.id();
+            points[userCount] = userPoint.point();
+            userCount++;
+        }
+
+        private void addHistory(PointHistory pointHistory) {
+            addAmount(pointHistory.userId(), signedAmount(pointHistory));
+        }
+
+        // rollup 은 합계 하나를 히스토리 1건처럼 더한다.
+        private void addRollup(PointHistoryRollup rollup) {
+            addAmount(rollup.userId(), rollup.netAmount());
+        }
+
+        private void addAmount(long userId, long signedAmount) {
+            if (historyCount == historyUserIds.length) {
+                historyUserIds = Arrays.copyOf(historyUserIds, historyCount * 2);
+                historyAmounts = Arrays.copyOf(historyAmounts, historyCount * 2);
+            }
+            historyUserIds[historyCount] = userId;
+            historyAmounts[historyCount] = signedAmount;
+            historyCount++;
+        }
+
+        // 잔액과 히스토리 합계가 다른 유저 {userId, point, expectedPoint}
+        private List<long[]> mismatches() {
+            LongLongHashMap expected = new LongLongHashMap(userCount);
+            for (int i = 0; i < historyCount; i++) {
+                expected.add(historyUserIds[i], historyAmounts[i]);
+            }
+
+            List<long[]> mismatches = new ArrayList<>();
+            for (int i = 0; i < userCount; i++) {
+                long expectedPoint = expected.take(userIds[i]);
+                if (expectedPoint != points[i]) {
+                    mismatches.add(new long[] {userIds[i], points[i], expectedPoint});
+                }
+            }
+            // 히스토리는 있지만 잔액이 없는 유저
+            expected.forEachRemaining((userId, expectedPoint) -> {
+                if (expectedPoint != 0L) {
+                    mismatches.add(new long[] {userId, 0L, expectedPoint});
+                }
+            });
+            return mismatches;
+        }
+    }
+
+    private static final class AccumulateTask extends RecursiveTask<List<long[]>> {
+        private final Partition[] partitions;
+        private final int from;
+        private final int to;
+        private final AtomicInteger progress;
+
+        private AccumulateTask(Partition[] partitions, int from, int to, AtomicInteger progress) {
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.progress = progress;
+        }
+
+        @Override
+        protected List<long[]> compute() {
+            if (to - from == 1) {
+                List<long[]> mismatches = partitions[from].mismatches();
+                // 처리한 파티션은 바로 놓아준다.
+                partitions[from] = null;
+                progress.incrementAndGet();
+                return mismatches;
+            }
+            int middle = (from + to) >>> 1;
+            AccumulateTask left = new AccumulateTask(partitions, from, middle, progress);
+            left.fork();
+            List<long[]> mismatches = new ArrayList<>(new AccumulateTask(partitions, middle, to, progress).compute());
+            mismatches.addAll(left.join());
+            return mismatches;
+        }
+    }
+
+    private static final class Job {
+        private final int totalPartitions;
+        private final AtomicInteger accumulatedPartitions = new AtomicInteger();
+        private volatile ReconciliationStatus.State state = ReconciliationStatus.State.SCANNING;
+        private volatile long scannedUsers;
+        private volatile long scannedHistories;
+        private volatile long verifiedCandidates;
+        private volatile String failure;
+        private volatile ReconciliationReport report;
+
+        private Job(int totalPartitions) {
+            this.totalPartitions = totalPartitions;
+        }
+
+        private boolean isRunning() {
+            return state != ReconciliationStatus.State.DONE && state != ReconciliationStatus.State.FAILED;
+        }
+
+        private ReconciliationStatus status() {
+            return new ReconciliationStatus(state, scannedUsers, scannedHistories, accumulatedPartitions.get(),
+                    totalPartitions, verifiedCandidates, failure, report);
+        }
+    }
+}
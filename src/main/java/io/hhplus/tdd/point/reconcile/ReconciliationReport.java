@@ -0,0 +1,23 @@
+package io.hhplus.tdd.point.reconcile;
+
+import java.util.List;
+
+/**
+ * 원장 검증 결과
+ *
+ * @param transientMismatches 스캔 시점에는 맞지 않았지만 유저 lock 안에서 다시 읽었을 때 맞았던 유저 수 (스캔 중 들어온 쓰기)
+ * @param rowsPerSecondPerCore 누적 단계의 코어당 처리량
+ */
+public record ReconciliationReport(
+        long startedMillis,
+        long finishedMillis,
+        long userCount,
+        long historyCount,
+        int parallelism,
+        long scanMillis,
+        long accumulateMillis,
+        long rowsPerSecondPerCore,
+        long transientMismatches,
+        List<LedgerMismatch> mismatches
+) {
+}
@@ -0,0 +1,22 @@
+package io.hhplus.tdd.point.reconcile;
+
+/**
+ * 원장 검증 진행 상황
+ *
+ * @param report 완료된 경우에만 채워진다.
+ */
+public record ReconciliationStatus(
+        State state,
+        long scannedUsers,
+        long scannedHistories,
+        int accumulatedPartitions,
+        int totalPartitions,
+        long verifiedCandidates,
+        String failure,
+        ReconciliationReport report
+) {
+
+    public enum State {
+        IDLE, SCANNING, ACCUMULATING, VERIFYING, DONE, FAILED
+    }
+}
@@ -0,0 +1,104 @@
+package io.hhplus.tdd.point.reservation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.hhplus.tdd.point.PointHold;
+import io.hhplus.tdd.point.service.PointService;
+
+/**
+ * 만료 시각까지 capture/release 되지 않은 예약을 주기적으로 일괄 취소
+ *
+ * tick 마다 PointHoldLedger 에서 만료된 예약을 batchSize 개씩 꺼내 유저별로 묶어 취소한다.
+ * 예약 취소는 메모리만 바꾸므로 유저 lock 은 아주 짧게 잡힌다.
+ */
+@Component
+public class PointHoldExpiryWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(PointHoldExpiryWorker.class);
+
+    private final boolean enabled;
+    private final long tickMillis;
+    private final int batchSize;
+    private final PointHoldLedger pointHoldLedger;
+    private final PointService pointService;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "point-hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public PointHoldExpiryWorker(@Value("${point.hold.enabled:true}") boolean enabled,
+                                 @Value("${point.hold.tick-millis:1000}") long tickMillis,
+                                 @Value("${point.hold.batch-size:1000}") int batchSize,
+                                 PointHoldLedger pointHoldLedger,
+                                 PointService pointService) {
+        this.enabled = enabled;
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.pointHoldLedger = pointHoldLedger;
+        this.pointService = pointService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::runOnce, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * nowMillis 기준으로 만료된 예약을 모두 취소
+     *
+     * @return 취소된 예약 수
+     */
+    public int releaseDue(long nowMillis) {
+        int released = 0;
+        while (true) {
+            List<PointHold> expired = new ArrayList<>();
+            int polled = pointHoldLedger.pollExpired(nowMillis, batchSize, expired);
+
+            Map<Long, List<PointHold>> expiredByUser = new LinkedHashMap<>();
+            for (PointHold hold : expired) {
+                expiredByUser.computeIfAbsent(hold.userId(), userId -> new ArrayList<>()).add(hold);
+            }
+            for (Map.Entry<Long, List<PointHold>> entry : expiredByUser.entrySet()) {
+                released += pointService.releaseExpiredHolds(entry.getKey(), entry.getValue());
+            }
+            if (polled < batchSize) {
+                return released;
+            }
+        }
+    }
+
+    private void runOnce() {
+        try {
+            int released = releaseDue(System.currentTimeMillis());
+            if (released > 0) {
+                log.info("point holds expired: released={}, active={}", released, pointHoldLedger.activeHolds());
+            }
+        } catch (RuntimeException e) {
+            log.warn("point hold expiry run failed - {}", e.getMessage());
+        }
+    }
+}
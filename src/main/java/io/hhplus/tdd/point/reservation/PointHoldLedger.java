@@ -0,0 +1,100 @@
+package io.hhplus.tdd.point.reservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.hhplus.tdd.point.PointHold;
+import io.hhplus.tdd.point.expiry.TimingWheel;
+
+/**
+ * 진행중인 포인트 예약과 유저별 예약 합계
+ *
+ * 예약은 메모리에만 있으며, 잔액은 capture 할 때 저장소에서 차감된다.
+ * 예약 만료는 TimingWheel 에 등록해 두고, capture/release 된 예약은 만료 시점에 건너뛴다.
+ *
+ * 예약을 바꾸는 메서드(hold, remove)는 반드시 해당 유저의 lock 을 잡은 상태에서 호출해야 한다.
+ */
+@Component
+public class PointHoldLedger {
+
+    private final long tickMillis;
+    private final long defaultTtlMillis;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<Long, PointHold> holds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> heldByUser = new ConcurrentHashMap<>();
+    private final TimingWheel<PointHold> timingWheel;
+
+    @Autowired
+    public PointHoldLedger(@Value("${point.hold.tick-millis:1000}") long tickMillis,
+                           @Value("${point.hold.default-ttl-millis:600000}") long defaultTtlMillis) {
+        this.tickMillis = tickMillis;
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.timingWheel = new TimingWheel<>(tickMillis, 6, 5, System.currentTimeMillis());
+    }
+
+    public PointHold hold(long userId, long amount, long expireAtMillis) {
+        PointHold hold = new PointHold(sequence.incrementAndGet(), userId, amount, expireAtMillis);
+        holds.put(hold.holdId(), hold);
+        heldByUser.merge(userId, amount, Long::sum);
+        synchronized (timingWheel) {
+            // TimingWheel 은 tick 단위로 꺼내므로 만료 시각 이전에 꺼내지지 않도록 올림해서 등록
+            timingWheel.schedule(expireAtMillis + tickMillis - 1, hold);
+        }
+        return hold;
+    }
+
+    // 유저의 예약 합계
+    public long heldAmount(long userId) {
+        return heldByUser.getOrDefault(userId, 0L);
+    }
+
+    public PointHold get(long holdId) {
+        return holds.get(holdId);
+    }
+
+    /**
+     * 예약 제거 (capture, release, 만료 공통)
+     *
+     * @return 제거된 예약, 이미 제거된 예약이면 null
+     */
+    public PointHold remove(PointHold hold) {
+        if (!holds.remove(hold.holdId(), hold)) {
+            return null;
+        }
+        heldByUser.computeIfPresent(hold.userId(), (userId, held) -> held == hold.amount() ? null : held - hold.amount());
+        return hold;
+    }
+
+    /**
+     * 만료 시각이 지난 예약을 최대 maxHolds 개 꺼내 expired 에 담는다. 이미 capture/release 된 예약은 담지 않는다.
+     *
+     * @return 꺼낸 예약 수 (건너뛴 예약 포함), maxHolds 보다 작으면 더 꺼낼 예약이 없다.
+     */
+    public int pollExpired(long nowMillis, int maxHolds, List<PointHold> expired) {
+        List<PointHold> due = new ArrayList<>();
+        synchronized (timingWheel) {
+            timingWheel.advance(nowMillis, maxHolds, due);
+        }
+        for (PointHold hold : due) {
+            if (holds.get(hold.holdId()) == hold) {
+                expired.add(hold);
+            }
+        }
+        return due.size();
+    }
+
+    // 진행중인 예약 수
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    public long defaultTtlMillis() {
+        return defaultTtlMillis;
+    }
+}
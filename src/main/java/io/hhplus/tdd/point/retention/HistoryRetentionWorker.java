@@ -0,0 +1,109 @@
+package io.hhplus.tdd.point.retention;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.repository.UserPointRepository;
+
+/**
+ * 보관 기간(maxAgeDays)이 지난 히스토리를 주기적으로 일별 rollup 으로 접는다.
+ *
+ * 기준 시각은 zone 기준으로 (오늘 - maxAgeDays) 의 0시이므로 하루치 히스토리는 한 번에 같은 rollup 으로 접힌다.
+ * 유저 한 명씩 유저 lock 을 잡고 정리하므로 다른 유저의 충전/사용은 막지 않고,
+ * 같은 유저의 쓰기도 그 유저의 오래된 세그먼트를 다시 쓰는 동안만 기다린다.
+ * 정리할 히스토리가 없는 유저는 저장소가 바로 건너뛴다.
+ *
+ * point.history.retention.max-age-days=0 (기본값) 이면 정리하지 않는다.
+ */
+@Component
+public class HistoryRetentionWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryRetentionWorker.class);
+
+    private final int maxAgeDays;
+    private final ZoneId zone;
+    private final long intervalMillis;
+    private final UserPointRepository userPointRepository;
+    private final PointService pointService;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "point-history-retention");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public HistoryRetentionWorker(@Value("${point.history.retention.max-age-days:0}") int maxAgeDays,
+                                  @Value("${point.history.retention.zone:Asia/Seoul}") String zone,
+                                  @Value("${point.history.retention.interval-millis:60000}") long intervalMillis,
+                                  UserPointRepository userPointRepository,
+                                  PointService pointService) {
+        this.maxAgeDays = maxAgeDays;
+        this.zone = ZoneId.of(zone);
+        this.intervalMillis = intervalMillis;
+        this.userPointRepository = userPointRepository;
+        this.pointService = pointService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (maxAgeDays > 0) {
+            scheduler.scheduleWithFixedDelay(this::runOnce, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * nowMillis 기준으로 보관 기간이 지난 히스토리를 모두 접는다.
+     *
+     * @return 접힌 히스토리 수
+     */
+    public long compactDue(long nowMillis) {
+        long cutoffMillis = cutoffMillis(nowMillis);
+        long[] folded = new long[1];
+        userPointRepository.forEach(userPoint -> {
+            try {
+                folded[0] += pointService.compactHistories(userPoint.id(), cutoffMillis, zone);
+            } catch (RuntimeException e) {
+                log.warn("history retention failed: user={} - {}", userPoint.id(), e.getMessage());
+            }
+        });
+        return folded[0];
+    }
+
+    // 이 시각 이전의 히스토리가 정리 대상
+    public long cutoffMillis(long nowMillis) {
+        return Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate()
+                .minusDays(maxAgeDays)
+                .atStartOfDay(zone)
+                .toInstant()
+                .toEpochMilli();
+    }
+
+    private void runOnce() {
+        try {
+            long folded = compactDue(System.currentTimeMillis());
+            if (folded > 0) {
+                log.info("history retention compacted: rows={}", folded);
+            }
+        } catch (RuntimeException e) {
+            log.warn("history retention run failed - {}", e.getMessage());
+        }
+    }
+}
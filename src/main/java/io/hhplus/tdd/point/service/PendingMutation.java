@@ -0,0 +1,63 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.custom.CustomException;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * hot 유저의 충전/사용 요청을 모아서 처리하기 위한 대기 요청
+ * 요청 스레드가 큐에 넣고, lock 을 잡은 스레드(combiner)가 한 번에 처리한 뒤 결과를 채워준다.
+ * 결과는 모두 유저 lock 안에서 쓰고, 요청 스레드도 같은 lock 을 잡은 뒤 읽으므로 별도 동기화가 필요 없다.
+ */
+class PendingMutation {
+
+    private final TransactionType type;
+    private final long amount;
+
+    private boolean done;
+    private UserPoint result;
+    private CustomException failure;
+    private RuntimeException error;
+
+    PendingMutation(TransactionType type, long amount) {
+        this.type = type;
+        this.amount = amount;
+    }
+
+    TransactionType type() {
+        return type;
+    }
+
+    long amount() {
+        return amount;
+    }
+
+    boolean isDone() {
+        return done;
+    }
+
+    void complete(UserPoint result) {
+        this.result = result;
+        this.done = true;
+    }
+
+    void fail(CustomException failure) {
+        this.failure = failure;
+        this.done = true;
+    }
+
+    void fail(RuntimeException error) {
+        this.error = error;
+        this.done = true;
+    }
+
+    UserPoint result() throws CustomException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (error != null) {
+            throw error;
+        }
+        return result;
+    }
+}
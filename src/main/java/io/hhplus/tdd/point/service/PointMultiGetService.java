@@ -0,0 +1,161 @@
+package io.hhplus.tdd.point.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.hhplus.tdd.custom.CustomException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.hhplus.tdd.point.MultiGetEntry;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.cluster.PointClusterRouter;
+import io.hhplus.tdd.point.readmodel.ReadConsistency;
+
+/**
+ * 여러 유저의 포인트 / 히스토리를 한 번에 조회 (fan-out)
+ *
+ * 요청마다 최대 parallelism 개의 worker 가 유저 목록을 나눠 가져가며 조회하고, 요청 스레드는 제한 시간까지만 기다린다.
+ * worker 는 전체 요청이 공유하는 고정 크기 스레드풀에서 실행되므로 동시에 도는 조회 수는 threads 로 제한된다.
+ * 유저마다 성공/실패를 따로 담고, timeoutMillis 안에 끝나지 않은 유저는 TIMEOUT 으로 응답한다.
+ *
+ * 제한 시간이 지나면 요청을 취소한다. 아직 시작하지 않은 worker 는 실행되지 않고, 돌고 있는 worker 는 하던 조회만 마치고 멈춘다.
+ * 저장소가 FileChannel 을 쓰고 있어 interrupt 하면 channel 이 닫히므로, 진행 중인 조회를 interrupt 로 끊지는 않는다.
+ */
+@Service
+public class PointMultiGetService {
+
+    private final PointService pointService;
+    private final PointClusterRouter clusterRouter;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int maxUsers;
+    private final long timeoutMillis;
+
+    @Autowired
+    public PointMultiGetService(@Value("${point.multi-get.threads:256}") int threads,
+                                @Value("${point.multi-get.parallelism:64}") int parallelism,
+                                @Value("${point.multi-get.max-users:200}") int maxUsers,
+                                @Value("${point.multi-get.timeout-millis:2000}") long timeoutMillis,
+                                PointService pointService,
+                                PointClusterRouter clusterRouter) {
+        this.pointService = pointService;
+        this.clusterRouter = clusterRouter;
+        this.parallelism = parallelism;
+        this.maxUsers = maxUsers;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "point-multi-get");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public List<MultiGetEntry<UserPoint>> getUserPoints(List<Long> userIds, ReadConsistency consistency) throws CustomException {
+        return fanOut(userIds, userId -> clusterRouter.shouldForward(userId, null)
+                ? clusterRouter.forwardGetPoint(userId, consistency)
+                : pointService.getUserPoint(userId, consistency));
+    }
+
+    // 유저별 최근 히스토리 limit 건
+    public List<MultiGetEntry<List<PointHistory>>> getRecentHistories(List<Long> userIds, int limit, ReadConsistency consistency) throws CustomException {
+        if (limit <= 0) {
+            throw new CustomException("조회 할 히스토리 수는 1 이상이어야 합니다.");
+        }
+        return fanOut(userIds, userId -> {
+            List<PointHistory> histories = clusterRouter.shouldForward(userId, null)
+                    ? clusterRouter.forwardGetHistories(userId, consistency)
+                    : pointService.getPointHistories(userId, consistency);
+            return List.copyOf(histories.subList(Math.max(0, histories.size() - limit), histories.size()));
+        });
+    }
+
+    private <T> List<MultiGetEntry<T>> fanOut(List<Long> userIds, Lookup<T> lookup) throws CustomException {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new CustomException("조회 할 유저가 없습니다.");
+        }
+        // 같은 유저는 한 번만 조회
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        if (distinctIds.size() > maxUsers) {
+            throw new CustomException(String.format("한 번에 조회 할 수 있는 유저는 최대 %d명입니다.", maxUsers));
+        }
+
+        int size = distinctIds.size();
+        AtomicReferenceArray<MultiGetEntry<T>> results = new AtomicReferenceArray<>(size);
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        int workers = Math.min(parallelism, size);
+        CountDownLatch finished = new CountDownLatch(workers);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        Runnable worker = () -> {
+            try {
+                // 취소되었거나 제한 시간이 지나면 남은 유저는 가져가지 않는다.
+                for (int i = next.getAndIncrement(); i < size && !cancelled.get() && System.nanoTime() < deadline; i = next.getAndIncrement()) {
+                    long userId = distinctIds.get(i);
+                    results.set(i, lookup(userId, lookup));
+                }
+            } finally {
+                finished.countDown();
+            }
+        };
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            try {
+                futures.add(executor.submit(worker));
+            } catch (RejectedExecutionException e) {
+                finished.countDown();
+            }
+        }
+
+        try {
+            finished.await(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // 끝나지 않은 worker 취소, 풀에서 기다리던 worker 는 꺼내져도 실행되지 않는다.
+            cancelled.set(true);
+            futures.forEach(future -> future.cancel(false));
+        }
+
+        List<MultiGetEntry<T>> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            MultiGetEntry<T> entry = results.get(i);
+            entries.add(entry != null ? entry : MultiGetEntry.timeout(distinctIds.get(i)));
+        }
+        return entries;
+    }
+
+    private static <T> MultiGetEntry<T> lookup(long userId, Lookup<T> lookup) {
+        try {
+            return MultiGetEntry.ok(userId, lookup.get(userId));
+        } catch (CustomException e) {
+            return MultiGetEntry.failed(userId, e.getMessage());
+        } catch (RuntimeException e) {
+            return MultiGetEntry.failed(userId, "조회 중 오류가 발생했습니다.");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Lookup<T> {
+        T get(long userId) throws CustomException;
+    }
+}
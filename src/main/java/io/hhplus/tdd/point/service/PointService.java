@@ -1,67 +1,183 @@
 package io.hhplus.tdd.point.service;
 
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
 
 import io.hhplus.tdd.custom.CustomException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import io.hhplus.tdd.repository.PointHistoryRepository;
 import io.hhplus.tdd.repository.UserPointRepository;
 import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHold;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.PointHistoryTimeline;
 import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.TransferResult;
 import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.expiry.ChargeLot;
+import io.hhplus.tdd.point.expiry.ChargeLotLedger;
+import io.hhplus.tdd.point.hotkey.HotKeyDetector;
+import io.hhplus.tdd.point.readmodel.PointReadModel;
+import io.hhplus.tdd.point.readmodel.ReadConsistency;
+import io.hhplus.tdd.point.readmodel.UserPointView;
+import io.hhplus.tdd.point.reservation.PointHoldLedger;
+import io.hhplus.tdd.point.trace.RequestTracer;
+import io.hhplus.tdd.point.trace.TraceStage;
 
 @Service
 public class PointService {
 
 	private final UserPointRepository userPointRepository;
 	private final PointHistoryRepository pointHistoryRepository;
+	private final PointReadModel pointReadModel;
+	private final HotKeyDetector hotKeyDetector;
+	private final ChargeLotLedger chargeLotLedger;
+	private final PointHoldLedger pointHoldLedger;
 
-	// 동시성 제어를 위한 ReentrantLock
-	private final Lock lock = new ReentrantLock();
+	// 동시성 제어를 위한 유저 lock, userId 를 고정된 개수의 ReentrantLock 에 나눠 담는다. (lock striping)
+	// 유저마다 lock 을 만들어 두면 한 번이라도 조회된 유저(봇 id 포함)의 lock 이 계속 쌓이므로 개수를 고정한다.
+	// 서로 다른 stripe 의 유저에 대한 요청은 병렬로 처리되고, 같은 stripe 의 유저끼리만 서로 기다린다.
+	private static final int LOCK_STRIPES = 1024;
+	private final Lock[] userLocks = newUserLocks();
+
+	// hot 유저의 처리 대기중인 충전/사용 요청
+	private final ConcurrentHashMap<Long, Queue<PendingMutation>> pendingMutations = new ConcurrentHashMap<>();
+
+	// 이 인스턴스가 쓰기를 처리해도 되는 유저인지, 클러스터 모드에서 PointClusterRouter 가 담당 노드 확인으로 바꾼다.
+	private volatile LongPredicate ownership = userId -> true;
 
 	public PointService(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository) {
+		this(userPointRepository, pointHistoryRepository, new PointReadModel(), HotKeyDetector.disabled(), new ChargeLotLedger(1000L));
+	}
+
+	public PointService(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository,
+						PointReadModel pointReadModel, HotKeyDetector hotKeyDetector, ChargeLotLedger chargeLotLedger) {
+		this(userPointRepository, pointHistoryRepository, pointReadModel, hotKeyDetector, chargeLotLedger, new PointHoldLedger(1000L, 600_000L));
+	}
+
+	@Autowired
+	public PointService(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository,
+						PointReadModel pointReadModel, HotKeyDetector hotKeyDetector, ChargeLotLedger chargeLotLedger,
+						PointHoldLedger pointHoldLedger) {
 		this.userPointRepository = userPointRepository;
 		this.pointHistoryRepository = pointHistoryRepository;
+		this.pointReadModel = pointReadModel;
+		this.hotKeyDetector = hotKeyDetector;
+		this.chargeLotLedger = chargeLotLedger;
+		this.pointHoldLedger = pointHoldLedger;
 	}
 
 	// 유저의 현재 포인트 조회
 	public UserPoint getUserPoint(long userId) throws CustomException {
-		UserPoint userPoint = userPointRepository.selectById(userId);
-		if (userPoint.point() == 0L) {
+		return getUserPoint(userId, ReadConsistency.ANY);
+	}
+
+	// 유저의 현재 포인트 조회, read model 에서 lock 없이 읽는다.
+	public UserPoint getUserPoint(long userId, ReadConsistency consistency) throws CustomException {
+		return getUserPointView(userId, consistency).userPoint();
+	}
+
+	// 포인트 조회용 view, 조건부 조회는 같은 view 에서 ETag 와 본문을 함께 만든다.
+	public UserPointView getUserPointView(long userId, ReadConsistency consistency) throws CustomException {
+		UserPointView view = readView(userId, consistency);
+		if (view.userPoint().point() == 0L) {
 			throw new CustomException(String.format("아이디가 [%d]에 해당하는 유저는 존재하지 않습니다.", userId));
 		}
-		return userPoint;
+		return view;
 	}
 
 	// 조회 할 유저의 포인트 히스토리를 조회
 	public List<PointHistory> getPointHistories(long userId) throws CustomException {
-		List<PointHistory> pointHistories = pointHistoryRepository.selectAllByUserId(userId);
+		return getPointHistories(userId, ReadConsistency.ANY);
+	}
 
-		if (pointHistories.isEmpty()) {
+	// 조회 할 유저의 포인트 히스토리를 조회, read model 에서 lock 없이 읽는다.
+	public List<PointHistory> getPointHistories(long userId, ReadConsistency consistency) throws CustomException {
+		return getPointHistoryView(userId, consistency).histories();
+	}
+
+	// 히스토리 조회용 view, 조건부 조회는 같은 view 에서 ETag 와 본문을 함께 만든다.
+	public UserPointView getPointHistoryView(long userId, ReadConsistency consistency) throws CustomException {
+		UserPointView view = readView(userId, consistency);
+
+		if (view.histories().isEmpty()) {
 			throw new CustomException("조회 결과가 없습니다.");
 		}
 
-		return pointHistories;
+		return view;
+	}
+
+	// 보관 기간이 지난 기간은 일별 rollup 으로, 최근 기간은 원본 히스토리로 조회
+	public PointHistoryTimeline getHistoryTimeline(long userId, ReadConsistency consistency) throws CustomException {
+		UserPointView view = readView(userId, consistency);
+		if (view.histories().isEmpty() && view.rollups().isEmpty()) {
+			throw new CustomException("조회 결과가 없습니다.");
+		}
+		return new PointHistoryTimeline(userId, view.rollups(), List.copyOf(view.histories()));
+	}
+
+	// 잔액과 히스토리를 저장소에서 같은 시점으로 읽는다. (원장 검증용, read model 을 거치지 않음)
+	public UserPointView readLedger(long userId) {
+		Lock lock = lockOf(userId);
+		lock.lock();
+
+		try {
+			return UserPointView.detached(userPointRepository.selectById(userId), pointHistoryRepository.selectAllByUserId(userId),
+					pointHistoryRepository.selectRollupsByUserId(userId));
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	// 포인트 충전
 	public UserPoint chargePoints(long userId, long amount) throws CustomException {
+		return chargePoints(userId, amount, 0L);
+	}
+
+	// 포인트 충전, expireAtMillis 가 0 보다 크면 그 시각에 남아있는 충전분이 만료된다.
+	public UserPoint chargePoints(long userId, long amount, long expireAtMillis) throws CustomException {
+		// 요청이 몰리는 유저는 모아서 처리 (만료되는 충전은 lot 을 따로 등록해야 하므로 제외)
+		if (amount > 0 && expireAtMillis <= 0 && hotKeyDetector.record(userId)) {
+			return submitBatched(userId, TransactionType.CHARGE, amount);
+		}
+
 		// 동시성 제어 시작, lock 획득
+		RequestTracer.mark(TraceStage.LOCK_WAIT);
+		Lock lock = lockOf(userId);
 		lock.lock();
 
 		try {
+			checkOwnership(userId);
 			if (amount <= 0) {
 				throw new CustomException("0포인트 이하는 충전 할 수 없습니다.");
 			}
+			if (expireAtMillis > 0 && expireAtMillis <= System.currentTimeMillis()) {
+				throw new CustomException("만료 시각은 현재 이후여야 합니다.");
+			}
 
 			// 파라미터로 받은 유저의 point를 조회하여 추가 충전될 포인트 양을 더해준다.
-			UserPoint updatedUserPoint = userPointRepository.insertOrUpdate(userId, getUserPoint(userId).point() + amount);
+			RequestTracer.mark(TraceStage.SELECT_POINT);
+			long currentPoint = loadUserPoint(userId).point();
+			RequestTracer.mark(TraceStage.UPDATE_POINT);
+			UserPoint updatedUserPoint = addPoint(userId, currentPoint, amount);
 
 			// history테이블에 저장
-			pointHistoryRepository.insert(userId, amount, TransactionType.CHARGE, System.currentTimeMillis());
+			RequestTracer.mark(TraceStage.INSERT_HISTORY);
+			PointHistory history = insertHistory(userId, updatedUserPoint, amount, TransactionType.CHARGE, amount);
+			chargeLotLedger.charge(userId, currentPoint, amount, expireAtMillis);
+
+			// 커밋된 결과를 read model 에 게시
+			RequestTracer.mark(TraceStage.RESPOND);
+			pointReadModel.publish(updatedUserPoint, history);
 			return updatedUserPoint;
 		} finally {
 			lock.unlock(); // exception 발생 시에도 lock 해제 보장
@@ -70,29 +186,633 @@ public class PointService {
 
 	// 포인트 사용
 	public UserPoint usePoints(long userId, long amount) throws CustomException {
+		// 요청이 몰리는 유저는 모아서 처리
+		if (amount > 0 && hotKeyDetector.record(userId)) {
+			return submitBatched(userId, TransactionType.USE, amount);
+		}
+
 		// 동시성 제어 시작, lock 획득
+		RequestTracer.mark(TraceStage.LOCK_WAIT);
+		Lock lock = lockOf(userId);
 		lock.lock();
 
 		try {
+			checkOwnership(userId);
 			if (amount <= 0) {
 				throw new CustomException("0포인트 이상만 사용할 수 있습니다.");
 			}
 
-			UserPoint currentUserPoint = getUserPoint(userId);
+			RequestTracer.mark(TraceStage.SELECT_POINT);
+			UserPoint currentUserPoint = loadUserPoint(userId);
 
-			// 파라미터로 받은 유저의 현재 point가 차감될 포인트보다 적다면 exception
-			if (currentUserPoint.point() < amount) {
-				throw new CustomException(String.format("사용자 %d의 포인트가 부족합니다. 현재 포인트: %d", userId, currentUserPoint.point()));
-			}
+			// 파라미터로 받은 유저의 사용 가능 point(예약분 제외)가 차감될 포인트보다 적다면 exception
+			checkAvailable(userId, currentUserPoint.point(), amount);
 
 			// 파라미터로 받은 유저의 현재 point가 차감될 포인트보다 많으면 차감
-			UserPoint updatedUserPoint = userPointRepository.insertOrUpdate(userId, currentUserPoint.point() - amount);
+			RequestTracer.mark(TraceStage.UPDATE_POINT);
+			UserPoint updatedUserPoint = addPoint(userId, currentUserPoint.point(), -amount);
 
 			// history테이블에 저장
-			pointHistoryRepository.insert(userId, amount, TransactionType.USE, System.currentTimeMillis());
+			RequestTracer.mark(TraceStage.INSERT_HISTORY);
+			PointHistory history = insertHistory(userId, updatedUserPoint, amount, TransactionType.USE, -amount);
+			// 오래된 충전분부터 차감
+			chargeLotLedger.use(userId, amount);
+
+			// 커밋된 결과를 read model 에 게시
+			RequestTracer.mark(TraceStage.RESPOND);
+			pointReadModel.publish(updatedUserPoint, history);
 			return updatedUserPoint;
 		} finally {
 			lock.unlock(); // exception 발생 시에도 lock 해제 보장
 		}
 	}
+
+	/**
+	 * 포인트 이체
+	 *
+	 * 보내는 유저의 차감과 받는 유저의 충전을 하나의 임계구역에서 처리한다.
+	 * 두 유저의 lock 은 항상 userId 오름차순으로 획득하기 때문에
+	 * A -> B, B -> A 이체가 동시에 들어와도 deadlock 이 발생하지 않는다.
+	 */
+	public TransferResult transferPoints(long fromUserId, long toUserId, long amount) throws CustomException {
+		if (amount <= 0) {
+			throw new CustomException("0포인트 이하는 이체 할 수 없습니다.");
+		}
+		if (fromUserId == toUserId) {
+			throw new CustomException("자기 자신에게는 이체 할 수 없습니다.");
+		}
+
+		// 정해진 순서(stripe 번호 오름차순)로 lock 획득, 같은 stripe 면 같은 lock 을 두 번 잡는다. (ReentrantLock)
+		RequestTracer.mark(TraceStage.LOCK_WAIT);
+		int fromStripe = stripeOf(fromUserId);
+		int toStripe = stripeOf(toUserId);
+		Lock firstLock = userLocks[Math.min(fromStripe, toStripe)];
+		Lock secondLock = userLocks[Math.max(fromStripe, toStripe)];
+		firstLock.lock();
+		secondLock.lock();
+
+		try {
+			checkOwnership(fromUserId);
+			checkOwnership(toUserId);
+			RequestTracer.mark(TraceStage.SELECT_POINT);
+			UserPoint fromUserPoint = loadUserPoint(fromUserId);
+			UserPoint toUserPoint = loadUserPoint(toUserId);
+
+			checkAvailable(fromUserId, fromUserPoint.point(), amount);
+
+			RequestTracer.mark(TraceStage.UPDATE_POINT);
+			UserPoint updatedFromUserPoint = addPoint(fromUserId, fromUserPoint.point(), -amount);
+			UserPoint updatedToUserPoint;
+			try {
+				updatedToUserPoint = addPoint(toUserId, toUserPoint.point(), amount);
+			} catch (RuntimeException | CustomException e) {
+				// 받는 유저 반영에 실패하면 보낸 유저의 포인트를 원복
+				userPointRepository.addPoint(fromUserId, updatedFromUserPoint.point(), amount);
+				throw e;
+			}
+
+			// 두 건의 history 를 같은 시각으로 함께 저장
+			RequestTracer.mark(TraceStage.INSERT_HISTORY);
+			long now = System.currentTimeMillis();
+			PointHistory fromHistory = null;
+			PointHistory toHistory;
+			try {
+				fromHistory = pointHistoryRepository.insert(fromUserId, amount, TransactionType.USE, now);
+				toHistory = pointHistoryRepository.insert(toUserId, amount, TransactionType.CHARGE, now);
+			} catch (RuntimeException e) {
+				// history 저장에 실패하면 두 유저의 포인트를 원복
+				// 이미 저장된 보낸 유저의 USE history 는 지울 수 없으므로 같은 양의 CHARGE history 로 상쇄한다.
+				userPointRepository.addPoint(toUserId, updatedToUserPoint.point(), -amount);
+				userPointRepository.addPoint(fromUserId, updatedFromUserPoint.point(), amount);
+				if (fromHistory != null) {
+					pointHistoryRepository.insert(fromUserId, amount, TransactionType.CHARGE, System.currentTimeMillis());
+				}
+				pointReadModel.invalidate(fromUserId);
+				pointReadModel.invalidate(toUserId);
+				throw e;
+			}
+			chargeLotLedger.use(fromUserId, amount);
+			chargeLotLedger.charge(toUserId, toUserPoint.point(), amount, 0L);
+
+			RequestTracer.mark(TraceStage.RESPOND);
+			pointReadModel.publish(updatedFromUserPoint, fromHistory);
+			pointReadModel.publish(updatedToUserPoint, toHistory);
+			return new TransferResult(updatedFromUserPoint, updatedToUserPoint);
+		} finally {
+			secondLock.unlock();
+			firstLock.unlock();
+		}
+	}
+
+	/**
+	 * 포인트 예약(hold), 결제 흐름의 앞 단계에서 호출
+	 *
+	 * 사용 가능 포인트(잔액 - 예약 합계)에서 amount 만큼을 예약으로 옮긴다.
+	 * 잔액은 read model 에 게시된 view 에서 읽고 저장소에는 쓰지 않으므로, 저장소 지연 없이 lock 은 메모리 계산 동안만 잡힌다.
+	 * 이 인스턴스의 쓰기 경로는 모두 같은 유저 lock 안에서 커밋 직후 view 를 게시(또는 제거)하므로 lock 안에서 읽은 view 는 커밋된 최신 잔액이다.
+	 * view 가 없을 때(아직 적재되지 않았거나 정리된 유저)만 저장소에서 읽는다.
+	 * 예약은 captureHold 로 확정하거나 releaseHold 로 취소하고, 만료 시각까지 둘 다 없으면 PointHoldExpiryWorker 가 취소한다.
+	 *
+	 * @param ttlMillis 예약 유지 시간, 0 이하이면 기본값 (point.hold.default-ttl-millis)
+	 */
+	public PointHold holdPoints(long userId, long amount, long ttlMillis) throws CustomException {
+		if (amount <= 0) {
+			throw new CustomException("0포인트 이하는 예약 할 수 없습니다.");
+		}
+
+		RequestTracer.mark(TraceStage.LOCK_WAIT);
+		Lock lock = lockOf(userId);
+		lock.lock();
+
+		try {
+			checkOwnership(userId);
+			UserPointView view = pointReadModel.get(userId);
+			RequestTracer.mark(TraceStage.SELECT_POINT);
+			long balance = view != null ? view.userPoint().point() : loadUserPoint(userId).point();
+			if (balance == 0L) {
+				throw new CustomException(String.format("아이디가 [%d]에 해당하는 유저는 존재하지 않습니다.", userId));
+			}
+			checkAvailable(userId, balance, amount);
+
+			RequestTracer.mark(TraceStage.RESPOND);
+			long expireAtMillis = System.currentTimeMillis() + (ttlMillis > 0 ? ttlMillis : pointHoldLedger.defaultTtlMillis());
+			return pointHoldLedger.hold(userId, amount, expireAtMillis);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 예약 확정, 예약한 포인트를 잔액에서 차감하고 USE 히스토리를 남긴다.
+	 * 만료된 예약은 확정할 수 없다. 예약은 차감과 히스토리 저장이 끝난 뒤에 제거하므로 실패하면 예약은 그대로 남는다.
+	 */
+	public UserPoint captureHold(long userId, long holdId) throws CustomException {
+		RequestTracer.mark(TraceStage.LOCK_WAIT);
+		Lock lock = lockOf(userId);
+		lock.lock();
+
+		try {
+			checkOwnership(userId);
+			PointHold hold = findHold(userId, holdId);
+			if (hold.expireAtMillis() <= System.currentTimeMillis()) {
+				pointHoldLedger.remove(hold);
+				throw new CustomException(String.format("예약 [%d]은 만료되었습니다.", holdId));
+			}
+
+			RequestTracer.mark(TraceStage.SELECT_POINT);
+			long currentPoint = loadUserPoint(userId).point();
+			RequestTracer.mark(TraceStage.UPDATE_POINT);
+			UserPoint updatedUserPoint = addPoint(userId, currentPoint, -hold.amount());
+
+			RequestTracer.mark(TraceStage.INSERT_HISTORY);
+			PointHistory history = insertHistory(userId, updatedUserPoint, hold.amount(), TransactionType.USE, -hold.amount());
+			chargeLotLedger.use(userId, hold.amount());
+			pointHoldLedger.remove(hold);
+
+			RequestTracer.mark(TraceStage.RESPOND);
+			pointReadModel.publish(updatedUserPoint, history);
+			return updatedUserPoint;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// 예약 취소, 예약한 포인트를 다시 사용 가능 포인트로 돌린다.
+	public PointHold releaseHold(long userId, long holdId) throws CustomException {
+		Lock lock = lockOf(userId);
+		lock.lock();
+
+		try {
+			checkOwnership(userId);
+			return takeHold(userId, holdId);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 만료된 예약 일괄 취소, PointHoldExpiryWorker 에서 호출
+	 *
+	 * @return 취소된 예약 수 (그 사이 capture/release 된 예약 제외)
+	 */
+	public int releaseExpiredHolds(long userId, List<PointHold> expiredHolds) {
+		Lock lock = lockOf(userId);
+		lock.lock();
+
+		try {
+			int released = 0;
+			for (PointHold hold : expiredHolds) {
+				if (pointHoldLedger.remove(hold) != null) {
+					released++;
+				}
+			}
+			return released;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// 유저의 예약 합계
+	public long heldPoints(long userId) {
+		return pointHoldLedger.heldAmount(userId);
+	}
+
+	// 다른 노드 등 외부에서 넘어온 유저 데이터 적재, 포인트와 히스토리를 넘어온 값으로 교체한다. 히스토리는 원래 시각으로 다시 쌓는다.
+	public UserPoint restoreUser(long userId, long point, List<PointHistory> histories, List<PointHistoryRollup> rollups) {
+		Lock lock = lockOf(userId);
+		lock.lock();
+
+		try {
+			UserPoint restoredUserPoint = userPointRepository.insertOrUpdate(userId, point);
+			pointHistoryRepository.deleteAllByUserId(userId);
+			for (PointHistoryRollup rollup : rollups) {
+				pointHistoryRepository.insertRollup(rollup);
+			}
+			for (PointHistory history : histories) {
+				pointHistoryRepository.insert(userId, history.amount(), history.type(), history.updateMillis());
+			}
+
+			// 기존 view 와 이어 붙일 수 없으므로 다음 조회 때 저장소에서 다시 적재
+			pointReadModel.invalidate(userId);
+			chargeLotLedger.forget(userId);
+			return restoredUserPoint;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 다른 노드로 유저 넘기기, PointClusterRouter 의 handoff 에서 호출
+	 *
+	 * 유저 lock 을 잡은 채 저장소에서 잔액과 히스토리를 읽어 sender 로 보내고, 보내기에 성공하면 이 노드의 데이터를 지운다.
+	 * 보내는 동안 들어온 쓰기는 lock 에서 기다렸다가 담당 노드 확인(ownership)에서 거절되므로 넘긴 뒤의 쓰기가 이 노드에 남지 않는다.
+	 * 보내기에 실패하면 데이터는 그대로 남는다.
+	 */
+	public void handOffUser(long userId, UserSnapshotSender sender) throws CustomException {
+		Lock lock = lockOf(userId);
+		lock.lock();
+
+		try {
+			sender.send(UserPointView.detached(userPointRepository.selectById(userId), pointHistoryRepository.selectAllByUserId(userId),
+					pointHistoryRepository.selectRollupsByUserId(userId)));
+
+			// 나중에 다시 넘어오더라도 restoreUser 가 교체하므로 옛 데이터가 섞이지 않는다.
+			userPointRepository.insertOrUpdate(userId, 0L);
+			pointHistoryRepository.deleteAllByUserId(userId);
+			pointReadModel.invalidate(userId);
+			chargeLotLedger.forget(userId);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// 쓰기를 처리할 유저인지 판단하는 조건 교체, 조건은 유저 lock 안에서 확인된다.
+	public void setOwnership(LongPredicate ownership) {
+		this.ownership = ownership;
+	}
+
+	/**
+	 * 보관 기간이 지난 히스토리를 일별 rollup 으로 접기, HistoryRetentionWorker 에서 호출
+	 * 유저 lock 은 해당 유저를 정리하는 동안만 잡는다. 게시된 view 가 있으면 lock 안에서 정리된 히스토리로 다시 게시한다.
+	 *
+	 * @return 접힌 히스토리 수
+	 */
+	public int compactHistories(long userId, long cutoffMillis, ZoneId zone) {
+		Lock lock = lockOf(userId);
+		lock.lock();
+
+		try {
+			int folded = pointHistoryRepository.compact(userId, cutoffMillis, zone);
+			UserPointView view = pointReadModel.get(userId);
+			if (folded > 0 && view != null) {
+				// 잔액은 바뀌지 않았으므로 throttle 이 걸린 포인트 조회 없이 기존 view 의 값을 쓴다.
+				pointReadModel.load(view.userPoint(), pointHistoryRepository.selectAllByUserId(userId),
+						pointHistoryRepository.selectRollupsByUserId(userId));
+			}
+			return folded;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 만료된 충전분 차감, PointExpiryWorker 에서 호출
+	 * 만료 전에 모두 사용된 lot 은 건너뛰고, 남은 양만큼 잔액에서 빼면서 lot 마다 EXPIRE 히스토리를 남긴다.
+	 * 잔액이 예약 합계 아래로 내려가지 않도록 사용 가능 포인트(잔액 - 예약 합계)까지만 소멸시키고,
+	 * 예약에 묶여 남은 양은 ChargeLotLedger 가 미뤄 두었다가 다음 만료 처리 때 다시 소멸시킨다.
+	 */
+	public void expirePoints(long userId, List<ChargeLot> dueLots) {
+		Lock lock = lockOf(userId);
+		lock.lock();
+
+		try {
+			long balance = userPointRepository.selectById(userId).point();
+			long expirable = Math.max(0L, balance - pointHoldLedger.heldAmount(userId));
+			long[] expiredAmounts = new long[dueLots.size()];
+			long totalExpired = 0L;
+			for (int i = 0; i < dueLots.size(); i++) {
+				expiredAmounts[i] = chargeLotLedger.expire(dueLots.get(i), expirable - totalExpired);
+				totalExpired += expiredAmounts[i];
+			}
+			if (totalExpired == 0L) {
+				return;
+			}
+
+			UserPoint updatedUserPoint = userPointRepository.insertOrUpdate(userId, balance - totalExpired);
+
+			long now = System.currentTimeMillis();
+			List<PointHistory> histories = new ArrayList<>(dueLots.size());
+			for (int i = 0; i < dueLots.size(); i++) {
+				if (expiredAmounts[i] == 0) {
+					continue;
+				}
+				try {
+					histories.add(pointHistoryRepository.insert(userId, expiredAmounts[i], TransactionType.EXPIRE, now));
+				} catch (RuntimeException e) {
+					// 히스토리를 남기지 못한 만료분은 잔액을 되돌리고, lot 을 다시 등록해 다음 만료 처리 때 재시도한다.
+					long unrecorded = 0L;
+					for (int j = i; j < dueLots.size(); j++) {
+						unrecorded += expiredAmounts[j];
+					}
+					revertPoint(userId, updatedUserPoint, -unrecorded, e);
+					long restoredBalance = updatedUserPoint.point();
+					for (int j = i; j < dueLots.size(); j++) {
+						if (expiredAmounts[j] > 0) {
+							chargeLotLedger.charge(userId, restoredBalance, expiredAmounts[j], dueLots.get(j).expireAtMillis());
+							restoredBalance += expiredAmounts[j];
+						}
+					}
+					throw e;
+				}
+			}
+			pointReadModel.publish(updatedUserPoint, histories.toArray(new PointHistory[0]));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * hot 유저의 충전/사용 처리 (flat combining)
+	 *
+	 * 요청을 유저별 큐에 넣고 lock 을 잡는다. lock 을 잡았을 때 내 요청이 아직 처리되지 않았으면
+	 * 그동안 큐에 쌓인 요청을 모두 꺼내 한 번에 처리한다.
+	 * - 현재 포인트는 요청마다가 아니라 배치마다 저장소에서 한 번(selectById)만 읽는다.
+	 * - 요청들을 순서대로 메모리에서 적용한 뒤 잔액 반영은 합계로 한 번만 호출
+	 * - 히스토리는 요청마다 한 건씩 저장
+	 */
+	private UserPoint submitBatched(long userId, TransactionType type, long amount) throws CustomException {
+		RequestTracer.mark(TraceStage.BATCH_WAIT);
+		PendingMutation mutation = new PendingMutation(type, amount);
+		pendingMutations.computeIfAbsent(userId, id -> new ConcurrentLinkedQueue<>()).add(mutation);
+
+		Lock lock = lockOf(userId);
+		lock.lock();
+
+		try {
+			if (!mutation.isDone()) {
+				drainPendingMutations(userId);
+			}
+		} finally {
+			lock.unlock();
+		}
+		RequestTracer.mark(TraceStage.RESPOND);
+		return mutation.result();
+	}
+
+	private void drainPendingMutations(long userId) {
+		Queue<PendingMutation> queue = pendingMutations.get(userId);
+		List<PendingMutation> batch = new ArrayList<>();
+		for (PendingMutation mutation = queue.poll(); mutation != null; mutation = queue.poll()) {
+			batch.add(mutation);
+		}
+
+		try {
+			if (!ownership.test(userId)) {
+				CustomException failure = notOwned(userId);
+				batch.forEach(mutation -> mutation.fail(failure));
+				return;
+			}
+			// 잔액은 다른 쓰기 경로와 마찬가지로 저장소(원본)에서 읽는다. read model 은 정리되었거나 뒤처져 있을 수 있다.
+			RequestTracer.mark(TraceStage.SELECT_POINT);
+			long initialBalance;
+			try {
+				initialBalance = loadUserPoint(userId).point();
+			} catch (CustomException e) {
+				batch.forEach(mutation -> mutation.fail(e));
+				return;
+			}
+			long balance = initialBalance;
+
+			// 요청 순서대로 적용, 실패한 요청은 바로 결과를 채운다.
+			List<PendingMutation> applied = new ArrayList<>(batch.size());
+			long[] balances = new long[batch.size()];
+			for (PendingMutation mutation : batch) {
+				if (balance == 0L) {
+					mutation.fail(new CustomException(String.format("아이디가 [%d]에 해당하는 유저는 존재하지 않습니다.", userId)));
+				} else if (mutation.type() == TransactionType.USE && balance - pointHoldLedger.heldAmount(userId) < mutation.amount()) {
+					mutation.fail(insufficient(userId, balance));
+				} else {
+					balance += mutation.type() == TransactionType.CHARGE ? mutation.amount() : -mutation.amount();
+					balances[applied.size()] = balance;
+					applied.add(mutation);
+				}
+			}
+			if (applied.isEmpty()) {
+				return;
+			}
+
+			RequestTracer.mark(TraceStage.UPDATE_POINT);
+			UserPoint updatedUserPoint = userPointRepository.addPoint(userId, initialBalance, balance - initialBalance);
+			if (updatedUserPoint == null) {
+				CustomException failure = new CustomException(String.format("사용자 %d의 포인트가 부족합니다. 현재 포인트: %d", userId, initialBalance));
+				applied.forEach(mutation -> mutation.fail(failure));
+				return;
+			}
+
+			RequestTracer.mark(TraceStage.INSERT_HISTORY);
+			long now = System.currentTimeMillis();
+			PointHistory[] histories = new PointHistory[applied.size()];
+			for (int i = 0; i < applied.size(); i++) {
+				PendingMutation mutation = applied.get(i);
+				try {
+					histories[i] = pointHistoryRepository.insert(userId, mutation.amount(), mutation.type(), now);
+				} catch (RuntimeException e) {
+					// 히스토리가 저장된 요청까지만 반영하고, 나머지 요청의 증감은 되돌린 뒤 실패 처리한다.
+					long recordedBalance = i == 0 ? initialBalance : balances[i - 1];
+					revertPoint(userId, updatedUserPoint, balance - recordedBalance, e);
+					for (int j = 0; j < i; j++) {
+						applied.get(j).complete(new UserPoint(userId, balances[j], updatedUserPoint.updateMillis()));
+					}
+					applied.subList(i, applied.size()).forEach(failed -> failed.fail(e));
+					return;
+				}
+				if (mutation.type() == TransactionType.CHARGE) {
+					chargeLotLedger.charge(userId, balances[i] - mutation.amount(), mutation.amount(), 0L);
+				} else {
+					chargeLotLedger.use(userId, mutation.amount());
+				}
+			}
+			pointReadModel.publish(updatedUserPoint, histories);
+
+			for (int i = 0; i < applied.size(); i++) {
+				applied.get(i).complete(new UserPoint(userId, balances[i], updatedUserPoint.updateMillis()));
+			}
+		} catch (RuntimeException e) {
+			batch.stream().filter(mutation -> !mutation.isDone()).forEach(mutation -> mutation.fail(e));
+		}
+	}
+
+	// 유저 lock 안에서 호출, 다른 노드로 넘어간 유저의 쓰기를 막는다.
+	private void checkOwnership(long userId) throws CustomException {
+		if (!ownership.test(userId)) {
+			throw notOwned(userId);
+		}
+	}
+
+	private CustomException notOwned(long userId) {
+		return new CustomException(String.format("유저 %d는 이 노드에서 처리하지 않습니다. 잠시 후 다시 시도해 주세요.", userId));
+	}
+
+	// 유저 lock 안에서 호출, 예약된 포인트는 사용할 수 없다.
+	private void checkAvailable(long userId, long balance, long amount) throws CustomException {
+		if (balance - pointHoldLedger.heldAmount(userId) < amount) {
+			throw insufficient(userId, balance);
+		}
+	}
+
+	private CustomException insufficient(long userId, long balance) {
+		long held = pointHoldLedger.heldAmount(userId);
+		if (held == 0L) {
+			return new CustomException(String.format("사용자 %d의 포인트가 부족합니다. 현재 포인트: %d", userId, balance));
+		}
+		return new CustomException(String.format("사용자 %d의 포인트가 부족합니다. 현재 포인트: %d, 예약된 포인트: %d", userId, balance, held));
+	}
+
+	// 유저 lock 안에서 호출, 예약을 찾아 제거한다.
+	private PointHold takeHold(long userId, long holdId) throws CustomException {
+		PointHold hold = findHold(userId, holdId);
+		pointHoldLedger.remove(hold);
+		return hold;
+	}
+
+	// 유저 lock 안에서 호출, 예약이 없거나 다른 유저의 예약이면 실패
+	private PointHold findHold(long userId, long holdId) throws CustomException {
+		PointHold hold = pointHoldLedger.get(holdId);
+		if (hold == null || hold.userId() != userId) {
+			throw new CustomException(String.format("유저 %d의 예약 [%d]이 존재하지 않습니다.", userId, holdId));
+		}
+		return hold;
+	}
+
+	/**
+	 * 잔액 증감 뒤의 히스토리 저장
+	 * 잔액과 히스토리는 서로 다른 저장소라 한 트랜잭션으로 묶을 수 없으므로, 히스토리 저장에 실패하면 증감(delta)을 되돌리고 실패시킨다.
+	 */
+	private PointHistory insertHistory(long userId, UserPoint updatedUserPoint, long amount, TransactionType type, long delta) {
+		try {
+			return pointHistoryRepository.insert(userId, amount, type, System.currentTimeMillis());
+		} catch (RuntimeException e) {
+			revertPoint(userId, updatedUserPoint, delta, e);
+			throw e;
+		}
+	}
+
+	// 반영된 증감 원복, 같은 저장소를 쓰는 다른 인스턴스의 증감을 덮어쓰지 않도록 반대 방향 증감으로 되돌린다.
+	private void revertPoint(long userId, UserPoint updatedUserPoint, long delta, RuntimeException cause) {
+		try {
+			userPointRepository.addPoint(userId, updatedUserPoint.point(), -delta);
+		} catch (RuntimeException e) {
+			cause.addSuppressed(e);
+		}
+		pointReadModel.invalidate(userId);
+	}
+
+	// 잔액 증감, 저장소가 잔액 부족으로 반영하지 않으면 실패 처리 (같은 DB 를 쓰는 다른 인스턴스가 먼저 차감한 경우)
+	private UserPoint addPoint(long userId, long currentPoint, long delta) throws CustomException {
+		UserPoint updatedUserPoint = userPointRepository.addPoint(userId, currentPoint, delta);
+		if (updatedUserPoint == null) {
+			throw new CustomException(String.format("사용자 %d의 포인트가 부족합니다. 현재 포인트: %d", userId, currentPoint));
+		}
+		return updatedUserPoint;
+	}
+
+	// 쓰기 경로에서 사용하는 현재 포인트 조회, 항상 저장소(원본)에서 읽는다.
+	private UserPoint loadUserPoint(long userId) throws CustomException {
+		UserPoint userPoint = userPointRepository.selectById(userId);
+		if (userPoint.point() == 0L) {
+			throw new CustomException(String.format("아이디가 [%d]에 해당하는 유저는 존재하지 않습니다.", userId));
+		}
+		return userPoint;
+	}
+
+	/**
+	 * read model 조회
+	 * 조건을 만족하는 view 가 있으면 lock 없이 바로 반환하고,
+	 * 없거나 요구한 일관성을 만족하지 못하면 유저 lock 을 잡고 저장소에서 다시 적재한다.
+	 * 존재하지 않는 유저(포인트 0, 히스토리 없음)는 read model 에 올리지 않는다.
+	 */
+	private UserPointView readView(long userId, ReadConsistency consistency) {
+		RequestTracer.mark(TraceStage.READ_MODEL);
+		UserPointView view = pointReadModel.get(userId);
+		if (view != null && consistency.isSatisfiedBy(view, System.currentTimeMillis())) {
+			RequestTracer.mark(TraceStage.RESPOND);
+			return view;
+		}
+
+		// 한 번도 기록된 적 없는 유저(임의로 만든 id 등)는 lock 과 저장소 조회 없이 빈 결과를 반환
+		if (!userPointRepository.mightExist(userId)) {
+			RequestTracer.mark(TraceStage.RESPOND);
+			return UserPointView.detached(UserPoint.empty(userId), List.of(), List.of());
+		}
+
+		RequestTracer.mark(TraceStage.LOCK_WAIT);
+		Lock lock = lockOf(userId);
+		lock.lock();
+
+		try {
+			// lock 대기 중 다른 요청이 적재했을 수 있으므로 다시 확인
+			view = pointReadModel.get(userId);
+			if (view != null && consistency.isSatisfiedBy(view, System.currentTimeMillis())) {
+				RequestTracer.mark(TraceStage.RESPOND);
+				return view;
+			}
+
+			RequestTracer.mark(TraceStage.SELECT_POINT);
+			UserPoint userPoint = userPointRepository.selectById(userId);
+			RequestTracer.mark(TraceStage.SELECT_HISTORIES);
+			List<PointHistory> histories = pointHistoryRepository.selectAllByUserId(userId);
+			List<PointHistoryRollup> rollups = pointHistoryRepository.selectRollupsByUserId(userId);
+			RequestTracer.mark(TraceStage.RESPOND);
+			if (userPoint.point() == 0L && histories.isEmpty() && rollups.isEmpty()) {
+				return UserPointView.detached(userPoint, histories, rollups);
+			}
+			return pointReadModel.load(userPoint, histories, rollups);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Lock lockOf(long userId) {
+		return userLocks[stripeOf(userId)];
+	}
+
+	private static Lock[] newUserLocks() {
+		Lock[] locks = new Lock[LOCK_STRIPES];
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+		return locks;
+	}
+
+	// 상위 비트도 섞어서 규칙적인 userId 가 한 stripe 에 몰리지 않도록 한다.
+	private static int stripeOf(long userId) {
+		int hash = Long.hashCode(userId);
+		return (hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1);
+	}
+
+	// handOffUser 에서 유저 snapshot 을 다른 노드로 보내는 동작
+	@FunctionalInterface
+	public interface UserSnapshotSender {
+		void send(UserPointView snapshot) throws CustomException;
+	}
 }
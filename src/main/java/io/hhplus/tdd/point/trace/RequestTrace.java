@@ -0,0 +1,17 @@
+package io.hhplus.tdd.point.trace;
+
+import java.util.List;
+
+/**
+ * 보관된 요청 trace
+ *
+ * @param sampled 느려서가 아니라 무작위 샘플로 보관된 경우 true
+ */
+public record RequestTrace(
+        String request,
+        long startMillis,
+        long totalMicros,
+        boolean sampled,
+        List<TraceSpan> spans
+) {
+}
@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point.trace;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 요청 시작/종료 시점에 RequestTracer 를 호출
+ */
+public class RequestTraceInterceptor implements HandlerInterceptor {
+
+    private final RequestTracer requestTracer;
+
+    public RequestTraceInterceptor(RequestTracer requestTracer) {
+        this.requestTracer = requestTracer;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        requestTracer.begin(request.getMethod(), request.getRequestURI());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        requestTracer.end();
+    }
+}
@@ -0,0 +1,177 @@
+package io.hhplus.tdd.point.trace;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청 단계별 소요 시간 기록 (느린 요청 추적)
+ *
+ * - 요청마다 스레드별로 재사용하는 trace 에 단계 시작 시각(nanoTime)만 기록한다.
+ *   추적하지 않는 요청의 비용은 단계마다 ThreadLocal 조회 + nanoTime 한 번뿐이고 객체를 만들지 않는다.
+ * - 요청이 끝났을 때 thresholdMillis 이상 걸렸거나 sampleRate 확률로 뽑힌 요청만
+ *   미리 할당해 둔 ring buffer 슬롯에 복사해 보관한다. (오래된 trace 부터 덮어쓴다.)
+ * - 슬롯은 version 으로 보호한다. (홀수 = 쓰는 중) 쓰는 중인 슬롯은 읽기에서 건너뛰고,
+ *   한 바퀴 돌아 같은 슬롯에 동시에 쓰게 되면 나중 trace 를 버린다.
+ */
+@Component
+public class RequestTracer {
+
+    private static final int MAX_SPANS = 32;
+
+    // 현재 스레드에서 처리중인 요청, 스레드마다 하나를 만들어 재사용한다.
+    private static final ThreadLocal<ActiveTrace> CURRENT = ThreadLocal.withInitial(ActiveTrace::new);
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final Slot[] slots;
+    private final AtomicLong cursor = new AtomicLong();
+
+    @Autowired
+    public RequestTracer(@Value("${point.trace.enabled:true}") boolean enabled,
+                         @Value("${point.trace.threshold-millis:500}") long thresholdMillis,
+                         @Value("${point.trace.sample-rate:0.001}") double sampleRate,
+                         @Value("${point.trace.capacity:1024}") int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity 는 2의 거듭제곱이어야 합니다: " + capacity);
+        }
+        this.enabled = enabled;
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+        this.sampleRate = sampleRate;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    // 현재 스레드의 요청에 단계 시작을 기록, 추적중인 요청이 없으면 아무것도 하지 않는다.
+    public static void mark(TraceStage stage) {
+        ActiveTrace trace = CURRENT.get();
+        if (trace.active) {
+            trace.mark(stage, System.nanoTime());
+        }
+    }
+
+    // 요청 시작, method 와 uri 는 보관할 때만 합친다.
+    public void begin(String method, String uri) {
+        if (!enabled) {
+            return;
+        }
+        ActiveTrace trace = CURRENT.get();
+        trace.method = method;
+        trace.uri = uri;
+        trace.spanCount = 0;
+        trace.active = true;
+        trace.mark(TraceStage.HANDLER, System.nanoTime());
+    }
+
+    // 요청 종료, 보관 대상이면 ring buffer 에 복사한다.
+    public void end() {
+        ActiveTrace trace = CURRENT.get();
+        if (!trace.active) {
+            return;
+        }
+        trace.active = false;
+
+        long endNanos = System.nanoTime();
+        long totalNanos = endNanos - trace.spanStartNanos[0];
+        boolean slow = totalNanos >= thresholdNanos;
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+
+        Slot slot = slots[(int) (cursor.getAndIncrement() & (slots.length - 1))];
+        long version = slot.version.get();
+        if ((version & 1) != 0 || !slot.version.compareAndSet(version, version + 1)) {
+            return;
+        }
+        slot.method = trace.method;
+        slot.uri = trace.uri;
+        slot.startMillis = System.currentTimeMillis() - totalNanos / 1_000_000L;
+        slot.totalNanos = totalNanos;
+        slot.sampled = !slow;
+        slot.spanCount = trace.spanCount;
+        for (int i = 0; i < trace.spanCount; i++) {
+            slot.stages[i] = trace.stages[i];
+            long spanEndNanos = i + 1 < trace.spanCount ? trace.spanStartNanos[i + 1] : endNanos;
+            slot.spanNanos[i] = spanEndNanos - trace.spanStartNanos[i];
+        }
+        slot.version.set(version + 2);
+    }
+
+    // 보관중인 trace 중 오래 걸린 순으로 limit 건
+    public List<RequestTrace> slowest(int limit) {
+        List<RequestTrace> traces = new ArrayList<>();
+        for (Slot slot : slots) {
+            RequestTrace trace = slot.read();
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces.stream()
+                .sorted(Comparator.comparingLong(RequestTrace::totalMicros).reversed())
+                .limit(Math.max(limit, 0))
+                .toList();
+    }
+
+    private static final class ActiveTrace {
+        private boolean active;
+        private String method;
+        private String uri;
+        private int spanCount;
+        private final TraceStage[] stages = new TraceStage[MAX_SPANS];
+        private final long[] spanStartNanos = new long[MAX_SPANS];
+
+        // 단계가 MAX_SPANS 를 넘으면 마지막 단계에 합쳐진다.
+        private void mark(TraceStage stage, long nanos) {
+            if (spanCount < MAX_SPANS) {
+                stages[spanCount] = stage;
+                spanStartNanos[spanCount] = nanos;
+                spanCount++;
+            }
+        }
+    }
+
+    private static final class Slot {
+        // 0 = 비어있음, 홀수 = 쓰는 중
+        private final AtomicLong version = new AtomicLong();
+        private String method;
+        private String uri;
+        private long startMillis;
+        private long totalNanos;
+        private boolean sampled;
+        private int spanCount;
+        private final TraceStage[] stages = new TraceStage[MAX_SPANS];
+        private final long[] spanNanos = new long[MAX_SPANS];
+
+        // 읽는 동안 슬롯이 바뀌었으면 null
+        private RequestTrace read() {
+            long version = this.version.get();
+            if (version == 0 || (version & 1) != 0) {
+                return null;
+            }
+            String request = method + " " + uri;
+            long start = startMillis;
+            long total = totalNanos;
+            boolean sample = sampled;
+            int count = Math.min(spanCount, MAX_SPANS);
+            List<TraceSpan> spans = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                spans.add(new TraceSpan(stages[i], spanNanos[i] / 1_000L));
+            }
+            VarHandle.acquireFence();
+            if (this.version.get() != version) {
+                return null;
+            }
+            return new RequestTrace(request, start, total / 1_000L, sample, spans);
+        }
+    }
+}
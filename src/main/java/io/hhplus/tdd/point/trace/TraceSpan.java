@@ -0,0 +1,7 @@
+package io.hhplus.tdd.point.trace;
+
+public record TraceSpan(
+        TraceStage stage,
+        long micros
+) {
+}
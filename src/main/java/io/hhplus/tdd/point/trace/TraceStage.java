@@ -0,0 +1,25 @@
+package io.hhplus.tdd.point.trace;
+
+/**
+ * 요청 처리 단계
+ * RequestTracer.mark 로 단계가 시작된 시각을 기록하며, 각 단계는 다음 mark (또는 요청 종료)까지 이어진다.
+ * - HANDLER : 요청 수신 ~ 서비스 진입 (dispatch, body 파싱)
+ * - FORWARD : 담당 노드로 forward
+ * - READ_MODEL : read model 조회
+ * - BATCH_WAIT : hot 유저 요청 큐 대기
+ * - LOCK_WAIT : 유저 lock 대기
+ * - SELECT_POINT / SELECT_HISTORIES / UPDATE_POINT / INSERT_HISTORY : 저장소 호출
+ * - RESPOND : read model 게시, lock 해제, 응답 전송
+ */
+public enum TraceStage {
+    HANDLER,
+    FORWARD,
+    READ_MODEL,
+    BATCH_WAIT,
+    LOCK_WAIT,
+    SELECT_POINT,
+    SELECT_HISTORIES,
+    UPDATE_POINT,
+    INSERT_HISTORY,
+    RESPOND
+}
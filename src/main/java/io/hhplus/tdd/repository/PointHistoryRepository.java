@@ -3,9 +3,38 @@ package io.hhplus.tdd.repository;
 import io.hhplus.tdd.point.PointHistory;
 import io.hhplus.tdd.point.TransactionType;
 
+import java.time.ZoneId;
 import java.util.List;
+import java.util.function.Consumer;
+
+import io.hhplus.tdd.point.PointHistoryRollup;
 
 public interface PointHistoryRepository {
     PointHistory insert(long userId, long amount, TransactionType type, long updateMillis);
     List<PointHistory> selectAllByUserId(long userId);
+
+    // 저장된 모든 히스토리 순회 (export 용, throttle 없음), 같은 유저 안에서는 id 순서
+    void forEach(Consumer<PointHistory> action);
+
+    // 덤프에서 읽은 히스토리를 id 그대로 적재 (import 용, throttle 없음)
+    void bulkInsert(PointHistory pointHistory);
+
+    // bulkInsert 로 모아 둔 행을 모두 반영 (import 끝에서 호출), 반영에 실패하면 예외
+    default void flushBulkInserts() {
+    }
+
+    // updateMillis 가 cutoffMillis 이전인 히스토리를 zone 기준 일별 rollup 으로 접고 원본은 지운다. 접힌 히스토리 수 반환
+    int compact(long userId, long cutoffMillis, ZoneId zone);
+
+    // 유저의 rollup, 날짜 순서
+    List<PointHistoryRollup> selectRollupsByUserId(long userId);
+
+    // 저장된 모든 rollup 순회 (export, 원장 검증용)
+    void forEachRollup(Consumer<PointHistoryRollup> action);
+
+    // rollup 적재, 같은 날의 rollup 이 있으면 합친다. (import, handoff 용)
+    void insertRollup(PointHistoryRollup rollup);
+
+    // 유저의 히스토리와 rollup 을 모두 지운다. (다른 노드로 넘긴 유저 정리, handoff 로 받은 유저 교체용)
+    void deleteAllByUserId(long userId);
 }
@@ -1,30 +1,276 @@
 package io.hhplus.tdd.repository;
 
 import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
 import io.hhplus.tdd.point.TransactionType;
 import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.repository.history.FileSegmentStore;
+import io.hhplus.tdd.repository.journal.JournalFlusher;
+import io.hhplus.tdd.repository.journal.PointHistoryJournal;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 @Repository
+@ConditionalOnProperty(name = "point.history.storage", havingValue = "table", matchIfMissing = true)
 public class PointHistoryRepositoryImpl implements PointHistoryRepository {
 
-    private final PointHistoryTable pointHistoryTable;
+    private static final int DEFAULT_TABLE_STRIPES = 16;
+    private static final long DEFAULT_FLUSH_MILLIS = 100L;
+
+    // 히스토리를 userId 로 나눠 담는 table 들, 다른 stripe 의 유저끼리는 insert 의 throttle 을 나란히 기다린다.
+    // 각 table 의 id 는 1부터 따로 증가하므로 (table id - 1) * stripe 수 + stripe 번호 + 1 로 겹치지 않게 바꿔서 반환한다.
+    // 한 유저의 히스토리는 항상 같은 table 에 있으므로 유저 안에서는 id 가 계속 증가한다.
+    private final Stripe[] stripes;
+
+    // import 와 table 쓰기 사이의 순서 보장, table 쓰기끼리는 read lock 으로 동시에 진행된다.
+    private final ReadWriteLock importLock = new ReentrantReadWriteLock();
+
+    // table 에 쓴 히스토리, PointHistoryTable 은 전체를 순회하는 API 가 없어서 export 용으로 로컬 파일에 이어 쓴다.
+    // insert 는 큐에 넣기만 하고 파일에는 flusher 가 모아서 쓴다.
+    private final PointHistoryJournal journal;
+    private final JournalFlusher flusher;
+
+    // import 로 적재된 히스토리, table 의 throttle 을 피하기 위해 압축 세그먼트로 로컬 파일에 따로 보관한다.
+    private final TieredPointHistoryRepository imported;
+
+    // deleteAllByUserId 로 지우거나 compact 로 rollup 에 접은 유저별 마지막 id, PointHistoryTable 에는 삭제 API 가 없어서 이 id 까지의 table 히스토리는 건너뛴다.
+    private final ConcurrentHashMap<Long, Long> deletedThrough = new ConcurrentHashMap<>();
+
+    // table 의 id 는 항상 1부터 시작하므로 import 된 id 뒤로 밀어서 반환한다.
+    private volatile long idOffset;
 
     @Autowired
+    public PointHistoryRepositoryImpl(PointHistoryTable pointHistoryTable,
+                                      @Value("${point.history.table-stripes:16}") int tableStripes,
+                                      @Value("${point.table.spill-dir:${java.io.tmpdir}/point-table}") String spillDir,
+                                      @Value("${point.table.flush-millis:100}") long flushMillis) {
+        this(withStripes(pointHistoryTable, tableStripes), Path.of(spillDir), flushMillis);
+    }
+
     public PointHistoryRepositoryImpl(PointHistoryTable pointHistoryTable) {
-        this.pointHistoryTable = pointHistoryTable;
+        this(withStripes(pointHistoryTable, DEFAULT_TABLE_STRIPES), defaultSpillDir(), DEFAULT_FLUSH_MILLIS);
+    }
+
+    // table 마다 stripe 하나, 히스토리는 userId 를 table 수로 나눈 나머지 번째 table 에 담긴다.
+    public PointHistoryRepositoryImpl(List<PointHistoryTable> pointHistoryTables) {
+        this(pointHistoryTables, defaultSpillDir(), DEFAULT_FLUSH_MILLIS);
+    }
+
+    private PointHistoryRepositoryImpl(List<PointHistoryTable> pointHistoryTables, Path spillDir, long flushMillis) {
+        this.stripes = pointHistoryTables.stream().map(Stripe::new).toArray(Stripe[]::new);
+        this.journal = new PointHistoryJournal(spillDir);
+        this.flusher = new JournalFlusher("point-history-flush", flushMillis, journal::flush);
+        this.imported = new TieredPointHistoryRepository(256, new FileSegmentStore(spillDir));
     }
 
     @Override
     public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
-        return pointHistoryTable.insert(userId, amount, type, updateMillis);
+        int index = stripeIndexOf(userId);
+        Stripe stripe = stripes[index];
+        importLock.readLock().lock();
+        stripe.lock.writeLock().lock();
+        try {
+            PointHistory pointHistory = toGlobal(stripe.table.insert(userId, amount, type, updateMillis), index, idOffset);
+            journal.append(pointHistory);
+            return pointHistory;
+        } finally {
+            stripe.lock.writeLock().unlock();
+            importLock.readLock().unlock();
+        }
     }
 
     @Override
     public List<PointHistory> selectAllByUserId(long userId) {
-        return pointHistoryTable.selectAllByUserId(userId);
+        int index = stripeIndexOf(userId);
+        Stripe stripe = stripes[index];
+        List<PointHistory> tableRows;
+        long offset;
+        stripe.lock.readLock().lock();
+        try {
+            tableRows = stripe.table.selectAllByUserId(userId);
+            offset = idOffset;
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+
+        List<PointHistory> importedRows = imported.selectAllByUserId(userId);
+        List<PointHistory> result = new ArrayList<>(importedRows.size() + tableRows.size());
+        result.addAll(importedRows);
+        long hiddenThrough = deletedThrough.getOrDefault(userId, 0L);
+        for (PointHistory tableRow : tableRows) {
+            PointHistory pointHistory = toGlobal(tableRow, index, offset);
+            if (pointHistory.id() > hiddenThrough) {
+                result.add(pointHistory);
+            }
+        }
+        return result;
+    }
+
+    // import 된 히스토리를 먼저, table 에 쓴 히스토리를 쓴 순서대로 전달한다.
+    // 둘 다 로컬 파일을 큰 단위로 읽으며 순회하므로 쓰기를 막지 않고, 힙은 읽는 단위만큼만 쓴다.
+    // journal 은 순회 전에 큐를 파일에 반영하므로 순회 시작 전에 끝난 insert 는 모두 포함된다.
+    @Override
+    public void forEach(Consumer<PointHistory> action) {
+        imported.forEach(action);
+        journal.forEach(pointHistory -> {
+            if (pointHistory.id() > deletedThrough.getOrDefault(pointHistory.userId(), 0L)) {
+                action.accept(pointHistory);
+            }
+        });
+    }
+
+    // id 를 유지해야 하므로 table 에 히스토리가 쓰이기 전(빈 저장소)에만 적재할 수 있다.
+    @Override
+    public void bulkInsert(PointHistory pointHistory) {
+        importLock.writeLock().lock();
+        try {
+            if (hasTableRows()) {
+                throw new IllegalStateException("히스토리가 기록된 저장소에는 적재할 수 없습니다.");
+            }
+            imported.bulkInsert(pointHistory);
+            idOffset = Math.max(idOffset, pointHistory.id());
+        } finally {
+            importLock.writeLock().unlock();
+        }
+    }
+
+    // import 된 히스토리는 세그먼트에서 접고, table 에 쓴 히스토리는 rollup 으로 옮긴 뒤 deletedThrough 로 조회에서 뺀다.
+    // deletedThrough 는 id 까지 한 번에 숨기므로 table 히스토리는 앞에서부터 cutoffMillis 이전인 행까지만 접는다.
+    @Override
+    public int compact(long userId, long cutoffMillis, ZoneId zone) {
+        int folded = imported.compact(userId, cutoffMillis, zone);
+        int index = stripeIndexOf(userId);
+        Stripe stripe = stripes[index];
+        importLock.readLock().lock();
+        stripe.lock.writeLock().lock();
+        try {
+            long hiddenThrough = deletedThrough.getOrDefault(userId, 0L);
+            long foldedThrough = hiddenThrough;
+            TreeMap<Long, PointHistoryRollup> rollups = new TreeMap<>();
+            for (PointHistory tableRow : stripe.table.selectAllByUserId(userId)) {
+                PointHistory row = toGlobal(tableRow, index, idOffset);
+                if (row.id() <= hiddenThrough) {
+                    continue;
+                }
+                if (row.updateMillis() >= cutoffMillis) {
+                    break;
+                }
+                long epochDay = Instant.ofEpochMilli(row.updateMillis()).atZone(zone).toLocalDate().toEpochDay();
+                rollups.merge(epochDay, PointHistoryRollup.empty(userId, epochDay).plus(row), PointHistoryRollup::merge);
+                foldedThrough = row.id();
+                folded++;
+            }
+            if (foldedThrough > hiddenThrough) {
+                rollups.values().forEach(imported::insertRollup);
+                deletedThrough.put(userId, foldedThrough);
+            }
+            return folded;
+        } finally {
+            stripe.lock.writeLock().unlock();
+            importLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<PointHistoryRollup> selectRollupsByUserId(long userId) {
+        return imported.selectRollupsByUserId(userId);
+    }
+
+    @Override
+    public void forEachRollup(Consumer<PointHistoryRollup> action) {
+        imported.forEachRollup(action);
+    }
+
+    // 아직 table 에 쓴 히스토리가 없으면 import 된 히스토리처럼 이후 id 가 rollup 의 id 뒤에서 시작하도록 한다.
+    @Override
+    public void insertRollup(PointHistoryRollup rollup) {
+        importLock.writeLock().lock();
+        try {
+            imported.insertRollup(rollup);
+            if (!hasTableRows()) {
+                idOffset = Math.max(idOffset, rollup.lastHistoryId());
+            }
+        } finally {
+            importLock.writeLock().unlock();
+        }
+    }
+
+    // import 된 히스토리는 지우고, table 에 쓴 히스토리는 지금까지의 마지막 id 를 기록해 두고 조회에서 뺀다.
+    @Override
+    public void deleteAllByUserId(long userId) {
+        int index = stripeIndexOf(userId);
+        Stripe stripe = stripes[index];
+        importLock.readLock().lock();
+        stripe.lock.writeLock().lock();
+        try {
+            List<PointHistory> tableRows = stripe.table.selectAllByUserId(userId);
+            if (!tableRows.isEmpty()) {
+                deletedThrough.put(userId, toGlobal(tableRows.get(tableRows.size() - 1), index, idOffset).id());
+            }
+            imported.deleteAllByUserId(userId);
+        } finally {
+            stripe.lock.writeLock().unlock();
+            importLock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flusher.close();
+        journal.close();
+    }
+
+    // import lock 안에서 호출
+    private boolean hasTableRows() {
+        return !journal.isEmpty();
+    }
+
+    private int stripeIndexOf(long userId) {
+        return Math.floorMod(userId, stripes.length);
+    }
+
+    private PointHistory toGlobal(PointHistory tableRow, int index, long offset) {
+        long id = offset + (tableRow.id() - 1) * stripes.length + index + 1;
+        if (id == tableRow.id()) {
+            return tableRow;
+        }
+        return new PointHistory(id, tableRow.userId(), tableRow.amount(), tableRow.type(), tableRow.updateMillis());
+    }
+
+    // 첫 stripe 는 주입된 table 을 그대로 쓰고, 나머지는 새로 만든다.
+    private static List<PointHistoryTable> withStripes(PointHistoryTable pointHistoryTable, int tableStripes) {
+        List<PointHistoryTable> tables = new ArrayList<>(Math.max(1, tableStripes));
+        tables.add(pointHistoryTable);
+        while (tables.size() < tableStripes) {
+            tables.add(new PointHistoryTable());
+        }
+        return tables;
+    }
+
+    private static Path defaultSpillDir() {
+        return Path.of(System.getProperty("java.io.tmpdir"), "point-table");
+    }
+
+    // PointHistoryTable 내부는 ArrayList + cursor 라 쓰기와 동시에 읽으면 안전하지 않다.
+    // 읽기끼리는 동시에 허용하고, 쓰기가 밀리지 않도록 fair 로 둔다.
+    private record Stripe(PointHistoryTable table, ReadWriteLock lock) {
+
+        private Stripe(PointHistoryTable table) {
+            this(table, new ReentrantReadWriteLock(true));
+        }
     }
 }
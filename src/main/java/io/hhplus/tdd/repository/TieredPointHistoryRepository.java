@@ -0,0 +1,324 @@
+package io.hhplus.tdd.repository;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.repository.history.FileSegmentStore;
+import io.hhplus.tdd.repository.history.HeapSegmentStore;
+import io.hhplus.tdd.repository.history.HistorySegment;
+import io.hhplus.tdd.repository.history.HistorySegmentCodec;
+import io.hhplus.tdd.repository.history.OffHeapSegmentStore;
+import io.hhplus.tdd.repository.history.SegmentStore;
+
+/**
+ * 최근 히스토리는 객체로, 오래된 히스토리는 압축된 세그먼트로 보관하는 저장소
+ *
+ * - 유저별로 최근 히스토리를 segmentRows 개까지 객체(hot tier)로 들고 있다가
+ *   가득 차면 한 번에 압축해서 세그먼트(cold tier)로 봉인한다.
+ * - 세그먼트는 힙(heap), 힙 밖(off-heap), 로컬 파일(file) 중 설정된 곳에 보관
+ * - 조회 시 세그먼트를 순서대로 풀고 hot tier 를 이어 붙여 PointHistoryTable 과 같은 순서로 반환
+ * - compact 는 보관 기간이 지난 히스토리가 든 세그먼트만 풀어서 일별 rollup 으로 접고, 남은 히스토리로 세그먼트를 다시 만든다.
+ *   세그먼트를 모두 쓴 뒤에만 세그먼트 목록과 rollup 을 바꾸므로, 쓰다가 실패하면 유저의 히스토리는 그대로 남는다.
+ * - 조회는 세그먼트 목록만 lock 안에서 복사하고 lock 밖에서 풀기 때문에, 유저마다 세그먼트를 읽고 있는 조회 수를 센다.
+ *   compact / 삭제로 교체된 세그먼트는 그 유저를 읽는 조회가 하나도 없을 때 SegmentStore 에 반환한다.
+ *
+ * point.history.storage=tiered 일 때 사용된다.
+ */
+@Repository
+@ConditionalOnProperty(name = "point.history.storage", havingValue = "tiered")
+public class TieredPointHistoryRepository implements PointHistoryRepository {
+
+    private final int segmentRows;
+    private final SegmentStore segmentStore;
+    private final ConcurrentHashMap<Long, UserHistory> histories = new ConcurrentHashMap<>();
+
+    // 히스토리 id, PointHistoryTable 과 마찬가지로 1부터 시작
+    private final AtomicLong cursor = new AtomicLong(1);
+
+    @Autowired
+    public TieredPointHistoryRepository(@Value("${point.history.tiered.segment-rows:256}") int segmentRows,
+                                        @Value("${point.history.tiered.segment-store:heap}") String segmentStore,
+                                        @Value("${point.history.tiered.spill-dir:${java.io.tmpdir}/point-history}") String spillDir) {
+        this(segmentRows, createSegmentStore(segmentStore, spillDir));
+    }
+
+    public TieredPointHistoryRepository(int segmentRows, SegmentStore segmentStore) {
+        this.segmentRows = segmentRows;
+        this.segmentStore = segmentStore;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        UserHistory userHistory = histories.computeIfAbsent(userId, id -> new UserHistory());
+        synchronized (userHistory) {
+            // 유저 lock 안에서 id 를 발급하여 유저 안에서는 id 가 항상 증가하도록 한다.
+            PointHistory pointHistory = new PointHistory(cursor.getAndIncrement(), userId, amount, type, updateMillis);
+            userHistory.hot.add(pointHistory);
+            userHistory.oldestMillis = Math.min(userHistory.oldestMillis, updateMillis);
+            if (userHistory.hot.size() >= segmentRows) {
+                seal(userHistory);
+            }
+            return pointHistory;
+        }
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        UserHistory userHistory = histories.get(userId);
+        if (userHistory == null) {
+            return List.of();
+        }
+
+        List<HistorySegment> segments;
+        List<PointHistory> hot;
+        int rowCount;
+        synchronized (userHistory) {
+            segments = List.copyOf(userHistory.segments);
+            hot = List.copyOf(userHistory.hot);
+            rowCount = (int) userHistory.sealedRows + hot.size();
+            userHistory.readers++;
+        }
+
+        // 세그먼트는 불변이므로 lock 밖에서 푼다, 읽는 동안에는 교체된 세그먼트도 반환되지 않는다.
+        List<PointHistory> result = new ArrayList<>(rowCount);
+        try {
+            for (HistorySegment segment : segments) {
+                HistorySegmentCodec.decode(segmentStore.read(segment.address(), segment.length()), segment.rowCount(), userId, result);
+            }
+        } finally {
+            synchronized (userHistory) {
+                userHistory.readers--;
+                releaseRetired(userHistory);
+            }
+        }
+        result.addAll(hot);
+        return result;
+    }
+
+    // 유저 단위로 풀어서 전달하므로 한 번에 메모리에 올라가는 것은 한 유저의 히스토리뿐
+    @Override
+    public void forEach(Consumer<PointHistory> action) {
+        for (Long userId : histories.keySet()) {
+            selectAllByUserId(userId).forEach(action);
+        }
+    }
+
+    // 덤프의 id 를 그대로 쓰고, 이후 발급되는 id 는 적재된 id 뒤에서 시작한다.
+    // 같은 유저 안에서 id 가 증가하는 순서로 적재해야 세그먼트가 작게 압축된다.
+    @Override
+    public void bulkInsert(PointHistory pointHistory) {
+        UserHistory userHistory = histories.computeIfAbsent(pointHistory.userId(), id -> new UserHistory());
+        synchronized (userHistory) {
+            userHistory.hot.add(pointHistory);
+            userHistory.oldestMillis = Math.min(userHistory.oldestMillis, pointHistory.updateMillis());
+            if (userHistory.hot.size() >= segmentRows) {
+                seal(userHistory);
+            }
+        }
+        cursor.accumulateAndGet(pointHistory.id() + 1, Math::max);
+    }
+
+    @Override
+    public int compact(long userId, long cutoffMillis, ZoneId zone) {
+        UserHistory userHistory = histories.get(userId);
+        if (userHistory == null) {
+            return 0;
+        }
+
+        synchronized (userHistory) {
+            if (userHistory.oldestMillis >= cutoffMillis) {
+                return 0;
+            }
+
+            int folded = 0;
+            long oldestMillis = Long.MAX_VALUE;
+            long sealedRows = 0L;
+            List<HistorySegment> segments = new ArrayList<>(userHistory.segments.size());
+            List<HistorySegment> replaced = new ArrayList<>();
+            List<HistorySegment> rewrittenSegments = new ArrayList<>();
+            TreeMap<Long, PointHistoryRollup> rollups = new TreeMap<>();
+            List<PointHistory> rows = new ArrayList<>(segmentRows);
+            try {
+                for (HistorySegment segment : userHistory.segments) {
+                    // 접을 히스토리가 없는 세그먼트는 풀지 않고 그대로 둔다.
+                    if (segment.oldestMillis() >= cutoffMillis) {
+                        segments.add(segment);
+                        sealedRows += segment.rowCount();
+                        oldestMillis = Math.min(oldestMillis, segment.oldestMillis());
+                        continue;
+                    }
+
+                    rows.clear();
+                    HistorySegmentCodec.decode(segmentStore.read(segment.address(), segment.length()), segment.rowCount(), userId, rows);
+                    List<PointHistory> kept = fold(rows, cutoffMillis, zone, rollups);
+                    folded += rows.size() - kept.size();
+                    replaced.add(segment);
+                    if (!kept.isEmpty()) {
+                        HistorySegment rewritten = write(kept);
+                        rewrittenSegments.add(rewritten);
+                        segments.add(rewritten);
+                        sealedRows += rewritten.rowCount();
+                        oldestMillis = Math.min(oldestMillis, rewritten.oldestMillis());
+                    }
+                }
+            } catch (RuntimeException e) {
+                // 아직 아무 조회도 보지 않은 새 세그먼트만 반환하고, 기존 세그먼트와 rollup 은 그대로 둔다.
+                for (HistorySegment rewritten : rewrittenSegments) {
+                    segmentStore.release(rewritten.address(), rewritten.length());
+                }
+                throw e;
+            }
+
+            List<PointHistory> hot = fold(userHistory.hot, cutoffMillis, zone, rollups);
+            folded += userHistory.hot.size() - hot.size();
+            for (PointHistory row : hot) {
+                oldestMillis = Math.min(oldestMillis, row.updateMillis());
+            }
+
+            // 세그먼트를 모두 쓴 뒤에 한 번에 반영
+            rollups.values().forEach(rollup -> userHistory.rollups.merge(rollup.epochDay(), rollup, PointHistoryRollup::merge));
+            userHistory.segments = segments;
+            userHistory.sealedRows = sealedRows;
+            userHistory.hot = hot;
+            userHistory.oldestMillis = oldestMillis;
+            userHistory.retired.addAll(replaced);
+            releaseRetired(userHistory);
+            return folded;
+        }
+    }
+
+    @Override
+    public List<PointHistoryRollup> selectRollupsByUserId(long userId) {
+        UserHistory userHistory = histories.get(userId);
+        if (userHistory == null) {
+            return List.of();
+        }
+        synchronized (userHistory) {
+            return List.copyOf(userHistory.rollups.values());
+        }
+    }
+
+    @Override
+    public void forEachRollup(Consumer<PointHistoryRollup> action) {
+        for (Long userId : histories.keySet()) {
+            selectRollupsByUserId(userId).forEach(action);
+        }
+    }
+
+    @Override
+    public void insertRollup(PointHistoryRollup rollup) {
+        UserHistory userHistory = histories.computeIfAbsent(rollup.userId(), id -> new UserHistory());
+        synchronized (userHistory) {
+            userHistory.rollups.merge(rollup.epochDay(), rollup, PointHistoryRollup::merge);
+        }
+        cursor.accumulateAndGet(rollup.lastHistoryId() + 1, Math::max);
+    }
+
+    // 지운 유저의 세그먼트도 compact 로 교체된 세그먼트처럼 진행중인 조회가 끝난 뒤에 반환한다.
+    @Override
+    public void deleteAllByUserId(long userId) {
+        UserHistory userHistory = histories.get(userId);
+        if (userHistory == null) {
+            return;
+        }
+        synchronized (userHistory) {
+            userHistory.retired.addAll(userHistory.segments);
+            releaseRetired(userHistory);
+            userHistory.segments = new ArrayList<>();
+            userHistory.sealedRows = 0L;
+            userHistory.hot = new ArrayList<>();
+            userHistory.oldestMillis = Long.MAX_VALUE;
+            userHistory.rollups.clear();
+        }
+    }
+
+    // 세그먼트로 봉인된 히스토리 수
+    public long sealedRows() {
+        return histories.values().stream().mapToLong(userHistory -> {
+            synchronized (userHistory) {
+                return userHistory.sealedRows;
+            }
+        }).sum();
+    }
+
+    // 세그먼트가 차지하는 바이트 수
+    public long sealedBytes() {
+        return segmentStore.storedBytes();
+    }
+
+    private void seal(UserHistory userHistory) {
+        userHistory.segments.add(write(userHistory.hot));
+        userHistory.sealedRows += userHistory.hot.size();
+        userHistory.hot = new ArrayList<>(segmentRows);
+    }
+
+    private HistorySegment write(List<PointHistory> rows) {
+        byte[] encoded = HistorySegmentCodec.encode(rows);
+        long oldestMillis = Long.MAX_VALUE;
+        for (PointHistory row : rows) {
+            oldestMillis = Math.min(oldestMillis, row.updateMillis());
+        }
+        return new HistorySegment(segmentStore.append(encoded), encoded.length, rows.size(), oldestMillis);
+    }
+
+    // cutoffMillis 이전 히스토리는 rollups 에 더하고, 나머지를 순서대로 반환
+    private static List<PointHistory> fold(List<PointHistory> rows, long cutoffMillis, ZoneId zone, TreeMap<Long, PointHistoryRollup> rollups) {
+        List<PointHistory> kept = new ArrayList<>(rows.size());
+        for (PointHistory row : rows) {
+            if (row.updateMillis() >= cutoffMillis) {
+                kept.add(row);
+                continue;
+            }
+            long epochDay = Instant.ofEpochMilli(row.updateMillis()).atZone(zone).toLocalDate().toEpochDay();
+            rollups.merge(epochDay, PointHistoryRollup.empty(row.userId(), epochDay).plus(row), PointHistoryRollup::merge);
+        }
+        return kept;
+    }
+
+    // 유저 lock 안에서 호출, 세그먼트를 읽고 있는 조회가 없을 때만 교체된 세그먼트를 반환한다.
+    private void releaseRetired(UserHistory userHistory) {
+        if (userHistory.readers > 0 || userHistory.retired.isEmpty()) {
+            return;
+        }
+        for (HistorySegment segment : userHistory.retired) {
+            segmentStore.release(segment.address(), segment.length());
+        }
+        userHistory.retired.clear();
+    }
+
+    private static SegmentStore createSegmentStore(String segmentStore, String spillDir) {
+        return switch (segmentStore) {
+            case "heap" -> new HeapSegmentStore();
+            case "off-heap" -> new OffHeapSegmentStore(4 * 1024 * 1024);
+            case "file" -> new FileSegmentStore(Path.of(spillDir));
+            default -> throw new IllegalArgumentException("지원하지 않는 segment-store 입니다: " + segmentStore);
+        };
+    }
+
+    private static final class UserHistory {
+        private List<PointHistory> hot = new ArrayList<>();
+        private List<HistorySegment> segments = new ArrayList<>();
+        private long sealedRows;
+        // 남아있는 히스토리 중 가장 이른 updateMillis, compact 대상인지 바로 판단하는 데 사용
+        private long oldestMillis = Long.MAX_VALUE;
+        private final TreeMap<Long, PointHistoryRollup> rollups = new TreeMap<>();
+        // lock 밖에서 세그먼트를 읽고 있는 조회 수와, 그 조회가 끝나기를 기다리는 교체된 세그먼트
+        private int readers;
+        private final List<HistorySegment> retired = new ArrayList<>();
+    }
+}
@@ -1,8 +1,36 @@
 package io.hhplus.tdd.repository;
 
+import java.util.function.Consumer;
+
 import io.hhplus.tdd.point.UserPoint;
 
 public interface UserPointRepository {
     UserPoint selectById(Long id);
     UserPoint insertOrUpdate(long id, long amount);
+
+    /**
+     * 잔액에 delta 를 더한다. 결과가 음수가 되면 반영하지 않고 null 을 반환한다.
+     * current 는 호출자가 같은 유저 lock 안에서 읽은 잔액이며, 원자적 증감을 지원하지 않는 저장소는 current + delta 로 덮어쓴다.
+     */
+    default UserPoint addPoint(long id, long current, long delta) {
+        if (current + delta < 0) {
+            return null;
+        }
+        return insertOrUpdate(id, current + delta);
+    }
+
+    // 저장된 모든 유저 순회 (export 용, throttle 없음)
+    void forEach(Consumer<UserPoint> action);
+
+    // 덤프에서 읽은 유저를 그대로 적재 (import 용, throttle 없음)
+    void bulkInsert(UserPoint userPoint);
+
+    // bulkInsert 로 모아 둔 행을 모두 반영 (import 끝에서 호출), 반영에 실패하면 예외
+    default void flushBulkInserts() {
+    }
+
+    // false 이면 한 번도 기록된 적 없는 유저 (true 는 있을 수도 있다는 뜻)
+    default boolean mightExist(long id) {
+        return true;
+    }
 }
@@ -2,26 +2,244 @@ package io.hhplus.tdd.repository;
 
 import io.hhplus.tdd.point.UserPoint;
 import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.repository.journal.JournalFlusher;
+import io.hhplus.tdd.repository.journal.UserPointSlotFile;
+import io.hhplus.tdd.repository.membership.LongBloomFilter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Repository;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
 @Repository
+@ConditionalOnProperty(name = "point.user.storage", havingValue = "table", matchIfMissing = true)
 public class UserPointRepositoryImpl implements UserPointRepository {
 
-    private final UserPointTable userPointTable;
+    private static final Logger log = LoggerFactory.getLogger(UserPointRepositoryImpl.class);
+
+    // 테스트 등에서 table 만으로 만들 때의 filter 크기
+    private static final long DEFAULT_EXPECTED_USERS = 1L << 20;
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    private static final int DEFAULT_TABLE_STRIPES = 16;
+    private static final long DEFAULT_FLUSH_MILLIS = 100L;
+
+    // 유저를 userId 로 나눠 담는 table 들
+    // table 하나를 lock 하나로 보호하면 서로 다른 유저의 쓰기도 throttle 시간 동안 줄을 서게 되므로,
+    // 여러 table 에 나눠 담아 다른 stripe 의 유저끼리는 table 호출이 나란히 진행되도록 한다.
+    private final Stripe[] stripes;
+
+    // table 에 쓴 유저의 최신 값과 import 로 적재된 유저, 로컬 파일에 두어 유저 수가 늘어도 힙을 쓰지 않는다.
+    // UserPointTable 은 전체 유저를 순회하는 API 가 없어서 export 는 이 파일을 순서대로 읽는다.
+    // import 된 유저는 처음 쓰기가 일어나면 table 로 넘어가고, 이후 조회는 table 에서 한다.
+    // table 쓰기는 큐에 넣기만 하고 파일에는 flusher 가 모아서 쓴다.
+    private final UserPointSlotFile slots;
+    private final JournalFlusher flusher;
+
+    private final boolean userFilterEnabled;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+
+    // 한 번이라도 기록된 유저 id, 여기에 없는 유저는 table 의 throttle 을 거치지 않고 빈 값으로 반환한다.
+    private volatile LongBloomFilter knownUsers;
+
+    // 재구성 중인 filter, 재구성 도중 기록된 유저도 새 filter 에 남기기 위해 둔다.
+    private volatile LongBloomFilter rebuilding;
+
+    // import 로 적재된 유저 id, import 가 없었으면 null
+    // 여기에 없는 유저는 유저 파일을 읽지 않고 바로 table 에서 조회하고, 쓰기도 파일에 바로 쓰지 않는다.
+    private final AtomicReference<LongBloomFilter> importedUsers = new AtomicReference<>();
 
     @Autowired
+    public UserPointRepositoryImpl(UserPointTable userPointTable,
+                                   @Value("${point.user.table-stripes:16}") int tableStripes,
+                                   @Value("${point.user-filter.enabled:true}") boolean userFilterEnabled,
+                                   @Value("${point.user-filter.expected-users:10000000}") long expectedUsers,
+                                   @Value("${point.user-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                   @Value("${point.table.spill-dir:${java.io.tmpdir}/point-table}") String spillDir,
+                                   @Value("${point.table.flush-millis:100}") long flushMillis) {
+        this(withStripes(userPointTable, tableStripes), userFilterEnabled, expectedUsers, falsePositiveRate, Path.of(spillDir), flushMillis);
+    }
+
     public UserPointRepositoryImpl(UserPointTable userPointTable) {
-        this.userPointTable = userPointTable;
+        this(withStripes(userPointTable, DEFAULT_TABLE_STRIPES), true, DEFAULT_EXPECTED_USERS, DEFAULT_FALSE_POSITIVE_RATE, defaultSpillDir(),
+                DEFAULT_FLUSH_MILLIS);
     }
 
+    // table 마다 stripe 하나, 유저는 userId 를 table 수로 나눈 나머지 번째 table 에 담긴다.
+    public UserPointRepositoryImpl(List<UserPointTable> userPointTables) {
+        this(userPointTables, true, DEFAULT_EXPECTED_USERS, DEFAULT_FALSE_POSITIVE_RATE, defaultSpillDir(), DEFAULT_FLUSH_MILLIS);
+    }
+
+    private UserPointRepositoryImpl(List<UserPointTable> userPointTables, boolean userFilterEnabled, long expectedUsers,
+                                    double falsePositiveRate, Path spillDir, long flushMillis) {
+        this.stripes = userPointTables.stream().map(Stripe::new).toArray(Stripe[]::new);
+        this.slots = new UserPointSlotFile(spillDir, expectedUsers);
+        this.flusher = new JournalFlusher("point-user-flush", flushMillis, slots::flush);
+        this.userFilterEnabled = userFilterEnabled;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.knownUsers = LongBloomFilter.create(userFilterEnabled ? expectedUsers : 1L, falsePositiveRate);
+    }
+
+    // 유저 단위 동시성 제어는 PointService 에서 담당
     @Override
     public UserPoint selectById(Long id) {
-        return userPointTable.selectById(id);
+        if (!mightExist(id)) {
+            return UserPoint.empty(id);
+        }
+        // table 은 이 repository 를 통해서만 쓰이므로 import 된 유저는 table 을 거치지 않고 바로 반환
+        if (mightBeImported(id)) {
+            UserPoint importedPoint = slots.imported(id);
+            if (importedPoint != null) {
+                return importedPoint;
+            }
+        }
+        Stripe stripe = stripeOf(id);
+        stripe.lock.readLock().lock();
+        try {
+            return stripe.table.selectById(id);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
     }
 
     @Override
     public UserPoint insertOrUpdate(long id, long amount) {
-        return userPointTable.insertOrUpdate(id, amount);
+        Stripe stripe = stripeOf(id);
+        stripe.lock.writeLock().lock();
+        try {
+            // table 에 보이는 유저가 filter 에서 빠져 있는 순간이 없도록 먼저 기록
+            knownUsers.put(id);
+            UserPoint userPoint = stripe.table.insertOrUpdate(id, amount);
+            if (mightBeImported(id)) {
+                // import 된 값이 다음 조회에 보이지 않도록 파일에 바로 덮어쓴다. (import 된 유저만)
+                slots.write(userPoint);
+            } else {
+                slots.writeLater(userPoint);
+            }
+            remember(id);
+            return userPoint;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    // 순회 시작 전에 끝난 쓰기는 모두 반영되고, 순회 중 들어온 쓰기는 반영될 수도, 안 될 수도 있다.
+    @Override
+    public void forEach(Consumer<UserPoint> action) {
+        slots.forEach(action);
+    }
+
+    // table 을 거치지 않고 적재하므로 table 의 throttle 을 거치지 않는다.
+    // filter 에 먼저 기록해야 적재 직후의 조회가 빈 값으로 끝나지 않는다.
+    // stripe lock 안에서 import 표시를 먼저 남겨, 적재 이후의 쓰기는 파일에 바로 덮어쓰도록 한다.
+    @Override
+    public void bulkInsert(UserPoint userPoint) {
+        Stripe stripe = stripeOf(userPoint.id());
+        stripe.lock.writeLock().lock();
+        try {
+            remember(userPoint.id());
+            importedUsers().put(userPoint.id());
+            if (!slots.importIfAbsent(userPoint)) {
+                throw new IllegalStateException("이미 포인트가 기록된 유저는 적재할 수 없습니다. userId=" + userPoint.id());
+            }
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean mightExist(long id) {
+        return !userFilterEnabled || knownUsers.mightContain(id);
+    }
+
+    /**
+     * 저장된 유저로 filter 를 다시 만든다.
+     * 기동 시 저장소에 이미 있는 유저를 반영하고, 예상보다 유저가 많아져 오탐이 늘었을 때 크기를 키우는 용도
+     * 재구성 중에도 조회/쓰기는 기존 filter 로 계속 처리된다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildUserFilter() {
+        if (!userFilterEnabled) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        LongBloomFilter fresh = LongBloomFilter.create(Math.max(expectedUsers, slots.size()), falsePositiveRate);
+        // 순회 시작 전에 열어 두어야 순회가 지나간 뒤의 쓰기도 새 filter 에 남는다.
+        rebuilding = fresh;
+        forEach(userPoint -> fresh.put(userPoint.id()));
+        knownUsers = fresh;
+        rebuilding = null;
+        log.info("user filter rebuilt: users={}, bits={}, hashes={}, elapsed={}ms", slots.size(),
+                fresh.bitSize(), fresh.hashCount(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void close() {
+        flusher.close();
+        slots.close();
+    }
+
+    private Stripe stripeOf(long id) {
+        return stripes[Math.floorMod(id, stripes.length)];
+    }
+
+    private boolean mightBeImported(long id) {
+        LongBloomFilter imported = importedUsers.get();
+        return imported != null && imported.mightContain(id);
+    }
+
+    // 처음 import 할 때 만든다.
+    private LongBloomFilter importedUsers() {
+        LongBloomFilter imported = importedUsers.get();
+        if (imported == null) {
+            importedUsers.compareAndSet(null, LongBloomFilter.create(expectedUsers, falsePositiveRate));
+            imported = importedUsers.get();
+        }
+        return imported;
+    }
+
+    // 첫 stripe 는 주입된 table 을 그대로 쓰고, 나머지는 새로 만든다.
+    private static List<UserPointTable> withStripes(UserPointTable userPointTable, int tableStripes) {
+        List<UserPointTable> tables = new ArrayList<>(Math.max(1, tableStripes));
+        tables.add(userPointTable);
+        while (tables.size() < tableStripes) {
+            tables.add(new UserPointTable());
+        }
+        return tables;
+    }
+
+    private static Path defaultSpillDir() {
+        return Path.of(System.getProperty("java.io.tmpdir"), "point-table");
+    }
+
+    // 유저 기록 이후에 호출, 재구성 중인 filter 를 먼저 읽어야 교체 직후의 쓰기가 빠지지 않는다.
+    private void remember(long id) {
+        LongBloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(id);
+        }
+        knownUsers.put(id);
+    }
+
+    // UserPointTable 내부는 HashMap 이라 쓰기와 동시에 읽으면 안전하지 않다.
+    // 읽기끼리는 동시에 허용해서 여러 유저 조회가 throttle 을 나란히 기다리도록 하고, 쓰기가 밀리지 않도록 fair 로 둔다.
+    private record Stripe(UserPointTable table, ReadWriteLock lock) {
+
+        private Stripe(UserPointTable table) {
+            this(table, new ReentrantReadWriteLock(true));
+        }
     }
 }
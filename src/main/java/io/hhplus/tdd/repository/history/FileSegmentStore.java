@@ -0,0 +1,76 @@
+package io.hhplus.tdd.repository.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 로컬 파일에 세그먼트를 이어 써서 보관, address 는 파일 안의 위치
+ * 읽기는 position 지정 read 를 사용하므로 여러 스레드가 동시에 읽을 수 있다.
+ * release 된 구간은 storedBytes 에서만 빠지고 파일 공간은 되돌려주지 않는다.
+ */
+public class FileSegmentStore implements SegmentStore {
+
+    private final FileChannel channel;
+    private long size;
+    private long releasedBytes;
+
+    public FileSegmentStore(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, "point-history-", ".seg");
+            file.toFile().deleteOnExit();
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("히스토리 세그먼트 파일을 만들 수 없습니다.", e);
+        }
+    }
+
+    @Override
+    public synchronized long append(byte[] encoded) {
+        long address = size;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(encoded);
+            long position = address;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("히스토리 세그먼트를 파일에 쓸 수 없습니다.", e);
+        }
+        size += encoded.length;
+        return address;
+    }
+
+    @Override
+    public ByteBuffer read(long address, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            long position = address;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("세그먼트가 파일 끝을 넘습니다. address=" + address);
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("히스토리 세그먼트를 파일에서 읽을 수 없습니다.", e);
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public synchronized void release(long address, int length) {
+        releasedBytes += length;
+    }
+
+    @Override
+    public synchronized long storedBytes() {
+        return size - releasedBytes;
+    }
+}
@@ -0,0 +1,38 @@
+package io.hhplus.tdd.repository.history;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 힙 안의 byte[] 로 세그먼트 보관, address 는 목록의 인덱스
+ */
+public class HeapSegmentStore implements SegmentStore {
+
+    private final List<byte[]> segments = new ArrayList<>();
+    private long storedBytes;
+
+    @Override
+    public synchronized long append(byte[] encoded) {
+        segments.add(encoded);
+        storedBytes += encoded.length;
+        return segments.size() - 1;
+    }
+
+    @Override
+    public synchronized ByteBuffer read(long address, int length) {
+        return ByteBuffer.wrap(segments.get((int) address), 0, length).asReadOnlyBuffer();
+    }
+
+    @Override
+    public synchronized void release(long address, int length) {
+        if (segments.set((int) address, null) != null) {
+            storedBytes -= length;
+        }
+    }
+
+    @Override
+    public synchronized long storedBytes() {
+        return storedBytes;
+    }
+}
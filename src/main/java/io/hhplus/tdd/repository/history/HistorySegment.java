@@ -0,0 +1,16 @@
+package io.hhplus.tdd.repository.history;
+
+/**
+ * 압축되어 봉인(seal)된 히스토리 묶음의 위치 정보
+ * - address : SegmentStore 안에서의 위치
+ * - length : 압축된 바이트 길이
+ * - rowCount : 들어있는 히스토리 수
+ * - oldestMillis : 들어있는 히스토리 중 가장 이른 updateMillis (보관 기간 정리 대상인지 풀지 않고 판단)
+ */
+public record HistorySegment(
+        long address,
+        int length,
+        int rowCount,
+        long oldestMillis
+) {
+}
@@ -0,0 +1,114 @@
+package io.hhplus.tdd.repository.history;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+/**
+ * 한 유저의 히스토리 묶음(segment)을 압축 바이트로 변환
+ *
+ * 세그먼트에는 같은 유저의 히스토리만 들어가므로 userId 는 저장하지 않는다.
+ * 맨 앞에 세그먼트 안 모든 amount 의 최대공약수(scale)를 기록하고, 행마다 아래 순서로 기록한다.
+ * - id : 직전 행과의 차이 (varint, 같은 유저 안에서 id 는 증가만 한다)
+ * - updateMillis : 직전 행과의 차이 (varint, 대부분 양수라 zig-zag 없이 기록, 음수는 10byte 로 기록된다)
+ * - amount / scale 의 zig-zag 값 뒤에 type ordinal 2bit 를 붙여서 varint 하나로 기록
+ * 첫 행의 직전 값은 0 으로 본다.
+ */
+public final class HistorySegmentCodec {
+
+    // 행 하나의 최대 길이, varint 10byte * 3
+    private static final int MAX_ROW_BYTES = 30;
+
+    private static final int TYPE_BITS = 2;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    static {
+        if (TYPES.length > 1 << TYPE_BITS) {
+            throw new ExceptionInInitializerError("TransactionType 이 " + (1 << TYPE_BITS) + "개를 넘으면 TYPE_BITS 를 늘려야 합니다.");
+        }
+    }
+
+    private HistorySegmentCodec() {
+    }
+
+    public static byte[] encode(List<PointHistory> rows) {
+        long scale = 0L;
+        for (PointHistory row : rows) {
+            scale = gcd(scale, Math.abs(row.amount()));
+        }
+        scale = Math.max(scale, 1L);
+
+        byte[] buffer = new byte[10 + rows.size() * MAX_ROW_BYTES];
+        int position = writeVarLong(buffer, 0, scale);
+        long previousId = 0L;
+        long previousMillis = 0L;
+        for (PointHistory row : rows) {
+            position = writeVarLong(buffer, position, row.id() - previousId);
+            position = writeVarLong(buffer, position, row.updateMillis() - previousMillis);
+            long zigZagAmount = zigZag(row.amount() / scale);
+            if (zigZagAmount >>> (Long.SIZE - TYPE_BITS) != 0) {
+                throw new IllegalArgumentException("세그먼트에 기록할 수 없는 amount 입니다: " + row.amount());
+            }
+            position = writeVarLong(buffer, position, (zigZagAmount << TYPE_BITS) | row.type().ordinal());
+            previousId = row.id();
+            previousMillis = row.updateMillis();
+        }
+        return Arrays.copyOf(buffer, position);
+    }
+
+    // buffer 의 position ~ limit 구간에서 rowCount 행을 읽어 out 에 추가
+    public static void decode(ByteBuffer buffer, int rowCount, long userId, List<PointHistory> out) {
+        long scale = readVarLong(buffer);
+        long id = 0L;
+        long updateMillis = 0L;
+        for (int i = 0; i < rowCount; i++) {
+            id += readVarLong(buffer);
+            updateMillis += readVarLong(buffer);
+            long amountAndType = readVarLong(buffer);
+            long amount = unZigZag(amountAndType >>> TYPE_BITS) * scale;
+            TransactionType type = TYPES[(int) (amountAndType & ((1 << TYPE_BITS) - 1))];
+            out.add(new PointHistory(id, userId, amount, type, updateMillis));
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int writeVarLong(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0L;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,64 @@
+package io.hhplus.tdd.repository.history;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 힙 밖(direct buffer)에 세그먼트 보관
+ *
+ * 큰 direct buffer(chunk)를 잡아두고 앞에서부터 이어 붙인다(bump allocation).
+ * address 는 (chunk 번호 << 32) | chunk 안의 offset
+ * chunk 안의 세그먼트가 모두 release 되면 chunk 를 놓아준다. (마지막 chunk 제외)
+ */
+public class OffHeapSegmentStore implements SegmentStore {
+
+    private final int chunkBytes;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    // chunk 별 release 되지 않은 바이트 수
+    private final List<Long> liveBytes = new ArrayList<>();
+    private long storedBytes;
+
+    public OffHeapSegmentStore(int chunkBytes) {
+        this.chunkBytes = chunkBytes;
+    }
+
+    @Override
+    public synchronized long append(byte[] encoded) {
+        ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (chunk == null || chunk.remaining() < encoded.length) {
+            chunk = ByteBuffer.allocateDirect(Math.max(chunkBytes, encoded.length));
+            chunks.add(chunk);
+            liveBytes.add(0L);
+        }
+        long address = ((long) (chunks.size() - 1) << 32) | chunk.position();
+        chunk.put(encoded);
+        liveBytes.set(chunks.size() - 1, liveBytes.get(chunks.size() - 1) + encoded.length);
+        storedBytes += encoded.length;
+        return address;
+    }
+
+    @Override
+    public synchronized ByteBuffer read(long address, int length) {
+        ByteBuffer segment = chunks.get((int) (address >>> 32)).duplicate();
+        int offset = (int) address;
+        segment.limit(offset + length).position(offset);
+        return segment.asReadOnlyBuffer();
+    }
+
+    @Override
+    public synchronized void release(long address, int length) {
+        int index = (int) (address >>> 32);
+        long live = liveBytes.get(index) - length;
+        liveBytes.set(index, live);
+        storedBytes -= length;
+        if (live == 0L && index < chunks.size() - 1) {
+            chunks.set(index, null);
+        }
+    }
+
+    @Override
+    public synchronized long storedBytes() {
+        return storedBytes;
+    }
+}
@@ -0,0 +1,21 @@
+package io.hhplus.tdd.repository.history;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 봉인된 히스토리 세그먼트를 보관하는 저장소
+ * 세그먼트는 한 번 쓰면 바뀌지 않으므로 append / read 만 제공하고, 더 이상 읽지 않는 세그먼트는 release 한다.
+ */
+public interface SegmentStore {
+    // 세그먼트를 저장하고 위치(address)를 반환
+    long append(byte[] encoded);
+
+    // 저장된 세그먼트를 읽기 전용 버퍼로 반환 (position ~ limit 이 세그먼트 구간)
+    ByteBuffer read(long address, int length);
+
+    // 더 이상 읽지 않는 세그먼트 반환, 이후 read 는 보장되지 않는다.
+    void release(long address, int length);
+
+    // 보관중인 바이트 수 (release 된 세그먼트 제외)
+    long storedBytes();
+}
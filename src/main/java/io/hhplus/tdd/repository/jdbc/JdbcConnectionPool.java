@@ -0,0 +1,174 @@
+package io.hhplus.tdd.repository.jdbc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * JDBC 저장소용 connection pool
+ *
+ * connection 은 필요할 때 poolSize 개까지 만들고, 반납된 connection 은 다음 요청에 다시 쓴다.
+ * connection 마다 PreparedStatement 를 SQL 별로 캐시하므로 같은 SQL 은 한 번만 준비된다.
+ * 작업 하나가 트랜잭션 하나이며, SQLException 이 나면 rollback 후 해당 connection 은 버린다.
+ *
+ * 메모리 저장소를 쓸 때는 connection 을 만들지 않는다.
+ */
+@Component
+public class JdbcConnectionPool implements AutoCloseable {
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final long acquireTimeoutMillis;
+
+    // 만들 수 있는 connection 수, 빌려간 connection 과 idle connection 을 합쳐서 센다.
+    private final Semaphore permits;
+    private final BlockingQueue<PooledConnection> idle;
+
+    private volatile boolean closed;
+
+    @Autowired
+    public JdbcConnectionPool(@Value("${point.jdbc.url:jdbc:h2:file:./data/point}") String url,
+                              @Value("${point.jdbc.username:sa}") String username,
+                              @Value("${point.jdbc.password:}") String password,
+                              @Value("${point.jdbc.pool-size:16}") int poolSize,
+                              @Value("${point.jdbc.acquire-timeout-millis:5000}") long acquireTimeoutMillis) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("pool-size 는 0 보다 커야 합니다.");
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(poolSize, true);
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * connection 을 빌려 work 를 하나의 트랜잭션으로 실행
+     * work 가 정상 종료하면 commit, 예외가 나면 rollback 한다.
+     */
+    public <T> T execute(SqlWork<T> work) {
+        PooledConnection connection = acquire();
+        boolean healthy = false;
+        try {
+            T result = work.run(connection);
+            connection.connection.commit();
+            healthy = true;
+            return result;
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            throw new IllegalStateException("JDBC 저장소 처리에 실패했습니다: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            // SQL 이 아닌 예외는 connection 이 멀쩡하므로 rollback 후 반납
+            healthy = rollbackQuietly(connection);
+            throw e;
+        } finally {
+            release(connection, healthy);
+        }
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.closeQuietly();
+        }
+    }
+
+    private PooledConnection acquire() {
+        if (closed) {
+            throw new IllegalStateException("connection pool 이 종료되었습니다.");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("connection 을 " + acquireTimeoutMillis + "ms 안에 얻지 못했습니다.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("connection 대기 중 인터럽트되었습니다.", e);
+        }
+
+        PooledConnection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        try {
+            Connection created = DriverManager.getConnection(url, username, password);
+            created.setAutoCommit(false);
+            return new PooledConnection(created);
+        } catch (SQLException e) {
+            permits.release();
+            throw new IllegalStateException("JDBC connection 을 만들지 못했습니다: " + url, e);
+        }
+    }
+
+    private void release(PooledConnection connection, boolean healthy) {
+        if (healthy && !closed) {
+            idle.add(connection);
+        } else {
+            connection.closeQuietly();
+        }
+        permits.release();
+    }
+
+    private static boolean rollbackQuietly(PooledConnection connection) {
+        try {
+            connection.connection.rollback();
+            return true;
+        } catch (SQLException ignored) {
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T run(PooledConnection connection) throws SQLException;
+    }
+
+    // 한 번에 한 스레드만 빌려 쓰므로 statement 캐시는 동기화하지 않는다.
+    public static final class PooledConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        // 캐시된 PreparedStatement, 이전 실행의 파라미터와 batch 는 비워서 반환한다.
+        public PreparedStatement statement(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+                statement.clearBatch();
+            }
+            return statement;
+        }
+
+        private void closeQuietly() {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+
+            }
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package io.hhplus.tdd.repository.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.repository.PointHistoryRepository;
+import io.hhplus.tdd.repository.jdbc.JdbcConnectionPool.PooledConnection;
+
+/**
+ * 내장 DB(H2 file mode) 에 히스토리를 저장하는 repository
+ *
+ * insert 는 group commit 으로 처리한다. 요청을 큐에 넣고 write lock 을 잡았을 때 내 요청이 아직 처리되지 않았으면
+ * 그동안 쌓인 요청을 모두 꺼내 JDBC batch 하나, 트랜잭션 하나로 넣는다.
+ * 동시에 여러 유저가 쓰면 commit 한 번에 여러 건이 들어가므로 유저 수가 늘어도 commit 수는 크게 늘지 않는다.
+ * batch 가 실패하면 한 건씩 다시 넣어 실패한 행의 요청만 실패시킨다. (잔액 원복은 PointService 가 요청 단위로 처리)
+ * import 는 IMPORT_BATCH_ROWS 건씩 모아 넣고, 남은 건은 import 끝에서 flushBulkInserts 로 반영한다.
+ *
+ * id 는 DB 의 identity 대신 직접 발급한다. 덤프의 id 를 그대로 적재해야 하기 때문이며,
+ * write lock 안에서 발급하므로 같은 유저 안에서는 id 가 항상 증가한다.
+ */
+@Repository
+@ConditionalOnProperty(name = "point.history.storage", havingValue = "jdbc")
+public class JdbcPointHistoryRepository implements PointHistoryRepository {
+
+    // group commit 한 번에 넣는 최대 행 수
+    private static final int MAX_BATCH_ROWS = 512;
+    private static final int IMPORT_BATCH_ROWS = 1_000;
+    private static final int SCAN_FETCH_ROWS = 1_000;
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS point_history ("
+            + "id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, amount BIGINT NOT NULL, type VARCHAR(16) NOT NULL, update_millis BIGINT NOT NULL)";
+    private static final String CREATE_INDEX = "CREATE INDEX IF NOT EXISTS point_history_user_idx ON point_history (user_id, id)";
+    private static final String CREATE_ROLLUP_TABLE = "CREATE TABLE IF NOT EXISTS point_history_rollup ("
+            + "user_id BIGINT NOT NULL, epoch_day BIGINT NOT NULL, net_amount BIGINT NOT NULL, charge_count INT NOT NULL, "
+            + "use_count INT NOT NULL, expire_count INT NOT NULL, last_history_id BIGINT NOT NULL, PRIMARY KEY (user_id, epoch_day))";
+    private static final String SELECT_MAX_ID = "SELECT COALESCE(MAX(id), 0) FROM point_history";
+    private static final String SELECT_MAX_ROLLUP_ID = "SELECT COALESCE(MAX(last_history_id), 0) FROM point_history_rollup";
+
+    private static final String INSERT = "INSERT INTO point_history (id, user_id, amount, type, update_millis) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_USER =
+            "SELECT id, amount, type, update_millis FROM point_history WHERE user_id = ? ORDER BY id";
+    private static final String SELECT_ALL = "SELECT id, user_id, amount, type, update_millis FROM point_history ORDER BY id";
+    private static final String SELECT_EXPIRED =
+            "SELECT id, amount, type, update_millis FROM point_history WHERE user_id = ? AND update_millis < ? ORDER BY id";
+    private static final String DELETE_EXPIRED = "DELETE FROM point_history WHERE user_id = ? AND update_millis < ? AND id <= ?";
+
+    private static final String DELETE_BY_USER = "DELETE FROM point_history WHERE user_id = ?";
+    private static final String DELETE_ROLLUPS_BY_USER = "DELETE FROM point_history_rollup WHERE user_id = ?";
+
+    private static final String SELECT_ROLLUP = "SELECT net_amount, charge_count, use_count, expire_count, last_history_id "
+            + "FROM point_history_rollup WHERE user_id = ? AND epoch_day = ?";
+    private static final String UPSERT_ROLLUP = "MERGE INTO point_history_rollup "
+            + "(user_id, epoch_day, net_amount, charge_count, use_count, expire_count, last_history_id) KEY (user_id, epoch_day) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_ROLLUPS_BY_USER = "SELECT epoch_day, net_amount, charge_count, use_count, expire_count, last_history_id "
+            + "FROM point_history_rollup WHERE user_id = ? ORDER BY epoch_day";
+    private static final String SELECT_ALL_ROLLUPS = "SELECT user_id, epoch_day, net_amount, charge_count, use_count, expire_count, last_history_id "
+            + "FROM point_history_rollup ORDER BY user_id, epoch_day";
+
+    private final JdbcConnectionPool connectionPool;
+
+    // 다음에 발급할 id
+    private final AtomicLong cursor;
+
+    private final ConcurrentLinkedQueue<PendingInsert> pendingInserts = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // 아직 DB 에 넣지 않은 import 히스토리
+    private final List<PointHistory> pendingImports = new ArrayList<>();
+
+    @Autowired
+    public JdbcPointHistoryRepository(JdbcConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        long lastId = connectionPool.execute(connection -> {
+            connection.statement(CREATE_TABLE).execute();
+            connection.statement(CREATE_INDEX).execute();
+            connection.statement(CREATE_ROLLUP_TABLE).execute();
+            return Math.max(selectLong(connection.statement(SELECT_MAX_ID)), selectLong(connection.statement(SELECT_MAX_ROLLUP_ID)));
+        });
+        this.cursor = new AtomicLong(lastId + 1);
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PendingInsert pending = new PendingInsert(userId, amount, type, updateMillis);
+        pendingInserts.add(pending);
+
+        writeLock.lock();
+        try {
+            // 한 batch 에 다 들어가지 않았으면 내 요청이 처리될 때까지 이어서 넣는다.
+            while (!pending.done) {
+                writePendingInserts();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (pending.failure != null) {
+            throw pending.failure;
+        }
+        return pending.result;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return connectionPool.execute(connection -> {
+            PreparedStatement statement = connection.statement(SELECT_BY_USER);
+            statement.setLong(1, userId);
+            return readHistories(statement, userId);
+        });
+    }
+
+    // 순회하는 동안 connection 하나를 잡고 있는다.
+    @Override
+    public void forEach(Consumer<PointHistory> action) {
+        connectionPool.execute(connection -> {
+            PreparedStatement statement = connection.statement(SELECT_ALL);
+            statement.setFetchSize(SCAN_FETCH_ROWS);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    action.accept(new PointHistory(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3),
+                            TransactionType.valueOf(resultSet.getString(4)), resultSet.getLong(5)));
+                }
+            }
+            return null;
+        });
+    }
+
+    // 덤프의 id 를 그대로 쓰고, 이후 발급되는 id 는 적재된 id 뒤에서 시작한다.
+    @Override
+    public void bulkInsert(PointHistory pointHistory) {
+        cursor.accumulateAndGet(pointHistory.id() + 1, Math::max);
+        synchronized (pendingImports) {
+            pendingImports.add(pointHistory);
+            if (pendingImports.size() >= IMPORT_BATCH_ROWS) {
+                flushImportsLocked();
+            }
+        }
+    }
+
+    // 접기와 원본 삭제를 한 트랜잭션에서 처리한다.
+    @Override
+    public int compact(long userId, long cutoffMillis, ZoneId zone) {
+        return connectionPool.execute(connection -> {
+            PreparedStatement select = connection.statement(SELECT_EXPIRED);
+            select.setLong(1, userId);
+            select.setLong(2, cutoffMillis);
+            List<PointHistory> expired = readHistories(select, userId);
+            if (expired.isEmpty()) {
+                return 0;
+            }
+
+            TreeMap<Long, PointHistoryRollup> rollups = new TreeMap<>();
+            for (PointHistory row : expired) {
+                long epochDay = Instant.ofEpochMilli(row.updateMillis()).atZone(zone).toLocalDate().toEpochDay();
+                rollups.merge(epochDay, PointHistoryRollup.empty(userId, epochDay).plus(row), PointHistoryRollup::merge);
+            }
+            for (PointHistoryRollup rollup : rollups.values()) {
+                mergeRollup(connection, rollup);
+            }
+
+            // 조회한 뒤에 들어온 행은 지우지 않도록 조회한 마지막 id 까지만 지운다.
+            PreparedStatement delete = connection.statement(DELETE_EXPIRED);
+            delete.setLong(1, userId);
+            delete.setLong(2, cutoffMillis);
+            delete.setLong(3, expired.get(expired.size() - 1).id());
+            return delete.executeUpdate();
+        });
+    }
+
+    @Override
+    public List<PointHistoryRollup> selectRollupsByUserId(long userId) {
+        return connectionPool.execute(connection -> {
+            PreparedStatement statement = connection.statement(SELECT_ROLLUPS_BY_USER);
+            statement.setLong(1, userId);
+            List<PointHistoryRollup> rollups = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rollups.add(new PointHistoryRollup(userId, resultSet.getLong(1), resultSet.getLong(2), resultSet.getInt(3),
+                            resultSet.getInt(4), resultSet.getInt(5), resultSet.getLong(6)));
+                }
+            }
+            return rollups;
+        });
+    }
+
+    @Override
+    public void forEachRollup(Consumer<PointHistoryRollup> action) {
+        connectionPool.execute(connection -> {
+            PreparedStatement statement = connection.statement(SELECT_ALL_ROLLUPS);
+            statement.setFetchSize(SCAN_FETCH_ROWS);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    action.accept(new PointHistoryRollup(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3),
+                            resultSet.getInt(4), resultSet.getInt(5), resultSet.getInt(6), resultSet.getLong(7)));
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void insertRollup(PointHistoryRollup rollup) {
+        cursor.accumulateAndGet(rollup.lastHistoryId() + 1, Math::max);
+        connectionPool.execute(connection -> {
+            mergeRollup(connection, rollup);
+            return null;
+        });
+    }
+
+    // 히스토리와 rollup 을 한 트랜잭션에서 지운다.
+    @Override
+    public void deleteAllByUserId(long userId) {
+        connectionPool.execute(connection -> {
+            PreparedStatement deleteHistories = connection.statement(DELETE_BY_USER);
+            deleteHistories.setLong(1, userId);
+            deleteHistories.executeUpdate();
+            PreparedStatement deleteRollups = connection.statement(DELETE_ROLLUPS_BY_USER);
+            deleteRollups.setLong(1, userId);
+            deleteRollups.executeUpdate();
+            return null;
+        });
+    }
+
+    // write lock 안에서 호출
+    private void writePendingInserts() {
+        List<PendingInsert> batch = new ArrayList<>();
+        for (PendingInsert pending = pendingInserts.poll(); pending != null; pending = pendingInserts.poll()) {
+            batch.add(pending);
+            if (batch.size() >= MAX_BATCH_ROWS) {
+                break;
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<PointHistory> rows = new ArrayList<>(batch.size());
+        for (PendingInsert pending : batch) {
+            rows.add(new PointHistory(cursor.getAndIncrement(), pending.userId, pending.amount, pending.type, pending.updateMillis));
+        }
+        try {
+            insertBatch(rows);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(rows.get(i), null);
+            }
+        } catch (RuntimeException e) {
+            // 한 행 때문에 함께 묶인 다른 유저의 insert 까지 실패하지 않도록 한 건씩 다시 넣고, 실패한 행만 실패 처리한다.
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    insertBatch(List.of(rows.get(i)));
+                    batch.get(i).complete(rows.get(i), null);
+                } catch (RuntimeException rowFailure) {
+                    batch.get(i).complete(null, rowFailure);
+                }
+            }
+        }
+    }
+
+    // 반영에 실패하면 예외를 그대로 던져 import 를 실패시킨다.
+    @Override
+    public void flushBulkInserts() {
+        synchronized (pendingImports) {
+            flushImportsLocked();
+        }
+    }
+
+    private void flushImportsLocked() {
+        if (pendingImports.isEmpty()) {
+            return;
+        }
+        List<PointHistory> batch = List.copyOf(pendingImports);
+        pendingImports.clear();
+        insertBatch(batch);
+    }
+
+    private void insertBatch(List<PointHistory> rows) {
+        connectionPool.execute(connection -> {
+            PreparedStatement statement = connection.statement(INSERT);
+            for (PointHistory row : rows) {
+                statement.setLong(1, row.id());
+                statement.setLong(2, row.userId());
+                statement.setLong(3, row.amount());
+                statement.setString(4, row.type().name());
+                statement.setLong(5, row.updateMillis());
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+    }
+
+    // 같은 날의 rollup 이 있으면 합쳐서 덮어쓴다.
+    private static void mergeRollup(PooledConnection connection, PointHistoryRollup rollup) throws SQLException {
+        PreparedStatement select = connection.statement(SELECT_ROLLUP);
+        select.setLong(1, rollup.userId());
+        select.setLong(2, rollup.epochDay());
+        PointHistoryRollup merged = rollup;
+        try (ResultSet resultSet = select.executeQuery()) {
+            if (resultSet.next()) {
+                merged = new PointHistoryRollup(rollup.userId(), rollup.epochDay(), resultSet.getLong(1), resultSet.getInt(2),
+                        resultSet.getInt(3), resultSet.getInt(4), resultSet.getLong(5)).merge(rollup);
+            }
+        }
+
+        PreparedStatement upsert = connection.statement(UPSERT_ROLLUP);
+        upsert.setLong(1, merged.userId());
+        upsert.setLong(2, merged.epochDay());
+        upsert.setLong(3, merged.netAmount());
+        upsert.setInt(4, merged.chargeCount());
+        upsert.setInt(5, merged.useCount());
+        upsert.setInt(6, merged.expireCount());
+        upsert.setLong(7, merged.lastHistoryId());
+        upsert.executeUpdate();
+    }
+
+    private static List<PointHistory> readHistories(PreparedStatement statement, long userId) throws SQLException {
+        List<PointHistory> histories = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                histories.add(new PointHistory(resultSet.getLong(1), userId, resultSet.getLong(2),
+                        TransactionType.valueOf(resultSet.getString(3)), resultSet.getLong(4)));
+            }
+        }
+        return histories;
+    }
+
+    private static long selectLong(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static final class PendingInsert {
+        private final long userId;
+        private final long amount;
+        private final TransactionType type;
+        private final long updateMillis;
+
+        // write lock 안에서 채우고, 요청 스레드는 같은 lock 을 거친 뒤에 읽는다.
+        private PointHistory result;
+        private RuntimeException failure;
+        private boolean done;
+
+        private PendingInsert(long userId, long amount, TransactionType type, long updateMillis) {
+            this.userId = userId;
+            this.amount = amount;
+            this.type = type;
+            this.updateMillis = updateMillis;
+        }
+
+        private void complete(PointHistory result, RuntimeException failure) {
+            this.result = result;
+            this.failure = failure;
+            this.done = true;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.hhplus.tdd.repository.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.repository.UserPointRepository;
+
+/**
+ * 내장 DB(H2 file mode) 에 유저 포인트를 저장하는 repository
+ *
+ * 잔액 증감은 UPDATE ... SET point = point + ? 한 문장으로 처리하므로
+ * 같은 DB 를 여러 인스턴스가 함께 써도 row lock 으로 잔액이 어긋나지 않는다.
+ * import 는 IMPORT_BATCH_ROWS 건씩 모아 JDBC batch 로 넣고, 남은 건은 import 끝에서 flushBulkInserts 로 반영한다.
+ */
+@Repository
+@ConditionalOnProperty(name = "point.user.storage", havingValue = "jdbc")
+public class JdbcUserPointRepository implements UserPointRepository {
+
+    private static final int IMPORT_BATCH_ROWS = 1_000;
+    private static final int SCAN_FETCH_ROWS = 1_000;
+
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS user_point (id BIGINT PRIMARY KEY, point BIGINT NOT NULL, update_millis BIGINT NOT NULL)";
+    private static final String SELECT_BY_ID = "SELECT point, update_millis FROM user_point WHERE id = ?";
+    private static final String UPSERT = "MERGE INTO user_point (id, point, update_millis) KEY (id) VALUES (?, ?, ?)";
+    private static final String ADD_POINT = "UPDATE user_point SET point = point + ?, update_millis = ? WHERE id = ? AND point + ? >= 0";
+    private static final String SELECT_ALL = "SELECT id, point, update_millis FROM user_point";
+    private static final String INSERT = "INSERT INTO user_point (id, point, update_millis) VALUES (?, ?, ?)";
+
+    private final JdbcConnectionPool connectionPool;
+
+    // 아직 DB 에 넣지 않은 import 유저
+    private final List<UserPoint> pendingImports = new ArrayList<>();
+
+    @Autowired
+    public JdbcUserPointRepository(JdbcConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        connectionPool.execute(connection -> connection.statement(CREATE_TABLE).execute());
+    }
+
+    @Override
+    public UserPoint selectById(Long id) {
+        return connectionPool.execute(connection -> select(connection.statement(SELECT_BY_ID), id));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+        return connectionPool.execute(connection -> {
+            PreparedStatement statement = connection.statement(UPSERT);
+            statement.setLong(1, id);
+            statement.setLong(2, amount);
+            statement.setLong(3, userPoint.updateMillis());
+            statement.executeUpdate();
+            return userPoint;
+        });
+    }
+
+    // 증감과 결과 조회를 한 트랜잭션에서 처리하므로 반환값은 이 증감이 반영된 직후의 잔액
+    @Override
+    public UserPoint addPoint(long id, long current, long delta) {
+        long now = System.currentTimeMillis();
+        return connectionPool.execute(connection -> {
+            PreparedStatement update = connection.statement(ADD_POINT);
+            update.setLong(1, delta);
+            update.setLong(2, now);
+            update.setLong(3, id);
+            update.setLong(4, delta);
+            if (update.executeUpdate() == 0) {
+                return null;
+            }
+            return select(connection.statement(SELECT_BY_ID), id);
+        });
+    }
+
+    // 순회하는 동안 connection 하나를 잡고 있는다.
+    @Override
+    public void forEach(Consumer<UserPoint> action) {
+        connectionPool.execute(connection -> {
+            PreparedStatement statement = connection.statement(SELECT_ALL);
+            statement.setFetchSize(SCAN_FETCH_ROWS);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    action.accept(new UserPoint(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3)));
+                }
+            }
+            return null;
+        });
+    }
+
+    // 이미 있는 유저는 batch 를 반영할 때 PK 충돌로 실패한다.
+    @Override
+    public void bulkInsert(UserPoint userPoint) {
+        synchronized (pendingImports) {
+            pendingImports.add(userPoint);
+            if (pendingImports.size() >= IMPORT_BATCH_ROWS) {
+                flushImportsLocked();
+            }
+        }
+    }
+
+    // 반영에 실패하면 예외를 그대로 던져 import 를 실패시킨다.
+    @Override
+    public void flushBulkInserts() {
+        synchronized (pendingImports) {
+            flushImportsLocked();
+        }
+    }
+
+    private void flushImportsLocked() {
+        if (pendingImports.isEmpty()) {
+            return;
+        }
+        List<UserPoint> batch = List.copyOf(pendingImports);
+        pendingImports.clear();
+        connectionPool.execute(connection -> {
+            PreparedStatement statement = connection.statement(INSERT);
+            for (UserPoint userPoint : batch) {
+                statement.setLong(1, userPoint.id());
+                statement.setLong(2, userPoint.point());
+                statement.setLong(3, userPoint.updateMillis());
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+    }
+
+    private static UserPoint select(PreparedStatement statement, long id) throws SQLException {
+        statement.setLong(1, id);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                return UserPoint.empty(id);
+            }
+            return new UserPoint(id, resultSet.getLong(1), resultSet.getLong(2));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.hhplus.tdd.repository.journal;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * export 용 로컬 파일(UserPointSlotFile, PointHistoryJournal)의 큐를 주기적으로 파일에 반영
+ *
+ * 요청 경로는 큐에 넣기만 하고 파일 쓰기는 이 스레드가 모아서 하므로, 요청마다 파일 I/O 와 파일 lock 을 거치지 않는다.
+ * FileChannel 은 쓰는 도중 interrupt 되면 닫히므로 종료 시 interrupt 하지 않고 진행중인 flush 가 끝나기를 기다린 뒤 마지막으로 한 번 더 반영한다.
+ */
+public final class JournalFlusher implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalFlusher.class);
+
+    private final List<Runnable> flushes;
+    private final ScheduledExecutorService scheduler;
+
+    public JournalFlusher(String name, long intervalMillis, Runnable... flushes) {
+        this.flushes = List.of(flushes);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+    }
+
+    private void flushAll() {
+        for (Runnable flush : flushes) {
+            try {
+                flush.run();
+            } catch (RuntimeException e) {
+                log.warn("journal flush failed - {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.hhplus.tdd.repository.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+/**
+ * 히스토리를 쓴 순서대로 로컬 파일에 이어 쓰는 journal, 힙은 히스토리 수와 관계없이 일정하게 쓴다.
+ *
+ * 행은 고정 길이 (id, userId, amount, updateMillis, type) 라서 순회는 파일을 큰 단위로 읽어 풀기만 한다.
+ * 쓰기가 끝난 뒤에 size 를 늘리므로 순회는 시작 시점의 size 까지만 읽으면 lock 없이도 완성된 행만 본다.
+ *
+ * append 는 메모리 큐에 넣기만 하고, 파일에는 flush (JournalFlusher 의 background 스레드) 가 모아서 한 번에 쓴다.
+ * 순회는 시작 전에 flush 하므로 순회 시작 전에 append 된 행은 모두 포함된다.
+ */
+public final class PointHistoryJournal implements Closeable {
+
+    private static final int RECORD_BYTES = 33;
+    private static final int SCAN_CHUNK_RECORDS = 32 * 1024;
+    private static final int FLUSH_CHUNK_RECORDS = 4 * 1024;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final FileChannel channel;
+    private final Path file;
+    private final ByteBuffer buffer = ByteBuffer.allocate(FLUSH_CHUNK_RECORDS * RECORD_BYTES);
+    private final Queue<PointHistory> pending = new ConcurrentLinkedQueue<>();
+
+    // 다 쓴 행의 바이트 수
+    private volatile long size;
+
+    public PointHistoryJournal(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            this.file = Files.createTempFile(directory, "point-history-", ".journal");
+            file.toFile().deleteOnExit();
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("히스토리 journal 파일을 만들 수 없습니다.", e);
+        }
+    }
+
+    // 파일에 쓰도록 큐에 넣는다. 파일에는 다음 flush 때 append 한 순서대로 반영된다.
+    public void append(PointHistory pointHistory) {
+        pending.add(pointHistory);
+    }
+
+    // 큐에 쌓인 행을 FLUSH_CHUNK_RECORDS 개씩 모아 파일에 쓴다.
+    public synchronized void flush() {
+        while (!pending.isEmpty()) {
+            buffer.clear();
+            for (PointHistory pointHistory = pending.peek(); pointHistory != null && buffer.hasRemaining(); pointHistory = pending.peek()) {
+                buffer.putLong(pointHistory.id())
+                        .putLong(pointHistory.userId())
+                        .putLong(pointHistory.amount())
+                        .putLong(pointHistory.updateMillis())
+                        .put((byte) pointHistory.type().ordinal());
+                pending.poll();
+            }
+            buffer.flip();
+            long position = size;
+            try {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("히스토리 journal 에 쓸 수 없습니다.", e);
+            }
+            size = position;
+        }
+    }
+
+    // 쓴 순서대로 순회, 순회 중 추가된 행은 포함하지 않는다.
+    public void forEach(Consumer<PointHistory> action) {
+        flush();
+        long end = size;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(SCAN_CHUNK_RECORDS * RECORD_BYTES);
+        for (long position = 0; position < end; ) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            try {
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position + buffer.position());
+                    if (read < 0) {
+                        throw new IOException("journal 끝을 넘어 읽었습니다. position=" + position);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("히스토리 journal 을 읽을 수 없습니다.", e);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                long id = buffer.getLong();
+                long userId = buffer.getLong();
+                long amount = buffer.getLong();
+                long updateMillis = buffer.getLong();
+                action.accept(new PointHistory(id, userId, amount, TYPES[buffer.get()], updateMillis));
+            }
+            position += buffer.limit();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0L && pending.isEmpty();
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("히스토리 journal 파일을 닫을 수 없습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package io.hhplus.tdd.repository.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 유저별 최신 포인트를 로컬 파일에 보관, 힙은 유저 수와 관계없이 일정하게 쓴다.
+ *
+ * - data 파일 : 유저마다 slot 하나 (state, id, point, updateMillis), 새 유저는 뒤에 붙이고 기존 유저는 제자리에서 덮어쓴다.
+ * - index 파일 : id -> slot 번호의 open addressing 해시 (id, slot + 1), 0 이면 빈 칸
+ * 순회(export)는 data 파일을 앞에서부터 큰 단위로 읽기만 하므로 index 가 커지며 다시 만들어져도 영향을 받지 않는다.
+ *
+ * table 쓰기 경로는 writeLater 로 메모리 큐에 넣기만 하고, 파일에는 flush (JournalFlusher 의 background 스레드) 가 모아서 쓴다.
+ * 파일 쓰기(flush, write, importIfAbsent)는 한 번에 하나만 진행되고, 덮어쓰는 순간(slot 한 칸, index 교체)만 write lock 을 잡는다.
+ * index 를 키울 때도 새 index 는 lock 없이 만들고 교체만 write lock 안에서 하므로 조회와 순회를 오래 막지 않는다.
+ * 조회와 순회의 한 단위(SCAN_CHUNK_SLOTS)는 read lock 안에서 읽어 덮어쓰는 중인 slot 을 읽지 않는다.
+ */
+public final class UserPointSlotFile implements Closeable {
+
+    public static final byte WRITTEN = 1;
+    public static final byte IMPORTED = 2;
+
+    private static final int SLOT_BYTES = 32;
+    private static final int INDEX_ENTRY_BYTES = 16;
+    private static final int SCAN_CHUNK_SLOTS = 32 * 1024;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+
+    private final Path directory;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object writer = new Object();
+    private final Queue<UserPoint> pending = new ConcurrentLinkedQueue<>();
+    private final FileChannel data;
+    private final Path dataFile;
+    private FileChannel index;
+    private Path indexFile;
+    private long indexCapacity;
+
+    // data 파일의 slot 수, 쓰기는 write lock 안에서만
+    private volatile long slotCount;
+
+    public UserPointSlotFile(Path directory, long expectedUsers) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            this.dataFile = createFile("point-user-", ".slot");
+            this.data = FileChannel.open(dataFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("유저 포인트 파일을 만들 수 없습니다.", e);
+        }
+        openIndex(capacityFor(expectedUsers));
+    }
+
+    // 저장된 유저가 import 로 적재된 유저이면 그 값을, 아니면 null
+    public UserPoint imported(long id) {
+        lock.readLock().lock();
+        try {
+            long slot = findSlot(id);
+            if (slot < 0) {
+                return null;
+            }
+            ByteBuffer buffer = read(data, slot * SLOT_BYTES, SLOT_BYTES);
+            return buffer.get(0) == IMPORTED ? decode(buffer, 0) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // table 에 쓴 유저의 최신 값을 파일에 쓰도록 큐에 넣는다. 파일에는 다음 flush 때 쓴 순서대로 반영된다.
+    public void writeLater(UserPoint userPoint) {
+        pending.add(userPoint);
+    }
+
+    // table 에 쓴 유저의 최신 값을 바로 기록, import 로 적재된 값이 있으면 덮어쓴다. 큐에 남은 값을 먼저 반영해 순서를 지킨다.
+    public void write(UserPoint userPoint) {
+        synchronized (writer) {
+            drainPending();
+            put(userPoint, WRITTEN);
+        }
+    }
+
+    // 큐에 쌓인 값을 파일에 반영
+    public void flush() {
+        synchronized (writer) {
+            drainPending();
+        }
+    }
+
+    // import 로 적재, table 에 쓴 적 있는 유저이면 적재하지 않고 false
+    public boolean importIfAbsent(UserPoint userPoint) {
+        synchronized (writer) {
+            drainPending();
+            long slot = findSlot(userPoint.id());
+            if (slot >= 0 && read(data, slot * SLOT_BYTES, 1).get(0) == WRITTEN) {
+                return false;
+            }
+            put(userPoint, IMPORTED);
+            return true;
+        }
+    }
+
+    // 저장된 모든 유저 순회, 시작 전까지 큐에 들어온 값은 반영하고 순회 중 추가된 유저는 포함될 수도 안 될 수도 있다.
+    public void forEach(Consumer<UserPoint> action) {
+        flush();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(SCAN_CHUNK_SLOTS * SLOT_BYTES);
+        List<UserPoint> chunk = new ArrayList<>(SCAN_CHUNK_SLOTS);
+        for (long from = 0; from < slotCount; from += SCAN_CHUNK_SLOTS) {
+            chunk.clear();
+            lock.readLock().lock();
+            try {
+                int count = (int) Math.min(SCAN_CHUNK_SLOTS, slotCount - from);
+                buffer.clear().limit(count * SLOT_BYTES);
+                readFully(data, buffer, from * SLOT_BYTES);
+                for (int i = 0; i < count; i++) {
+                    chunk.add(decode(buffer, i * SLOT_BYTES));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            chunk.forEach(action);
+        }
+    }
+
+    public long size() {
+        return slotCount;
+    }
+
+    @Override
+    public void close() {
+        flush();
+        lock.writeLock().lock();
+        try {
+            data.close();
+            index.close();
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(indexFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("유저 포인트 파일을 닫을 수 없습니다.", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // writer 안에서 호출
+    private void drainPending() {
+        for (UserPoint userPoint = pending.poll(); userPoint != null; userPoint = pending.poll()) {
+            put(userPoint, WRITTEN);
+        }
+    }
+
+    // writer 안에서 호출, 다른 쓰기가 없으므로 index 조회는 lock 없이 하고 덮어쓰는 동안만 write lock 을 잡는다.
+    private void put(UserPoint userPoint, byte state) {
+        long slot = findSlot(userPoint.id());
+        if (slot < 0 && slotCount + 1 > indexCapacity * MAX_LOAD_FACTOR) {
+            growIndex();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(SLOT_BYTES);
+        buffer.put(0, state).putLong(8, userPoint.id()).putLong(16, userPoint.point()).putLong(24, userPoint.updateMillis());
+        lock.writeLock().lock();
+        try {
+            if (slot < 0) {
+                slot = slotCount;
+                insertIndex(index, indexCapacity, userPoint.id(), slot);
+            }
+            writeFully(data, buffer, slot * SLOT_BYTES);
+            if (slot == slotCount) {
+                slotCount = slot + 1;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // lock 또는 writer 안에서 호출, 없으면 -1
+    private long findSlot(long id) {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        for (long position = hash(id) & (indexCapacity - 1); ; position = (position + 1) & (indexCapacity - 1)) {
+            entry.clear();
+            readFully(index, entry, position * INDEX_ENTRY_BYTES);
+            long slot = entry.getLong(8) - 1;
+            if (slot < 0) {
+                return -1;
+            }
+            if (entry.getLong(0) == id) {
+                return slot;
+            }
+        }
+    }
+
+    private static void insertIndex(FileChannel index, long capacity, long id, long slot) {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        for (long position = hash(id) & (capacity - 1); ; position = (position + 1) & (capacity - 1)) {
+            entry.clear();
+            readFully(index, entry, position * INDEX_ENTRY_BYTES);
+            if (entry.getLong(8) == 0L) {
+                entry.clear();
+                entry.putLong(0, id).putLong(8, slot + 1);
+                writeFully(index, entry, position * INDEX_ENTRY_BYTES);
+                return;
+            }
+        }
+    }
+
+    /**
+     * writer 안에서 호출, data 파일을 순서대로 읽어 두 배 크기의 index 를 새로 만든다.
+     * 쓰기는 writer 로 막혀 있어 data 파일이 바뀌지 않으므로 새 index 는 lock 없이 만들고, 조회는 그동안 기존 index 를 쓴다.
+     */
+    private void growIndex() {
+        long capacity = indexCapacity * 2;
+        Path nextFile = createIndexFile();
+        FileChannel next = openIndex(nextFile, capacity);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(SCAN_CHUNK_SLOTS * SLOT_BYTES);
+        for (long from = 0; from < slotCount; from += SCAN_CHUNK_SLOTS) {
+            int count = (int) Math.min(SCAN_CHUNK_SLOTS, slotCount - from);
+            buffer.clear().limit(count * SLOT_BYTES);
+            readFully(data, buffer, from * SLOT_BYTES);
+            for (int i = 0; i < count; i++) {
+                insertIndex(next, capacity, buffer.getLong(i * SLOT_BYTES + 8), from + i);
+            }
+        }
+
+        FileChannel previous = index;
+        Path previousFile = indexFile;
+        lock.writeLock().lock();
+        try {
+            this.index = next;
+            this.indexFile = nextFile;
+            this.indexCapacity = capacity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            previous.close();
+            Files.deleteIfExists(previousFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("유저 포인트 index 파일을 정리할 수 없습니다.", e);
+        }
+    }
+
+    private void openIndex(long capacity) {
+        this.indexFile = createIndexFile();
+        this.index = openIndex(indexFile, capacity);
+        this.indexCapacity = capacity;
+    }
+
+    private Path createIndexFile() {
+        try {
+            return createFile("point-user-", ".index");
+        } catch (IOException e) {
+            throw new UncheckedIOException("유저 포인트 index 파일을 만들 수 없습니다.", e);
+        }
+    }
+
+    // 파일 크기만 잡아 두므로 (sparse) 실제로 쓴 칸만 디스크를 차지하고, 쓰지 않은 칸은 0 으로 읽힌다.
+    private static FileChannel openIndex(Path file, long capacity) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.write(ByteBuffer.allocate(1), capacity * INDEX_ENTRY_BYTES - 1);
+            return channel;
+        } catch (IOException e) {
+            throw new UncheckedIOException("유저 포인트 index 파일을 만들 수 없습니다.", e);
+        }
+    }
+
+    private Path createFile(String prefix, String suffix) throws IOException {
+        Path file = Files.createTempFile(directory, prefix, suffix);
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    private static UserPoint decode(ByteBuffer buffer, int offset) {
+        return new UserPoint(buffer.getLong(offset + 8), buffer.getLong(offset + 16), buffer.getLong(offset + 24));
+    }
+
+    private static long capacityFor(long expectedUsers) {
+        long needed = (long) Math.ceil(Math.max(16L, expectedUsers) / MAX_LOAD_FACTOR);
+        return Long.highestOneBit(needed - 1) << 1;
+    }
+
+    private static long hash(long id) {
+        long h = id * 0x9e3779b97f4a7c15L;
+        return h ^ (h >>> 32);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(channel, buffer, position);
+        return buffer;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) {
+        try {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("파일 끝을 넘어 읽었습니다. position=" + position);
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("유저 포인트 파일을 읽을 수 없습니다.", e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) {
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("유저 포인트 파일에 쓸 수 없습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.hhplus.tdd.repository.membership;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * long key 의 Bloom filter
+ *
+ * key 마다 hashCount 개의 bit 를 켜고, 조회 시 하나라도 꺼져 있으면 "넣은 적 없음"이 확실하다.
+ * 모두 켜져 있으면 넣었을 가능성이 있다는 뜻이며 오탐 비율은 생성 시 지정한 비율 근처로 유지된다.
+ * (예상 개수를 넘겨 넣으면 오탐 비율이 올라간다.)
+ * 삭제는 지원하지 않고, bit 는 AtomicLongArray 로 lock 없이 켠다.
+ */
+public final class LongBloomFilter {
+
+    private static final long SEED1 = 0x9e3779b97f4a7c15L;
+    private static final long SEED2 = 0xc2b2ae3d27d4eb4fL;
+
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLongArray words;
+
+    private LongBloomFilter(long bitSize, int hashCount) {
+        this.bitSize = bitSize;
+        this.hashCount = hashCount;
+        this.words = new AtomicLongArray(Math.toIntExact(bitSize / Long.SIZE));
+    }
+
+    /**
+     * @param expectedInsertions 넣을 것으로 예상하는 key 수
+     * @param falsePositiveRate  expectedInsertions 개를 넣었을 때의 오탐 비율 (0 ~ 1)
+     */
+    public static LongBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions 는 0 보다 커야 합니다.");
+        }
+        if (!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0)) {
+            throw new IllegalArgumentException("falsePositiveRate 는 0 과 1 사이여야 합니다.");
+        }
+        // m = -n ln p / (ln 2)^2, k = m / n * ln 2
+        double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long bitSize = Math.max(Long.SIZE, ((long) Math.ceil(bits) + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+        int hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        return new LongBloomFilter(bitSize, hashCount);
+    }
+
+    public void put(long key) {
+        long h1 = mix(key ^ SEED1);
+        long h2 = mix(key ^ SEED2) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            // 이미 켜진 bit 는 쓰지 않아서 자주 쓰이는 key 가 같은 word 를 두고 경합하지 않도록 한다.
+            if ((words.get(index) & mask) == 0) {
+                words.getAndAccumulate(index, mask, (word, m) -> word | m);
+            }
+        }
+    }
+
+    // false 이면 put 된 적 없는 key
+    public boolean mightContain(long key) {
+        long h1 = mix(key ^ SEED1);
+        long h2 = mix(key ^ SEED2) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,116 @@
+package io.hhplus.tdd.point.binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointBinaryFormatTest {
+
+    // 포인트 바이너리 변환 후 다시 읽으면 같은 값이어야 함
+    @Test
+    void userPointRoundTripTest() throws IOException {
+        UserPoint userPoint = new UserPoint(12_345L, 1_000_000L, System.currentTimeMillis());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PointBinaryWriter(out).writeUserPoint(userPoint);
+
+        assertEquals(userPoint, PointBinaryReader.readUserPoint(out.toByteArray()));
+    }
+
+    // 히스토리 목록은 varint / delta 모두 같은 값으로 읽혀야 하고, delta 가 더 작아야 함
+    @Test
+    void historiesRoundTripTest() throws IOException {
+        List<PointHistory> histories = histories(1_000);
+
+        byte[] varint = varint(histories);
+        byte[] delta = delta(histories);
+
+        assertEquals(histories, PointBinaryReader.readHistories(varint));
+        assertEquals(histories, PointBinaryReader.readHistories(delta));
+        assertTrue(delta.length < varint.length);
+    }
+
+    /**
+     * JSON 대비 바이너리 응답 크기 / 직렬화 시간 비교
+     * 히스토리 1,000건 응답을 반복 직렬화해서 건당 byte 와 평균 시간을 출력한다.
+     */
+    @Test
+    void binaryVersusJsonBenchmarkTest() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<PointHistory> histories = histories(1_000);
+        int iterations = 2_000;
+
+        // JIT warm-up
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.writeValueAsBytes(histories);
+            varint(histories);
+            delta(histories);
+        }
+
+        long jsonNanos = 0L;
+        long varintNanos = 0L;
+        long deltaNanos = 0L;
+        int jsonBytes = 0;
+        int varintBytes = 0;
+        int deltaBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            jsonBytes = objectMapper.writeValueAsBytes(histories).length;
+            jsonNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            varintBytes = varint(histories).length;
+            varintNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            deltaBytes = delta(histories).length;
+            deltaNanos += System.nanoTime() - start;
+        }
+
+        System.out.printf("json   >> %6d bytes, %8.1f us%n", jsonBytes, jsonNanos / 1_000.0 / iterations);
+        System.out.printf("varint >> %6d bytes, %8.1f us%n", varintBytes, varintNanos / 1_000.0 / iterations);
+        System.out.printf("delta  >> %6d bytes, %8.1f us%n", deltaBytes, deltaNanos / 1_000.0 / iterations);
+
+        assertTrue(varintBytes * 3 < jsonBytes);
+        assertTrue(deltaBytes * 5 < jsonBytes);
+    }
+
+    private static byte[] varint(List<PointHistory> histories) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PointBinaryWriter(out).writeHistories(histories);
+        return out.toByteArray();
+    }
+
+    private static byte[] delta(List<PointHistory> histories) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PointBinaryWriter(out).writeHistoriesDelta(histories);
+        return out.toByteArray();
+    }
+
+    // 한 유저의 히스토리처럼 id / 시각이 증가하는 목록
+    private static List<PointHistory> histories(int count) {
+        Random random = new Random(1);
+        List<PointHistory> histories = new ArrayList<>(count);
+        long id = 1_000_000L;
+        long millis = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            id += 1 + random.nextInt(50);
+            millis += random.nextInt(60_000);
+            TransactionType type = random.nextBoolean() ? TransactionType.CHARGE : TransactionType.USE;
+            histories.add(new PointHistory(id, 42L, 100L * (1 + random.nextInt(100)), type, millis));
+        }
+        return histories;
+    }
+}
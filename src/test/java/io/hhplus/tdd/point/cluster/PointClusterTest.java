@@ -0,0 +1,250 @@
+package io.hhplus.tdd.point.cluster;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.hhplus.tdd.TddApplication;
+import io.hhplus.tdd.repository.UserPointRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointClusterTest {
+
+    private static final int USER_COUNT = 32;
+    private static final int CLIENT_THREADS = 32;
+    private static final long MEASURE_MILLIS = 5_000L;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    // 같은 노드 구성이면 어떤 ring 에서 조회해도 같은 담당 노드가 나와야 함
+    @Test
+    void ringOwnerIsDeterministicTest() {
+        ConsistentHashRing ring1 = new ConsistentHashRing(160);
+        ConsistentHashRing ring2 = new ConsistentHashRing(160);
+        for (int i = 0; i < 4; i++) {
+            ring1.addNode(new ClusterNode("node" + i, "http://localhost:" + (8080 + i)));
+        }
+        for (int i = 3; i >= 0; i--) {
+            ring2.addNode(new ClusterNode("node" + i, "http://localhost:" + (8080 + i)));
+        }
+
+        for (long userId = 1; userId <= 10_000; userId++) {
+            assertEquals(ring1.ownerOf(userId), ring2.ownerOf(userId));
+        }
+    }
+
+    // 노드 추가 시 새 노드로 옮겨가는 유저만 담당이 바뀌고, 그 비율은 약 1/N 이어야 함
+    @Test
+    void ringRebalanceMovesOnlyNewNodeShareTest() {
+        int userCount = 100_000;
+        ConsistentHashRing ring = new ConsistentHashRing(160);
+        for (int i = 0; i < 3; i++) {
+            ring.addNode(new ClusterNode("node" + i, "http://localhost:" + (8080 + i)));
+        }
+
+        String[] before = new String[userCount];
+        for (int userId = 0; userId < userCount; userId++) {
+            before[userId] = ring.ownerOf(userId).nodeId();
+        }
+
+        ring.addNode(new ClusterNode("node3", "http://localhost:8083"));
+
+        int moved = 0;
+        for (int userId = 0; userId < userCount; userId++) {
+            String after = ring.ownerOf(userId).nodeId();
+            if (!after.equals(before[userId])) {
+                // 옮겨간 유저는 모두 새 노드로 가야 함
+                assertEquals("node3", after);
+                moved++;
+            }
+        }
+
+        double movedRatio = (double) moved / userCount;
+        System.out.printf("moved ratio >> %.3f%n", movedRatio);
+        assertTrue(movedRatio > 0.15 && movedRatio < 0.35);
+    }
+
+    /**
+     * 노드 수를 1 -> 2 -> 4 로 늘려가며 charge 처리량을 측정
+     * 각 노드는 localhost 의 서로 다른 포트에 뜬 in-process 인스턴스이고,
+     * 클라이언트는 임의의 노드로 요청하므로 절반 이상은 forward 를 거친다.
+     * 실행 환경의 코어 수에 따라 결과가 달라지므로 performance 태그로 분리한다.
+     */
+    @Test
+    @Tag("performance")
+    void clusterThroughputTest() throws Exception {
+        Map<Integer, Double> throughputs = new HashMap<>();
+        for (int nodeCount : new int[] {1, 2, 4}) {
+            throughputs.put(nodeCount, measureThroughput(nodeCount));
+            System.out.printf("nodes=%d throughput >> %.1f ops/s%n", nodeCount, throughputs.get(nodeCount));
+        }
+
+        assertTrue(throughputs.get(4) > throughputs.get(1) * 2);
+    }
+
+    private double measureThroughput(int nodeCount) throws Exception {
+        List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+        List<String> urls = new ArrayList<>();
+        try {
+            for (int i = 0; i < nodeCount; i++) {
+                startNode(i, i == 0 ? "" : urls.get(0), contexts, urls);
+            }
+
+            // 모든 노드가 같은 멤버 목록을 가져야 함
+            for (ConfigurableApplicationContext context : contexts) {
+                assertEquals(nodeCount, context.getBean(PointClusterRouter.class).members().size());
+            }
+
+            seedUsers(contexts);
+
+            // 측정 시간 동안 임의의 노드로 임의 유저 charge 요청
+            LongAdder completed = new LongAdder();
+            long deadline = System.currentTimeMillis() + MEASURE_MILLIS;
+            ExecutorService executorService = Executors.newFixedThreadPool(CLIENT_THREADS);
+            for (int i = 0; i < CLIENT_THREADS; i++) {
+                executorService.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.currentTimeMillis() < deadline) {
+                        String url = urls.get(random.nextInt(urls.size()));
+                        long userId = 1 + random.nextInt(USER_COUNT);
+                        if (charge(url, userId, 1L) == 200) {
+                            completed.increment();
+                        }
+                    }
+                    return null;
+                });
+            }
+            executorService.shutdown();
+            assertTrue(executorService.awaitTermination(MEASURE_MILLIS + 30_000L, TimeUnit.MILLISECONDS));
+
+            // 어느 노드로 조회해도 담당 노드와 같은 결과가 나와야 함
+            for (long userId = 1; userId <= 4; userId++) {
+                Set<String> bodies = new HashSet<>();
+                for (String url : urls) {
+                    bodies.add(get(url + "/point/" + userId).replaceAll("\"updateMillis\":\\d+", ""));
+                }
+                assertEquals(1, bodies.size());
+            }
+
+            return completed.sum() * 1000.0 / MEASURE_MILLIS;
+        } finally {
+            contexts.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    /**
+     * 노드가 join 하기 전에 쓰인 유저도 새 담당 노드로 넘어가야 함
+     * 첫 노드에서 충전/사용한 유저들이 두 번째 노드가 join 한 뒤 새 담당 노드에서 같은 잔액과 히스토리로 조회되고,
+     * 이전 노드에는 남지 않아야 함
+     */
+    @Test
+    void usersWrittenBeforeJoinAreHandedOffTest() throws Exception {
+        List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+        List<String> urls = new ArrayList<>();
+        try {
+            startNode(0, "", contexts, urls);
+            UserPointRepository firstRepository = contexts.get(0).getBean(UserPointRepository.class);
+            for (long userId = 1; userId <= USER_COUNT; userId++) {
+                firstRepository.insertOrUpdate(userId, 1_000L);
+                assertEquals(200, charge(urls.get(0), userId, userId));
+            }
+
+            startNode(1, urls.get(0), contexts, urls);
+            PointClusterRouter router = contexts.get(1).getBean(PointClusterRouter.class);
+            int movedUsers = 0;
+            for (long userId = 1; userId <= USER_COUNT; userId++) {
+                String expectedPoint = "\"point\":" + (1_000L + userId);
+                String expectedHistory = "\"amount\":" + userId;
+                // 어느 노드로 조회해도 담당 노드의 잔액과 히스토리가 보여야 함
+                for (String url : urls) {
+                    assertTrue(get(url + "/point/" + userId).contains(expectedPoint));
+                    assertTrue(get(url + "/point/" + userId + "/histories").contains(expectedHistory));
+                }
+                if (router.ownerOf(userId).nodeId().equals("node1")) {
+                    movedUsers++;
+                    assertEquals(0L, firstRepository.selectById(userId).point());
+                    assertEquals(1_000L + userId, contexts.get(1).getBean(UserPointRepository.class).selectById(userId).point());
+                }
+            }
+            assertTrue(movedUsers > 0);
+        } finally {
+            contexts.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    // in-process 노드 기동, seedUrl 이 비어 있으면 첫 노드
+    private void startNode(int index, String seedUrl, List<ConfigurableApplicationContext> contexts, List<String> urls) throws IOException {
+        int port = freePort();
+        String url = "http://localhost:" + port;
+        contexts.add(new SpringApplicationBuilder(TddApplication.class)
+                .properties(
+                        "server.port=" + port,
+                        "point.cluster.enabled=true",
+                        "point.cluster.self-id=node" + index,
+                        "point.cluster.self-url=" + url,
+                        "point.cluster.seeds=" + seedUrl,
+                        "point.cluster.secret=cluster-test-secret",
+                        // 소수 유저에 요청을 몰아서 처리량을 재므로 요청 제한은 끈다.
+                        "point.rate-limit.enabled=false"
+                )
+                .run());
+        urls.add(url);
+    }
+
+    // 유저가 있어야 충전이 가능하므로 담당 노드의 repository 에 직접 유저를 만들어 둔다.
+    private void seedUsers(List<ConfigurableApplicationContext> contexts) throws InterruptedException {
+        PointClusterRouter router = contexts.get(0).getBean(PointClusterRouter.class);
+        ExecutorService executorService = Executors.newFixedThreadPool(USER_COUNT);
+        for (long userId = 1; userId <= USER_COUNT; userId++) {
+            long id = userId;
+            int owner = Integer.parseInt(router.ownerOf(id).nodeId().substring("node".length()));
+            executorService.submit(() -> contexts.get(owner).getBean(UserPointRepository.class).insertOrUpdate(id, 1_000L));
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private int charge(String url, long userId, long amount) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/point/" + userId + "/charge"))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"amount\": " + amount + "}"))
+                    .build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException | InterruptedException e) {
+            return -1;
+        }
+    }
+
+    private String get(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
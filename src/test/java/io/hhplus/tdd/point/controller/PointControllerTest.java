@@ -15,20 +15,38 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import io.hhplus.tdd.point.PointHistory;
 import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.TransferResult;
 import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.binary.PointBinaryFormat;
+import io.hhplus.tdd.point.binary.PointBinaryHttpMessageConverter;
+import io.hhplus.tdd.point.binary.PointBinaryReader;
+import io.hhplus.tdd.point.cluster.ForwardedRead;
+import io.hhplus.tdd.point.cluster.PointClusterRouter;
+import io.hhplus.tdd.point.ratelimit.UserRateLimiter;
+import io.hhplus.tdd.point.readmodel.ReadConsistency;
+import io.hhplus.tdd.point.readmodel.UserPointView;
 import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.trace.RequestTracer;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -41,6 +59,16 @@ public class PointControllerTest {
     @MockBean
     private PointService pointService;
 
+    // WebMvcTest 컨텍스트에서 PointController, WebConfig 생성에 필요
+    @MockBean
+    private PointClusterRouter pointClusterRouter;
+
+    @MockBean
+    private RequestTracer requestTracer;
+
+    @MockBean
+    private UserRateLimiter userRateLimiter;
+
     @BeforeEach
     void setUp() {
         // MockMvc를 설정하는 부분
@@ -56,8 +84,8 @@ public class PointControllerTest {
         // 기본 세팅, User 임의 생성
         UserPoint userPoint = new UserPoint(1L, 100L, System.currentTimeMillis());
 
-        // 서비스의 getUserPoint 메서드를 모킹하여 userPoint를 반환하도록 설정
-        when(pointService.getUserPoint(anyLong())).thenReturn(userPoint);
+        // 서비스의 getUserPointView 메서드를 모킹하여 userPoint를 담은 view를 반환하도록 설정
+        when(pointService.getUserPointView(anyLong(), any(ReadConsistency.class))).thenReturn(UserPointView.detached(userPoint, List.of(), List.of()));
 
         // 테스트 수행 및 결과 검증
         // 1번 유저에 대한 테스트를 진행
@@ -85,8 +113,9 @@ public class PointControllerTest {
                 new PointHistory(5L, 1L, 100L, TransactionType.CHARGE, System.currentTimeMillis())
         );
 
-        // 서비스의 getPointHistories 메서드를 모킹하여 pointHistories를 반환하도록 설정
-        when(pointService.getPointHistories(anyLong())).thenReturn(pointHistories);
+        // 서비스의 getPointHistoryView 메서드를 모킹하여 pointHistories를 담은 view를 반환하도록 설정
+        when(pointService.getPointHistoryView(anyLong(), any(ReadConsistency.class)))
+                .thenReturn(UserPointView.detached(new UserPoint(1L, 100L, System.currentTimeMillis()), pointHistories, List.of()));
 
         // 테스트 수행 및 결과 검증
         // 1번 유저의 포인트 이력이 5개인지 확인
@@ -96,6 +125,113 @@ public class PointControllerTest {
                 .andExpect(jsonPath("$.length()", is(5)));
     }
 
+    /**
+     * 조건부 조회 테스트
+     * 응답의 ETag 를 If-None-Match 로 다시 보내면 변경이 없으므로 본문 없이 304 를 응답해야 함
+     * @throws Exception
+     */
+    @Test
+    void getUserPointNotModifiedTest() throws Exception {
+        UserPointView view = UserPointView.detached(new UserPoint(1L, 100L, 1_000L),
+                List.of(new PointHistory(5L, 1L, 100L, TransactionType.CHARGE, 1_000L)), List.of());
+        when(pointService.getUserPointView(anyLong(), any(ReadConsistency.class))).thenReturn(view);
+        when(pointService.getPointHistoryView(anyLong(), any(ReadConsistency.class))).thenReturn(view);
+
+        // 체크사항 >> 첫 조회는 status 200 과, 본문과 같은 view 에서 만든 ETag
+        mockMvc.perform(get("/point/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1000-5-1\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(jsonPath("$.point").value(100));
+
+        // 체크사항 >> 같은 ETag 로 다시 조회하면 status 304, 본문 없음, 바이너리 표현과 구분되도록 Vary: Accept
+        mockMvc.perform(get("/point/1").header("If-None-Match", "\"1000-5-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/point/1/histories").header("If-None-Match", "W/\"1000-5-1\""))
+                .andExpect(status().isNotModified());
+
+        // 체크사항 >> ETag 가 다르면 status 200
+        mockMvc.perform(get("/point/1").header("If-None-Match", "\"999-4-1\""))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * 다른 노드 담당 유저 조건부 조회 테스트
+     * If-None-Match 를 담당 노드에 넘기고, 담당 노드의 ETag 와 304 를 그대로 응답해야 함
+     * @throws Exception
+     */
+    @Test
+    void forwardedNotModifiedTest() throws Exception {
+        MockMvc clusterMockMvc = MockMvcBuilders.standaloneSetup(new PointController(pointService, pointClusterRouter)).build();
+        when(pointClusterRouter.shouldForward(eq(2L), any())).thenReturn(true);
+        when(pointClusterRouter.forwardGetPoint(eq(2L), any(ReadConsistency.class), eq("\"1000-5-1\"")))
+                .thenReturn(new ForwardedRead<>(true, "\"1000-5-1\"", null));
+        when(pointClusterRouter.forwardGetHistories(eq(2L), any(ReadConsistency.class), eq("\"999-4-1\"")))
+                .thenReturn(new ForwardedRead<>(false, "\"1000-5-1\"", List.of(new PointHistory(5L, 2L, 100L, TransactionType.CHARGE, 1_000L))));
+
+        // 체크사항 >> 담당 노드가 304 를 응답하면 status 304 와 담당 노드의 ETag
+        clusterMockMvc.perform(get("/point/2").header("If-None-Match", "\"1000-5-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1000-5-1\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(content().string(""));
+
+        // 체크사항 >> 변경이 있으면 status 200 과 담당 노드의 ETag, 본문
+        clusterMockMvc.perform(get("/point/2/histories").header("If-None-Match", "\"999-4-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1000-5-1\""))
+                .andExpect(jsonPath("$.length()", is(1)));
+    }
+
+    /**
+     * 없는 유저 조건부 조회 테스트
+     * If-None-Match: * 를 보내도 없는 유저는 304 가 아니라 조회 실패로 응답해야 함
+     * @throws Exception
+     */
+    @Test
+    void getUnknownUserIfNoneMatchTest() throws Exception {
+        when(pointService.getUserPointView(anyLong(), any(ReadConsistency.class)))
+                .thenThrow(new CustomException("아이디가 [9]에 해당하는 유저는 존재하지 않습니다."));
+
+        // standalone MockMvc 는 advice 없이 예외를 그대로 던진다.
+        Exception exception = assertThrows(Exception.class, () -> mockMvc.perform(get("/point/9").header("If-None-Match", "*")));
+        assertInstanceOf(CustomException.class, exception.getCause());
+    }
+
+    /**
+     * 유저 포인트 히스토리 바이너리 조회 테스트
+     * Accept 헤더에 바이너리 타입을 지정하면 바이너리로 응답해야 함
+     * @throws Exception
+     */
+    @Test
+    void getPointHistoriesBinaryTest() throws Exception {
+        List<PointHistory> pointHistories = List.of(
+                new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, System.currentTimeMillis()),
+                new PointHistory(2L, 1L, 50L, TransactionType.USE, System.currentTimeMillis())
+        );
+        when(pointService.getPointHistoryView(anyLong(), any(ReadConsistency.class)))
+                .thenReturn(UserPointView.detached(new UserPoint(1L, 50L, System.currentTimeMillis()), pointHistories, List.of()));
+
+        MockMvc binaryMockMvc = MockMvcBuilders.standaloneSetup(new PointController(pointService))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(), new PointBinaryHttpMessageConverter())
+                .build();
+
+        for (String mediaType : List.of(PointBinaryFormat.VARINT_VALUE, PointBinaryFormat.DELTA_VALUE)) {
+            MvcResult mvcResult = binaryMockMvc.perform(get("/point/1/histories").accept(mediaType))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            assertEquals(pointHistories, PointBinaryReader.readHistories(mvcResult.getResponse().getContentAsByteArray()));
+        }
+
+        // Accept 를 지정하지 않으면 기존처럼 JSON
+        binaryMockMvc.perform(get("/point/1/histories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)));
+    }
+
     /**
      * 유저 포인트 충전 테스트
      * @throws Exception
@@ -106,7 +242,7 @@ public class PointControllerTest {
         UserPoint userPoint = new UserPoint(1L, 200L, System.currentTimeMillis());
 
         // 서비스의 chargePoints 메서드를 모킹하여 userPoint를 반환하도록 설정
-        when(pointService.chargePoints(anyLong(), anyLong())).thenReturn(userPoint);
+        when(pointService.chargePoints(anyLong(), anyLong(), anyLong())).thenReturn(userPoint);
 
         // 테스트 수행 및 결과 검증
         // 1번 유저의 포인트 충전
@@ -142,6 +278,31 @@ public class PointControllerTest {
                 .andExpect(jsonPath("$.point", is(0)));
     }
 
+    /**
+     * 유저 포인트 이체 테스트
+     * @throws Exception
+     */
+    @Test
+    void transferPointsTest() throws Exception {
+        // 기본 세팅, 1번 유저가 2번 유저에게 100포인트 이체한 결과
+        TransferResult transferResult = new TransferResult(
+                new UserPoint(1L, 100L, System.currentTimeMillis()),
+                new UserPoint(2L, 300L, System.currentTimeMillis())
+        );
+
+        when(pointService.transferPoints(eq(1L), eq(2L), eq(100L))).thenReturn(transferResult);
+
+        // 체크사항 >> status 200, 보낸 유저 point 100, 받은 유저 point 300
+        mockMvc.perform(patch("/point/1/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toUserId\": 2, \"amount\": 100}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from.id", is(1)))
+                .andExpect(jsonPath("$.from.point", is(100)))
+                .andExpect(jsonPath("$.to.id", is(2)))
+                .andExpect(jsonPath("$.to.point", is(300)));
+    }
+
     /**
      * 유저 포인트 충전 동시성 테스트
      * fail test
@@ -156,7 +317,7 @@ public class PointControllerTest {
         UserPoint userPoint = new UserPoint(1L, 0L, System.currentTimeMillis());
 
         // 서비스의 chargePoints 메서드를 모킹하여 예외를 던지도록 설정
-        when(pointService.chargePoints(anyLong(), anyLong())).thenThrow(new CustomException("0포인트 이하는 충전 할 수 없습니다."));
+        when(pointService.chargePoints(anyLong(), anyLong(), anyLong())).thenThrow(new CustomException("0포인트 이하는 충전 할 수 없습니다."));
 
         int threadCount = 10;
 
@@ -238,7 +399,7 @@ public class PointControllerTest {
         UserPoint userPoint = new UserPoint(1L, 200L, System.currentTimeMillis());
 
         // 서비스의 chargePoints 메서드를 모킹하여 userPoint를 반환하도록 설정
-        when(pointService.chargePoints(anyLong(), anyLong())).thenReturn(userPoint);
+        when(pointService.chargePoints(anyLong(), anyLong(), anyLong())).thenReturn(userPoint);
 
         int threadCount = 10;
 
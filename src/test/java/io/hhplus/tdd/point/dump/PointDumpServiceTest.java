@@ -0,0 +1,140 @@
+package io.hhplus.tdd.point.dump;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.custom.CustomException;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.repository.PointHistoryRepository;
+import io.hhplus.tdd.repository.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.repository.TieredPointHistoryRepository;
+import io.hhplus.tdd.repository.UserPointRepository;
+import io.hhplus.tdd.repository.UserPointRepositoryImpl;
+import io.hhplus.tdd.repository.history.HeapSegmentStore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointDumpServiceTest {
+
+    private static final int BUFFER_BYTES = 1024 * 1024;
+
+    // export 한 파일을 빈 저장소에 import 하면 포인트와 히스토리가 그대로 복원되어야 함
+    @Test
+    void exportImportRoundTripTest() throws Exception {
+        Path dumpDir = Files.createTempDirectory("point-dump-test");
+        UserPointRepository sourceUsers = new UserPointRepositoryImpl(new UserPointTable());
+        PointHistoryRepository sourceHistories = new PointHistoryRepositoryImpl(new PointHistoryTable());
+        sourceUsers.insertOrUpdate(1L, 3_000L);
+        sourceUsers.insertOrUpdate(2L, 500L);
+        long millis = System.currentTimeMillis();
+        sourceHistories.insert(1L, 5_000L, TransactionType.CHARGE, millis);
+        sourceHistories.insert(2L, 500L, TransactionType.CHARGE, millis + 1);
+        sourceHistories.insert(1L, 2_000L, TransactionType.USE, millis + 2);
+        // 보관 기간이 지나 접힌 히스토리
+        sourceHistories.insertRollup(new PointHistoryRollup(1L, 19_000L, 1_000L, 2, 1, 0, 0L));
+
+        PointDumpResult exported = dumpService(dumpDir, sourceUsers, sourceHistories).export("points.dump");
+        assertEquals(2L, exported.userCount());
+        assertEquals(3L, exported.historyCount());
+        assertEquals(1L, exported.rollupCount());
+
+        UserPointRepository targetUsers = new UserPointRepositoryImpl(new UserPointTable());
+        PointHistoryRepository targetHistories = new PointHistoryRepositoryImpl(new PointHistoryTable());
+        PointDumpResult imported = dumpService(dumpDir, targetUsers, targetHistories).importDump("points.dump");
+        assertEquals(2L, imported.userCount());
+        assertEquals(3L, imported.historyCount());
+        assertEquals(1L, imported.rollupCount());
+
+        for (long userId = 1; userId <= 2; userId++) {
+            assertEquals(sourceUsers.selectById(userId), targetUsers.selectById(userId));
+            assertEquals(sourceHistories.selectAllByUserId(userId), targetHistories.selectAllByUserId(userId));
+            assertEquals(sourceHistories.selectRollupsByUserId(userId), targetHistories.selectRollupsByUserId(userId));
+        }
+
+        // import 이후 쓰인 히스토리는 적재된 id 뒤에 이어져야 함 (table 은 stripe 별로 id 를 나눠 쓰므로 연속되지는 않음)
+        long lastImportedId = sourceHistories.selectAllByUserId(1L).get(1).id();
+        PointHistory next = targetHistories.insert(1L, 100L, TransactionType.CHARGE, millis + 3);
+        assertTrue(next.id() > lastImportedId);
+        assertEquals(List.of(sourceHistories.selectAllByUserId(1L).get(0).id(), lastImportedId, next.id()),
+                targetHistories.selectAllByUserId(1L).stream().map(PointHistory::id).toList());
+
+        // 쓰기가 일어난 저장소에는 다시 적재할 수 없음
+        assertThrows(CustomException.class, () -> dumpService(dumpDir, targetUsers, targetHistories).importDump("points.dump"));
+    }
+
+    // END 레코드까지 쓰이지 않은 파일은 적재하지 않아야 함
+    @Test
+    void importRejectsTruncatedDumpTest() throws Exception {
+        Path dumpDir = Files.createTempDirectory("point-dump-test");
+        Path file = dumpDir.resolve("truncated.dump");
+        try (PointDumpWriter writer = new PointDumpWriter(file, BUFFER_BYTES)) {
+            for (long userId = 1; userId <= 1_000; userId++) {
+                writer.writeUserPoint(new UserPoint(userId, userId * 100, 1L));
+            }
+            writer.finish();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        PointDumpService dumpService = dumpService(dumpDir, new UserPointRepositoryImpl(new UserPointTable()),
+                new TieredPointHistoryRepository(256, new HeapSegmentStore()));
+        assertThrows(CustomException.class, () -> dumpService.importDump("truncated.dump"));
+        assertThrows(CustomException.class, () -> dumpService.importDump("../truncated.dump"));
+    }
+
+    // 대량 적재는 table throttle 없이 처리되어야 함 (100만 유저 + 300만 히스토리)
+    // 소요 시간이 실행 환경에 따라 달라지므로 performance 태그로 분리한다.
+    @Test
+    @Tag("performance")
+    void bulkImportThroughputTest() throws Exception {
+        int userCount = 1_000_000;
+        Path dumpDir = Files.createTempDirectory("point-dump-test");
+        long millis = System.currentTimeMillis();
+        try (PointDumpWriter writer = new PointDumpWriter(dumpDir.resolve("bulk.dump"), BUFFER_BYTES)) {
+            long historyId = 1L;
+            for (long userId = 1; userId <= userCount; userId++) {
+                writer.writeUserPoint(new UserPoint(userId, 8_000L, millis));
+                writer.writeHistory(new PointHistory(historyId++, userId, 10_000L, TransactionType.CHARGE, millis));
+                writer.writeHistory(new PointHistory(historyId++, userId, 5_000L, TransactionType.USE, millis + 1));
+                writer.writeHistory(new PointHistory(historyId++, userId, 3_000L, TransactionType.CHARGE, millis + 2));
+            }
+            writer.finish();
+        }
+
+        UserPointRepository users = new UserPointRepositoryImpl(new UserPointTable());
+        PointHistoryRepository histories = new TieredPointHistoryRepository(256, new HeapSegmentStore());
+        PointDumpResult result = dumpService(dumpDir, users, histories).importDump("bulk.dump");
+        System.out.printf("import >> users=%d, histories=%d, bytes=%d, %dms%n",
+                result.userCount(), result.historyCount(), result.fileBytes(), result.elapsedMillis());
+
+        assertEquals(userCount, result.userCount());
+        assertEquals(userCount * 3L, result.historyCount());
+        assertEquals(8_000L, users.selectById((long) userCount).point());
+        assertEquals(3, histories.selectAllByUserId(userCount).size());
+        assertTrue(result.elapsedMillis() < 60_000L);
+
+        PointDumpResult exported = dumpService(dumpDir, users, histories).export("bulk-again.dump");
+        System.out.printf("export >> users=%d, histories=%d, bytes=%d, %dms%n",
+                exported.userCount(), exported.historyCount(), exported.fileBytes(), exported.elapsedMillis());
+        assertEquals(userCount, exported.userCount());
+        assertEquals(userCount * 3L, exported.historyCount());
+    }
+
+    private static PointDumpService dumpService(Path dumpDir, UserPointRepository users, PointHistoryRepository histories) {
+        return new PointDumpService(dumpDir.toString(), BUFFER_BYTES, users, histories);
+    }
+}
@@ -0,0 +1,90 @@
+package io.hhplus.tdd.point.expiry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    // 모든 level 에 걸친 만료 시각이 늦지도, 이르지도 않게 꺼내져야 함
+    @Test
+    void expiresAtDeadlineAcrossLevelsTest() {
+        long tickMillis = 1_000L;
+        long start = 1_000_000_000L;
+        TimingWheel<long[]> wheel = new TimingWheel<>(tickMillis, 6, 5, start);
+        Random random = new Random(11);
+
+        int count = 100_000;
+        for (int i = 0; i < count; i++) {
+            // 1 tick ~ 약 200일 (level 0 ~ 4)
+            long deadline = start + (long) Math.pow(2, random.nextDouble() * 24) * tickMillis;
+            wheel.schedule(deadline, new long[] {deadline});
+        }
+        assertEquals(count, wheel.size());
+
+        Set<long[]> seen = new HashSet<>();
+        long now = start;
+        long end = start + (1L << 24) * tickMillis + tickMillis;
+        while (now < end) {
+            now = Math.min(end, now + 1 + random.nextInt(3_600) * tickMillis);
+            List<long[]> due = new ArrayList<>();
+            wheel.advance(now, Integer.MAX_VALUE, due);
+            long previous = now - 3_601L * tickMillis;
+            for (long[] item : due) {
+                // 만료 시각이 지났고, 직전 advance 이후에 지난 항목이어야 함
+                assertTrue(item[0] / tickMillis <= now / tickMillis);
+                assertTrue(item[0] / tickMillis > previous / tickMillis - 1);
+                assertTrue(seen.add(item));
+            }
+        }
+        assertEquals(count, seen.size());
+        assertEquals(0, wheel.size());
+    }
+
+    // 한 번에 꺼내는 수를 제한해도 남은 항목은 다음 호출에서 빠짐없이 나와야 함
+    @Test
+    void advanceInBatchesTest() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1_000L, 6, 5, 0L);
+        for (int i = 0; i < 2_500; i++) {
+            wheel.schedule(5_000L, i);
+        }
+        // 이미 지난 시각도 다음 advance 에서 나와야 함
+        wheel.schedule(-1L, -1);
+
+        List<Integer> due = new ArrayList<>();
+        int batches = 0;
+        while (true) {
+            List<Integer> batch = new ArrayList<>();
+            wheel.advance(10_000L, 1_000, batch);
+            if (batch.isEmpty()) {
+                break;
+            }
+            assertTrue(batch.size() <= 1_000);
+            due.addAll(batch);
+            batches++;
+        }
+        assertEquals(2_501, due.size());
+        assertEquals(3, batches);
+        assertEquals(Integer.valueOf(-1), due.get(0));
+    }
+
+    // 범위를 넘는 만료 시각은 가장 먼 칸에 두었다가 cascade 로 제 시각에 꺼내져야 함
+    @Test
+    void deadlineBeyondRangeTest() {
+        TimingWheel<String> wheel = new TimingWheel<>(1L, 2, 2, 0L);
+        wheel.schedule(100L, "far");
+
+        List<String> due = new ArrayList<>();
+        wheel.advance(99L, Integer.MAX_VALUE, due);
+        assertEquals(List.of(), due);
+        wheel.advance(100L, Integer.MAX_VALUE, due);
+        assertEquals(List.of("far"), due);
+    }
+}
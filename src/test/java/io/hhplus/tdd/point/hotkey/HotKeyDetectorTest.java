@@ -0,0 +1,66 @@
+package io.hhplus.tdd.point.hotkey;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotKeyDetectorTest {
+
+    // Count-Min Sketch 추정치는 실제 횟수보다 작아지지 않아야 함
+    @Test
+    void countMinSketchNeverUnderestimatesTest() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        for (long userId = 1; userId <= 5_000; userId++) {
+            for (int i = 0; i < userId % 7; i++) {
+                sketch.increment(userId);
+            }
+        }
+
+        for (long userId = 1; userId <= 5_000; userId++) {
+            assertTrue(sketch.estimate(userId) >= userId % 7);
+        }
+    }
+
+    // threshold 이상 요청한 유저만 hot 으로 분류되어야 함
+    @Test
+    void detectHotKeyTest() {
+        HotKeyDetector detector = new HotKeyDetector(true, 60_000L, 100L, 4, 4096);
+
+        for (int i = 0; i < 150; i++) {
+            detector.record(1L);
+        }
+        for (long userId = 2; userId <= 1_000; userId++) {
+            detector.record(userId);
+        }
+
+        assertTrue(detector.isHot(1L));
+        assertFalse(detector.isHot(2L));
+
+        List<HotKey> hotKeys = detector.hotKeys();
+        assertEquals(1, hotKeys.size());
+        assertEquals(1L, hotKeys.get(0).userId());
+    }
+
+    // 요청이 줄어들면 다음 window 에서 hot 이 해제되어야 함
+    @Test
+    void coolDownTest() throws InterruptedException {
+        HotKeyDetector detector = new HotKeyDetector(true, 50L, 10L, 4, 1024);
+
+        for (int i = 0; i < 20; i++) {
+            detector.record(1L);
+        }
+        assertTrue(detector.isHot(1L));
+
+        // 다음 window 에서 threshold 절반 미만으로 감소
+        Thread.sleep(60L);
+        detector.record(1L);
+        Thread.sleep(60L);
+        detector.record(1L);
+
+        assertFalse(detector.isHot(1L));
+    }
+}
@@ -0,0 +1,133 @@
+package io.hhplus.tdd.point.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(SECOND);
+
+    // 초당 10건, burst 5 : 쉬고 있던 유저는 5건까지 연속 허용, 이후 0.1초마다 1건씩 허용
+    @Test
+    void burstThenRefillTest() {
+        UserRateLimiter limiter = limiter(Map.of());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, limiter.tryAcquire(1L));
+        }
+        long waitNanos = limiter.tryAcquire(1L);
+        assertEquals(SECOND / 10, waitNanos);
+
+        // 다른 유저는 영향 없음
+        assertEquals(0L, limiter.tryAcquire(2L));
+
+        clock.addAndGet(waitNanos);
+        assertEquals(0L, limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L) > 0L);
+    }
+
+    // 등급별로 다른 제한, 제한 없는 등급은 bucket 을 만들지 않음
+    @Test
+    void userClassTest() {
+        UserRateLimiter limiter = limiter(Map.of(
+                7L, new RateLimitPolicy("premium", 100, 50),
+                8L, new RateLimitPolicy("internal", 0, 0)));
+
+        assertEquals(5, acquireAll(limiter, 1L, 1_000));
+        assertEquals(50, acquireAll(limiter, 7L, 1_000));
+        assertEquals(1_000, acquireAll(limiter, 8L, 1_000));
+        assertEquals(2, limiter.bucketCount());
+    }
+
+    // 토큰이 다시 가득 찬 bucket 은 제거되고, 제거 후에도 같은 제한이 적용되어야 함
+    @Test
+    void sweepIdleBucketsTest() {
+        UserRateLimiter limiter = limiter(Map.of());
+        for (long userId = 1; userId <= 1_000; userId++) {
+            limiter.tryAcquire(userId);
+        }
+        // 1번 유저만 계속 요청
+        acquireAll(limiter, 1L, 10);
+
+        clock.addAndGet(SECOND / 10);
+        assertEquals(999, limiter.sweep());
+        assertEquals(1, limiter.bucketCount());
+
+        clock.addAndGet(SECOND);
+        assertEquals(1, limiter.sweep());
+        assertEquals(5, acquireAll(limiter, 1L, 10));
+    }
+
+    // bucket 이 maxBuckets 에 차도 새 유저는 제한 없이 허용되지 않고, overflow bucket 을 나눠 쓰며 기본 제한을 받아야 함
+    @Test
+    void overflowBucketTest() {
+        UserRateLimiter limiter = new UserRateLimiter(true, new RateLimitPolicy("default", 10, 5), Map.of(), 1, 1_000L, clock::get);
+        assertEquals(5, acquireAll(limiter, 1L, 10));
+
+        assertEquals(5, acquireAll(limiter, 2L, 10));
+        // 2번 유저와 같은 overflow bucket 을 쓰는 유저도 토큰이 없음
+        assertEquals(0, acquireAll(limiter, 18L, 10));
+        assertEquals(1, limiter.bucketCount());
+
+        clock.addAndGet(SECOND / 10);
+        assertEquals(1, acquireAll(limiter, 18L, 10));
+    }
+
+    // 동시에 요청해도 시간이 흐르지 않으면 정확히 burst 건만 허용되어야 함
+    @Test
+    void concurrentAcquireTest() throws InterruptedException {
+        UserRateLimiter limiter = new UserRateLimiter(true, new RateLimitPolicy("default", 10, 1_000), Map.of(),
+                1_000_000, 1_000L, clock::get);
+        LongAdder allowed = new LongAdder();
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 16; i++) {
+            executorService.submit(() -> allowed.add(acquireAll(limiter, 1L, 10_000)));
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(1_000L, allowed.sum());
+    }
+
+    // 거절은 저장소를 거치지 않으므로 수 마이크로초 안에 끝나야 함
+    @Test
+    void rejectionLatencyTest() {
+        UserRateLimiter limiter = new UserRateLimiter(true, new RateLimitPolicy("default", 10, 5), Map.of(),
+                1_000_000, 1_000L, System::nanoTime);
+        acquireAll(limiter, 1L, 10);
+
+        int attempts = 1_000_000;
+        long start = System.nanoTime();
+        long rejected = attempts - acquireAll(limiter, 1L, attempts);
+        double nanosPerCall = (double) (System.nanoTime() - start) / attempts;
+        System.out.printf("rate limit >> rejected=%d, %.1fns/call%n", rejected, nanosPerCall);
+
+        assertTrue(rejected >= attempts - 10);
+        assertTrue(nanosPerCall < 5_000);
+    }
+
+    private UserRateLimiter limiter(Map<Long, RateLimitPolicy> userPolicies) {
+        return new UserRateLimiter(true, new RateLimitPolicy("default", 10, 5), userPolicies, 1_000_000, 1_000L, clock::get);
+    }
+
+    private static int acquireAll(UserRateLimiter limiter, long userId, int attempts) {
+        int allowed = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (limiter.tryAcquire(userId) == 0L) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+}
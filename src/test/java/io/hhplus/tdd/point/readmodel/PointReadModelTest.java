@@ -0,0 +1,77 @@
+package io.hhplus.tdd.point.readmodel;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.hotkey.HotKeyDetector;
+import io.hhplus.tdd.point.expiry.ChargeLotLedger;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.repository.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.repository.UserPointRepositoryImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointReadModelTest {
+
+    // maxViews 를 넘게 적재해도 view 수는 상한을 넘지 않고, 최근에 조회한 view 는 남아 있어야 함
+    @Test
+    void maxViewsBoundTest() throws InterruptedException {
+        PointReadModel readModel = new PointReadModel(100, 600_000L);
+        for (long userId = 1; userId <= 50; userId++) {
+            readModel.load(new UserPoint(userId, 10L, 1L), List.of(), List.of());
+        }
+
+        // 사용 시각은 1초 단위로만 갱신되므로 그 이후에 조회
+        Thread.sleep(1_100L);
+        assertNotNull(readModel.get(1L));
+        for (long userId = 51; userId <= 101; userId++) {
+            readModel.load(new UserPoint(userId, 10L, 1L), List.of(), List.of());
+            assertTrue(readModel.size() <= 100);
+        }
+
+        // 101번째 적재에서 조회되지 않은 view(2 ~ 50)부터 정리됨
+        assertNotNull(readModel.get(1L));
+        assertNull(readModel.get(2L));
+        assertNotNull(readModel.get(101L));
+    }
+
+    // 오래 사용되지 않은 view 는 정리됨
+    @Test
+    void idleViewEvictionTest() {
+        PointReadModel readModel = new PointReadModel(100, 1_000L);
+        long nowMillis = System.currentTimeMillis();
+        readModel.load(new UserPoint(1L, 10L, 1L), List.of(), List.of());
+
+        assertEquals(0, readModel.evict(nowMillis));
+        assertEquals(1, readModel.evict(nowMillis + 5_000L));
+        assertNull(readModel.get(1L));
+    }
+
+    // 정리된 유저는 다음 조회 때 저장소에서 다시 적재되어야 함
+    @Test
+    void evictedViewIsReloadedTest() throws Exception {
+        UserPointRepositoryImpl userPointRepository = new UserPointRepositoryImpl(new UserPointTable());
+        PointHistoryRepositoryImpl pointHistoryRepository = new PointHistoryRepositoryImpl(new PointHistoryTable());
+        PointReadModel readModel = new PointReadModel(2, 600_000L);
+        PointService pointService = new PointService(userPointRepository, pointHistoryRepository, readModel, HotKeyDetector.disabled(),
+                new ChargeLotLedger(1000L));
+        for (long userId = 1; userId <= 4; userId++) {
+            userPointRepository.insertOrUpdate(userId, 100L);
+            pointService.chargePoints(userId, userId);
+            assertEquals(100L + userId, pointService.getUserPoint(userId).point());
+        }
+
+        assertTrue(readModel.size() <= 2);
+        for (long userId = 1; userId <= 4; userId++) {
+            assertEquals(100L + userId, pointService.getUserPoint(userId).point());
+            assertEquals(1, pointService.getPointHistories(userId).size());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package io.hhplus.tdd.point.reconcile;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.repository.PointHistoryRepository;
+import io.hhplus.tdd.repository.TieredPointHistoryRepository;
+import io.hhplus.tdd.repository.UserPointRepository;
+import io.hhplus.tdd.repository.UserPointRepositoryImpl;
+import io.hhplus.tdd.repository.history.HeapSegmentStore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LedgerReconcilerTest {
+
+    // 잔액이 틀린 유저, 잔액 없이 히스토리만 있는 유저를 찾아야 함
+    @Test
+    void detectsMismatchesTest() {
+        int userCount = 200_000;
+        UserPointRepository userPointRepository = new UserPointRepositoryImpl(new UserPointTable());
+        PointHistoryRepository pointHistoryRepository = new TieredPointHistoryRepository(256, new HeapSegmentStore());
+        loadLedger(userCount, userPointRepository, pointHistoryRepository);
+
+        LedgerReconciler reconciler = new LedgerReconciler(0, userPointRepository, pointHistoryRepository,
+                new PointService(userPointRepository, pointHistoryRepository));
+        ReconciliationReport report = reconciler.reconcile();
+        print(report);
+
+        assertEquals(userCount - 1, report.userCount());
+        assertEquals(List.of(7L, 8L), report.mismatches().stream().map(LedgerMismatch::userId).sorted().toList());
+        LedgerMismatch mismatch = report.mismatches().stream().filter(m -> m.userId() == 7L).findFirst().orElseThrow();
+        assertEquals(1L, mismatch.difference());
+        assertEquals(mismatch.charged() - mismatch.used() - mismatch.expired(), mismatch.expectedPoint());
+        assertEquals(0L, report.transientMismatches());
+
+        ReconciliationStatus status = reconciler.status();
+        assertEquals(ReconciliationStatus.State.DONE, status.state());
+        assertEquals(status.totalPartitions(), status.accumulatedPartitions());
+    }
+
+    // 처리량은 코어당 초당 100만 행 이상이어야 함
+    // 실행 환경의 CPU 에 따라 결과가 달라지므로 performance 태그로 분리한다.
+    @Test
+    @Tag("performance")
+    void reconcileThroughputTest() {
+        UserPointRepository userPointRepository = new UserPointRepositoryImpl(new UserPointTable());
+        PointHistoryRepository pointHistoryRepository = new TieredPointHistoryRepository(256, new HeapSegmentStore());
+        loadLedger(200_000, userPointRepository, pointHistoryRepository);
+
+        ReconciliationReport report = new LedgerReconciler(0, userPointRepository, pointHistoryRepository,
+                new PointService(userPointRepository, pointHistoryRepository)).reconcile();
+        print(report);
+
+        assertTrue(report.rowsPerSecondPerCore() > 1_000_000L);
+    }
+
+    // 스캔 도중 들어온 쓰기 때문에 맞지 않아 보인 유저는 재확인 후 불일치로 보고하지 않아야 함
+    @Test
+    void writesDuringScanAreNotReportedTest() throws Exception {
+        UserPointRepository userPointRepository = new UserPointRepositoryImpl(new UserPointTable());
+        TieredPointHistoryRepository histories = new TieredPointHistoryRepository(256, new HeapSegmentStore());
+        userPointRepository.bulkInsert(new UserPoint(1L, 1_000L, 1L));
+        histories.bulkInsert(new PointHistory(1L, 1L, 1_000L, TransactionType.CHARGE, 1L));
+
+        PointService[] pointService = new PointService[1];
+        // 유저 스캔이 끝나고 히스토리 스캔이 시작될 때 충전이 들어오는 상황
+        PointHistoryRepository pointHistoryRepository = new PointHistoryRepository() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                return histories.insert(userId, amount, type, updateMillis);
+            }
+
+            @Override
+            public List<PointHistory> selectAllByUserId(long userId) {
+                return histories.selectAllByUserId(userId);
+            }
+
+            @Override
+            public void forEach(Consumer<PointHistory> action) {
+                try {
+                    pointService[0].chargePoints(1L, 500L);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                histories.forEach(action);
+            }
+
+            @Override
+            public void bulkInsert(PointHistory pointHistory) {
+                histories.bulkInsert(pointHistory);
+            }
+
+            @Override
+            public int compact(long userId, long cutoffMillis, ZoneId zone) {
+                return histories.compact(userId, cutoffMillis, zone);
+            }
+
+            @Override
+            public List<PointHistoryRollup> selectRollupsByUserId(long userId) {
+                return histories.selectRollupsByUserId(userId);
+            }
+
+            @Override
+            public void forEachRollup(Consumer<PointHistoryRollup> action) {
+                histories.forEachRollup(action);
+            }
+
+            @Override
+            public void insertRollup(PointHistoryRollup rollup) {
+                histories.insertRollup(rollup);
+            }
+
+            @Override
+            public void deleteAllByUserId(long userId) {
+                histories.deleteAllByUserId(userId);
+            }
+        };
+        pointService[0] = new PointService(userPointRepository, pointHistoryRepository);
+
+        ReconciliationReport report = new LedgerReconciler(2, userPointRepository, pointHistoryRepository, pointService[0]).reconcile();
+        assertEquals(List.of(), report.mismatches());
+        assertEquals(1L, report.transientMismatches());
+    }
+
+    // 유저마다 5 ~ 24 건의 히스토리와 그 합계 잔액을 적재, 유저 7 은 잔액이 1 많고 유저 8 은 잔액이 없음
+    private static void loadLedger(int userCount, UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository) {
+        Random random = new Random(3);
+        long historyId = 1L;
+        long millis = System.currentTimeMillis();
+        for (long userId = 1; userId <= userCount; userId++) {
+            long balance = 0L;
+            int rows = 5 + random.nextInt(20);
+            for (int i = 0; i < rows; i++) {
+                long amount = 100L * (1 + random.nextInt(50));
+                TransactionType type = balance >= amount && random.nextBoolean()
+                        ? (random.nextInt(10) == 0 ? TransactionType.EXPIRE : TransactionType.USE)
+                        : TransactionType.CHARGE;
+                balance += type == TransactionType.CHARGE ? amount : -amount;
+                pointHistoryRepository.bulkInsert(new PointHistory(historyId++, userId, amount, type, millis + i));
+            }
+            if (userId == 7L) {
+                balance += 1L;
+            }
+            if (userId != 8L) {
+                userPointRepository.bulkInsert(new UserPoint(userId, balance, millis));
+            }
+        }
+    }
+
+    private static void print(ReconciliationReport report) {
+        System.out.printf("reconciliation >> users=%d, histories=%d, scan=%dms, accumulate=%dms, rows/s/core=%d, parallelism=%d%n",
+                report.userCount(), report.historyCount(), report.scanMillis(), report.accumulateMillis(),
+                report.rowsPerSecondPerCore(), report.parallelism());
+    }
+}
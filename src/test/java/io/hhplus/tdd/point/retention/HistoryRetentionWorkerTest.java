@@ -0,0 +1,116 @@
+package io.hhplus.tdd.point.retention;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.hhplus.tdd.custom.CustomException;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.PointHistoryTimeline;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.readmodel.ReadConsistency;
+import io.hhplus.tdd.point.reconcile.LedgerReconciler;
+import io.hhplus.tdd.point.reconcile.ReconciliationReport;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.repository.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.repository.TieredPointHistoryRepository;
+import io.hhplus.tdd.repository.UserPointRepository;
+import io.hhplus.tdd.repository.UserPointRepositoryImpl;
+import io.hhplus.tdd.repository.history.HeapSegmentStore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryRetentionWorkerTest {
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    // 30일이 지난 히스토리는 rollup 으로 조회되고, 잔액과 히스토리 합계는 계속 맞아야 함
+    @Test
+    void compactDueTest() throws CustomException {
+        int userCount = 2_000;
+        long now = System.currentTimeMillis();
+        UserPointRepository userPointRepository = new UserPointRepositoryImpl(new UserPointTable());
+        TieredPointHistoryRepository pointHistoryRepository = new TieredPointHistoryRepository(256, new HeapSegmentStore());
+        long historyId = 1L;
+        for (long userId = 1; userId <= userCount; userId++) {
+            // 60일 전부터 하루 5건 충전, 마지막 5일은 하루 1건 사용
+            long balance = 0L;
+            for (int day = 60; day >= 1; day--) {
+                for (int i = 0; i < 5; i++) {
+                    pointHistoryRepository.bulkInsert(new PointHistory(historyId++, userId, 100L, TransactionType.CHARGE, now - day * DAY_MILLIS + i));
+                    balance += 100L;
+                }
+                if (day <= 5) {
+                    pointHistoryRepository.bulkInsert(new PointHistory(historyId++, userId, 50L, TransactionType.USE, now - day * DAY_MILLIS + 10));
+                    balance -= 50L;
+                }
+            }
+            userPointRepository.bulkInsert(new UserPoint(userId, balance, now));
+        }
+
+        PointService pointService = new PointService(userPointRepository, pointHistoryRepository);
+        // 1번 유저는 view 가 게시된 상태
+        assertEquals(305, pointService.getPointHistories(1L).size());
+
+        HistoryRetentionWorker worker = new HistoryRetentionWorker(30, "Asia/Seoul", 60_000L, userPointRepository, pointService);
+        long cutoffMillis = worker.cutoffMillis(now);
+        long start = System.nanoTime();
+        long folded = worker.compactDue(now);
+        System.out.printf("history retention >> users=%d, folded=%d, %dms%n", userCount, folded, (System.nanoTime() - start) / 1_000_000);
+
+        PointHistoryTimeline timeline = pointService.getHistoryTimeline(1L, ReadConsistency.ANY);
+        assertTrue(timeline.rollups().size() >= 29);
+        assertTrue(timeline.histories().stream().allMatch(history -> history.updateMillis() >= cutoffMillis));
+        assertEquals(305, timeline.histories().size() + timeline.rollups().stream()
+                .mapToInt(rollup -> rollup.chargeCount() + rollup.useCount()).sum());
+        assertEquals(timeline.histories(), pointService.getPointHistories(1L));
+        long rolledUp = timeline.rollups().stream().mapToLong(PointHistoryRollup::netAmount).sum();
+        assertEquals(folded / userCount * 100L, rolledUp);
+
+        // 한 번 정리한 뒤에는 다시 접을 히스토리가 없음
+        assertEquals(0L, worker.compactDue(now));
+
+        ReconciliationReport report = new LedgerReconciler(2, userPointRepository, pointHistoryRepository, pointService).reconcile();
+        assertEquals(List.of(), report.mismatches());
+    }
+
+    // 기본 저장소(table)에 API 로 쓴 히스토리도 rollup 으로 접히고, 접힌 행은 조회와 export 에서 빠져야 함
+    @Test
+    void compactTableHistoriesTest() throws CustomException {
+        long userId = 1L;
+        long now = System.currentTimeMillis();
+        UserPointRepository userPointRepository = new UserPointRepositoryImpl(new UserPointTable());
+        PointHistoryRepositoryImpl pointHistoryRepository = new PointHistoryRepositoryImpl(new PointHistoryTable());
+        // 40일 전, 35일 전 충전 2건씩, 어제 사용 1건
+        pointHistoryRepository.insert(userId, 100L, TransactionType.CHARGE, now - 40 * DAY_MILLIS);
+        pointHistoryRepository.insert(userId, 100L, TransactionType.CHARGE, now - 40 * DAY_MILLIS + 1);
+        pointHistoryRepository.insert(userId, 200L, TransactionType.CHARGE, now - 35 * DAY_MILLIS);
+        pointHistoryRepository.insert(userId, 200L, TransactionType.CHARGE, now - 35 * DAY_MILLIS + 1);
+        PointHistory recent = pointHistoryRepository.insert(userId, 50L, TransactionType.USE, now - DAY_MILLIS);
+        userPointRepository.insertOrUpdate(userId, 550L);
+
+        PointService pointService = new PointService(userPointRepository, pointHistoryRepository);
+        HistoryRetentionWorker worker = new HistoryRetentionWorker(30, "Asia/Seoul", 60_000L, userPointRepository, pointService);
+        assertEquals(4L, worker.compactDue(now));
+
+        List<PointHistoryRollup> rollups = pointHistoryRepository.selectRollupsByUserId(userId);
+        assertEquals(2, rollups.size());
+        assertEquals(600L, rollups.stream().mapToLong(PointHistoryRollup::netAmount).sum());
+        assertEquals(List.of(recent), pointService.getPointHistories(userId));
+        List<PointHistory> exported = new ArrayList<>();
+        pointHistoryRepository.forEach(exported::add);
+        assertEquals(List.of(recent), exported);
+
+        // 한 번 정리한 뒤에는 다시 접을 히스토리가 없음
+        assertEquals(0L, worker.compactDue(now));
+
+        ReconciliationReport report = new LedgerReconciler(2, userPointRepository, pointHistoryRepository, pointService).reconcile();
+        assertEquals(List.of(), report.mismatches());
+    }
+}
@@ -0,0 +1,141 @@
+package io.hhplus.tdd.point.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import io.hhplus.tdd.custom.CustomException;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.point.MultiGetEntry;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.cluster.PointClusterRouter;
+import io.hhplus.tdd.point.readmodel.ReadConsistency;
+import io.hhplus.tdd.repository.PointHistoryRepository;
+import io.hhplus.tdd.repository.TieredPointHistoryRepository;
+import io.hhplus.tdd.repository.UserPointRepository;
+import io.hhplus.tdd.repository.history.HeapSegmentStore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointMultiGetServiceTest {
+
+    private static final long LOOKUP_MILLIS = 100L;
+
+    // 100명을 나눠서 동시에 조회하되 parallelism 을 넘지 않아야 하고, 없는 유저는 해당 유저만 실패해야 함
+    @Test
+    void fanOutLatencyTest() throws CustomException {
+        SlowUserPointRepository userPointRepository = new SlowUserPointRepository();
+        PointService pointService = new PointService(userPointRepository, new TieredPointHistoryRepository(256, new HeapSegmentStore()));
+        PointMultiGetService multiGetService = new PointMultiGetService(256, 128, 200, 2_000L,
+                pointService, PointClusterRouter.standalone(pointService));
+
+        List<Long> userIds = new ArrayList<>();
+        for (long userId = 1; userId <= 100; userId++) {
+            userIds.add(userId);
+        }
+        // 중복 요청은 한 번만 조회, 0 번 유저는 잔액이 없는 유저
+        userIds.add(1L);
+        userIds.add(0L);
+
+        long start = System.nanoTime();
+        List<MultiGetEntry<UserPoint>> entries = multiGetService.getUserPoints(userIds, ReadConsistency.ANY);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("multi-get >> users=%d, elapsed=%dms, single lookup=%dms, max concurrent=%d%n",
+                entries.size(), elapsedMillis, LOOKUP_MILLIS, userPointRepository.maxConcurrent.get());
+
+        assertEquals(101, entries.size());
+        for (int i = 0; i < 100; i++) {
+            MultiGetEntry<UserPoint> entry = entries.get(i);
+            assertEquals(i + 1L, entry.userId());
+            assertEquals(MultiGetEntry.Status.OK, entry.status());
+            assertEquals(1_000L, entry.value().point());
+        }
+        MultiGetEntry<UserPoint> missing = entries.get(100);
+        assertEquals(0L, missing.userId());
+        assertEquals(MultiGetEntry.Status.FAILED, missing.status());
+        assertNull(missing.value());
+        // 소요 시간은 실행 환경에 따라 달라지므로 동시에 돈 조회 수로 fan-out 을 확인
+        assertTrue(userPointRepository.maxConcurrent.get() > 1);
+        assertTrue(userPointRepository.maxConcurrent.get() <= 128);
+    }
+
+    // 제한 시간 안에 끝나지 않은 유저는 TIMEOUT, 취소된 요청의 남은 유저는 조회하지 않아야 함
+    @Test
+    void timeoutTest() throws Exception {
+        SlowUserPointRepository userPointRepository = new SlowUserPointRepository();
+        PointService pointService = new PointService(userPointRepository, new TieredPointHistoryRepository(256, new HeapSegmentStore()));
+        PointMultiGetService multiGetService = new PointMultiGetService(1, 1, 200, LOOKUP_MILLIS / 2,
+                pointService, PointClusterRouter.standalone(pointService));
+
+        List<MultiGetEntry<UserPoint>> entries = multiGetService.getUserPoints(List.of(1L, 2L, 3L), ReadConsistency.ANY);
+
+        assertEquals(MultiGetEntry.Status.TIMEOUT, entries.get(0).status());
+        assertEquals(MultiGetEntry.Status.TIMEOUT, entries.get(1).status());
+        assertEquals(MultiGetEntry.Status.TIMEOUT, entries.get(2).status());
+
+        // 진행 중이던 1번 유저 조회가 끝난 뒤에도 2, 3번 유저는 조회되지 않음
+        Thread.sleep(LOOKUP_MILLIS * 3);
+        assertEquals(1, userPointRepository.lookups.get());
+        multiGetService.stop();
+    }
+
+    // 히스토리는 유저별 최근 limit 건만
+    @Test
+    void recentHistoriesTest() throws CustomException {
+        PointHistoryRepository pointHistoryRepository = new TieredPointHistoryRepository(256, new HeapSegmentStore());
+        for (int i = 0; i < 5; i++) {
+            pointHistoryRepository.insert(1L, 100L * (i + 1), TransactionType.CHARGE, i);
+        }
+        PointService pointService = new PointService(new SlowUserPointRepository(), pointHistoryRepository);
+        PointMultiGetService multiGetService = new PointMultiGetService(4, 4, 200, 2_000L,
+                pointService, PointClusterRouter.standalone(pointService));
+
+        List<MultiGetEntry<List<PointHistory>>> entries = multiGetService.getRecentHistories(List.of(1L, 2L), 2, ReadConsistency.ANY);
+
+        assertEquals(List.of(400L, 500L), entries.get(0).value().stream().map(PointHistory::amount).toList());
+        assertEquals(MultiGetEntry.Status.FAILED, entries.get(1).status());
+        assertThrows(CustomException.class, () -> multiGetService.getUserPoints(List.of(), ReadConsistency.ANY));
+    }
+
+    // 조회마다 LOOKUP_MILLIS 가 걸리는 저장소, 0 번 유저를 제외한 모든 유저는 1000 포인트
+    private static class SlowUserPointRepository implements UserPointRepository {
+
+        private final AtomicInteger lookups = new AtomicInteger();
+        private final AtomicInteger concurrent = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        @Override
+        public UserPoint selectById(Long id) {
+            lookups.incrementAndGet();
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(LOOKUP_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrent.decrementAndGet();
+            }
+            return new UserPoint(id, id == 0L ? 0L : 1_000L, System.currentTimeMillis());
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            return new UserPoint(id, amount, System.currentTimeMillis());
+        }
+
+        @Override
+        public void forEach(Consumer<UserPoint> action) {
+        }
+
+        @Override
+        public void bulkInsert(UserPoint userPoint) {
+        }
+    }
+}
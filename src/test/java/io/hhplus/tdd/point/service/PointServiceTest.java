@@ -2,11 +2,18 @@ package io.hhplus.tdd.point.service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import io.hhplus.tdd.custom.CustomException;
 import io.hhplus.tdd.repository.PointHistoryRepository;
@@ -19,10 +26,21 @@ import org.junit.jupiter.api.Test;
 import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
 import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHold;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.TransferResult;
 import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.expiry.ChargeLotLedger;
+import io.hhplus.tdd.point.expiry.PointExpiryWorker;
+import io.hhplus.tdd.point.hotkey.HotKeyDetector;
+import io.hhplus.tdd.point.readmodel.PointReadModel;
+import io.hhplus.tdd.point.readmodel.ReadConsistency;
+import io.hhplus.tdd.point.reservation.PointHoldExpiryWorker;
+import io.hhplus.tdd.point.reservation.PointHoldLedger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PointServiceTest {
 
@@ -366,4 +384,567 @@ class PointServiceTest {
 		System.out.println("============================== User 3 ==============================");
 		pointHistories3.forEach(System.out::println);
 	}
+
+	/**
+	 * 포인트 이체에 대한 fail Test
+	 * 보유 포인트보다 많은 포인트를 이체하거나, 자기 자신에게 이체할 때 exception 발생
+	 * */
+	@Test
+	void transferPointsFailTest() throws CustomException {
+		assertThrows(CustomException.class, () -> pointService.transferPoints(1L, 2L, 50L));
+		assertThrows(CustomException.class, () -> pointService.transferPoints(1L, 1L, 5L));
+		assertThrows(CustomException.class, () -> pointService.transferPoints(1L, 2L, 0L));
+
+		// 실패 시 양쪽 포인트 변동 없음
+		assertEquals(20L, pointService.getUserPoint(1L).point());
+		assertEquals(100L, pointService.getUserPoint(2L).point());
+	}
+
+	// 포인트 이체
+	// Success Test
+	@Test
+	void transferPointsSuccessTest() throws CustomException {
+		TransferResult result = pointService.transferPoints(2L, 1L, 30L);
+		assertEquals(70L, result.from().point());
+		assertEquals(50L, result.to().point());
+
+		// 보낸 유저는 USE, 받은 유저는 CHARGE 히스토리가 함께 적재
+		List<PointHistory> fromHistories = pointService.getPointHistories(2L);
+		List<PointHistory> toHistories = pointService.getPointHistories(1L);
+		assertEquals(1, fromHistories.size());
+		assertEquals(1, toHistories.size());
+		assertEquals(fromHistories.get(0).updateMillis(), toHistories.get(0).updateMillis());
+	}
+
+	// 포인트 이체 동시성 테스트
+	// 1 -> 2, 2 -> 1 이체를 동시에 요청해도 deadlock 없이 모두 처리되어야 함
+	@Test
+	void transferConcurrencyTest() throws CustomException, InterruptedException, ExecutionException {
+		int threadCount = 10;
+		long transferAmount = 1L;
+
+		ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+		List<Callable<TransferResult>> tasks = new ArrayList<>();
+		for (int i = 0; i < threadCount; i++) {
+			tasks.add(() -> pointService.transferPoints(1L, 2L, transferAmount));
+			tasks.add(() -> pointService.transferPoints(2L, 1L, transferAmount));
+		}
+
+		List<Future<TransferResult>> futures = executorService.invokeAll(tasks);
+		for (Future<TransferResult> future : futures) {
+			future.get();
+		}
+
+		// 주고받은 포인트가 같으므로 최종 포인트는 변동 없음, 총합 보존
+		assertEquals(20L, pointService.getUserPoint(1L).point());
+		assertEquals(100L, pointService.getUserPoint(2L).point());
+		assertEquals(threadCount * 2, pointService.getPointHistories(1L).size());
+	}
+
+	// 유저 lock 은 stripe 단위이므로, 같은 stripe 의 유저끼리(1, 1025)나 stripe 순서가 userId 순서와 반대인 유저끼리(1023, 1024)
+	// 양방향 이체를 동시에 요청해도 deadlock 없이 모두 처리되어야 함
+	@Test
+	void transferLockStripeTest() throws CustomException, InterruptedException, ExecutionException, TimeoutException {
+		int threadCount = 3;
+		userPointRepository.insertOrUpdate(1025L, 100L);
+		userPointRepository.insertOrUpdate(1023L, 100L);
+		userPointRepository.insertOrUpdate(1024L, 100L);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(threadCount * 4);
+		List<Callable<TransferResult>> tasks = new ArrayList<>();
+		for (int i = 0; i < threadCount; i++) {
+			tasks.add(() -> pointService.transferPoints(1L, 1025L, 1L));
+			tasks.add(() -> pointService.transferPoints(1025L, 1L, 1L));
+			tasks.add(() -> pointService.transferPoints(1023L, 1024L, 1L));
+			tasks.add(() -> pointService.transferPoints(1024L, 1023L, 1L));
+		}
+
+		List<Future<TransferResult>> futures = executorService.invokeAll(tasks);
+		for (Future<TransferResult> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		executorService.shutdown();
+
+		// 주고받은 포인트가 같으므로 최종 포인트는 변동 없음
+		assertEquals(20L, pointService.getUserPoint(1L).point());
+		assertEquals(100L, pointService.getUserPoint(1025L).point());
+		assertEquals(100L, pointService.getUserPoint(1023L).point());
+		assertEquals(100L, pointService.getUserPoint(1024L).point());
+	}
+
+	/**
+	 * 서로 다른 유저 쌍의 이체는 저장소 쓰기까지 나란히 진행되어야 함
+	 * 두 이체는 잔액/히스토리를 쓸 때마다 table 안의 barrier 에서 서로를 기다리므로,
+	 * 서비스나 저장소가 두 이체를 한 줄로 세우면 barrier 가 제한 시간 안에 열리지 않아 실패한다.
+	 * */
+	@Test
+	void disjointTransferParallelTest() throws CustomException, InterruptedException, ExecutionException {
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		AtomicBoolean armed = new AtomicBoolean(false);
+
+		// table 2개씩, 1/3번 유저는 1번 table 에, 2/4번 유저는 0번 table 에 담김
+		UserPointRepository stripedUserPointRepository = new UserPointRepositoryImpl(
+				List.of(new RendezvousUserPointTable(barrier, armed), new RendezvousUserPointTable(barrier, armed)));
+		PointHistoryRepository stripedPointHistoryRepository = new PointHistoryRepositoryImpl(
+				List.of(new RendezvousPointHistoryTable(barrier, armed), new RendezvousPointHistoryTable(barrier, armed)));
+		PointService stripedPointService = new PointService(stripedUserPointRepository, stripedPointHistoryRepository);
+		for (long userId = 1; userId <= 4; userId++) {
+			stripedUserPointRepository.insertOrUpdate(userId, 100L);
+		}
+		armed.set(true);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(2);
+		Future<TransferResult> first = executorService.submit(() -> stripedPointService.transferPoints(1L, 3L, 10L));
+		Future<TransferResult> second = executorService.submit(() -> stripedPointService.transferPoints(2L, 4L, 20L));
+
+		assertEquals(90L, first.get().from().point());
+		assertEquals(110L, first.get().to().point());
+		assertEquals(80L, second.get().from().point());
+		assertEquals(120L, second.get().to().point());
+		executorService.shutdown();
+	}
+
+	/**
+	 * 이체 중 history 저장이 실패하면 두 유저의 포인트가 원복되고,
+	 * 먼저 저장된 보낸 유저의 USE history 는 CHARGE history 로 상쇄되어야 함
+	 * */
+	@Test
+	void transferHistoryFailureTest() throws CustomException {
+		PointHistoryRepository failingPointHistoryRepository = new PointHistoryRepositoryImpl(List.of(new PointHistoryTable() {
+			@Override
+			public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+				if (userId == 1L && type == TransactionType.CHARGE && amount == 30L) {
+					throw new IllegalStateException("history 저장 실패");
+				}
+				return super.insert(userId, amount, type, updateMillis);
+			}
+		}));
+		PointService failingPointService = new PointService(userPointRepository, failingPointHistoryRepository);
+
+		assertThrows(IllegalStateException.class, () -> failingPointService.transferPoints(2L, 1L, 30L));
+
+		assertEquals(100L, failingPointService.getUserPoint(2L).point());
+		assertEquals(20L, failingPointService.getUserPoint(1L).point());
+		List<PointHistory> fromHistories = failingPointService.getPointHistories(2L);
+		assertEquals(2, fromHistories.size());
+		assertEquals(TransactionType.USE, fromHistories.get(0).type());
+		assertEquals(TransactionType.CHARGE, fromHistories.get(1).type());
+		assertThrows(CustomException.class, () -> failingPointService.getPointHistories(1L));
+	}
+
+	/**
+	 * 충전/사용 중 history 저장이 실패하면 잔액은 원복되고 history 는 남지 않아야 함
+	 * */
+	@Test
+	void historyFailureRevertsBalanceTest() throws CustomException {
+		PointHistoryRepository failingPointHistoryRepository = new PointHistoryRepositoryImpl(List.of(new PointHistoryTable() {
+			@Override
+			public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+				if (amount == 7L) {
+					throw new IllegalStateException("history 저장 실패");
+				}
+				return super.insert(userId, amount, type, updateMillis);
+			}
+		}));
+		PointService failingPointService = new PointService(userPointRepository, failingPointHistoryRepository);
+
+		assertThrows(IllegalStateException.class, () -> failingPointService.chargePoints(1L, 7L));
+		assertThrows(IllegalStateException.class, () -> failingPointService.usePoints(2L, 7L));
+
+		assertEquals(20L, userPointRepository.selectById(1L).point());
+		assertEquals(100L, userPointRepository.selectById(2L).point());
+		assertEquals(20L, failingPointService.getUserPoint(1L).point());
+		assertThrows(CustomException.class, () -> failingPointService.getPointHistories(1L));
+
+		// 이후 요청은 원복된 잔액 기준으로 처리
+		assertEquals(25L, failingPointService.chargePoints(1L, 5L).point());
+	}
+
+	/**
+	 * read model 조회 테스트
+	 * 서비스를 거치지 않고 저장소가 바뀐 경우, 기본 조회는 게시된 view 를 그대로 읽고
+	 * staleness 제한(0ms)을 주면 저장소에서 다시 적재하여 최신 값을 읽어야 함
+	 * */
+	@Test
+	void readModelStalenessTest() throws CustomException, InterruptedException {
+		assertEquals(20L, pointService.getUserPoint(1L).point());
+
+		// 서비스를 거치지 않은 변경
+		userPointRepository.insertOrUpdate(1L, 500L);
+		Thread.sleep(5L);
+
+		assertEquals(20L, pointService.getUserPoint(1L).point());
+		assertEquals(500L, pointService.getUserPoint(1L, new ReadConsistency(0L, 0L)).point());
+	}
+
+	/**
+	 * read-your-writes 테스트
+	 * 충전/사용 결과는 커밋 직후 read model 에 게시되므로,
+	 * 응답의 updateMillis 를 넘겨 조회하면 자신이 쓴 결과가 보여야 함
+	 * */
+	@Test
+	void readYourWritesTest() throws CustomException {
+		// view 적재
+		assertEquals(100L, pointService.getUserPoint(2L).point());
+
+		UserPoint charged = pointService.chargePoints(2L, 10L);
+		UserPoint used = pointService.usePoints(2L, 30L);
+
+		ReadConsistency readYourWrites = new ReadConsistency(-1L, used.updateMillis());
+		assertEquals(80L, pointService.getUserPoint(2L, readYourWrites).point());
+
+		List<PointHistory> histories = pointService.getPointHistories(2L, readYourWrites);
+		assertEquals(2, histories.size());
+		assertTrue(charged.updateMillis() <= used.updateMillis());
+	}
+
+	/**
+	 * ETag 테스트
+	 * 변경이 없으면 같은 ETag 를 저장소 조회 없이 돌려주고, 충전 후에는 ETag 가 바뀌어야 함
+	 * */
+	@Test
+	void entityTagTest() throws CustomException {
+		String before = pointService.getUserPointView(3L, ReadConsistency.ANY).entityTag();
+
+		long start = System.nanoTime();
+		assertEquals(before, pointService.getUserPointView(3L, ReadConsistency.ANY).entityTag());
+		// view 가 적재된 뒤에는 throttle 이 걸린 테이블을 거치지 않음
+		assertTrue(System.nanoTime() - start < 50_000_000L);
+
+		UserPoint charged = pointService.chargePoints(3L, 10L);
+		String after = pointService.getUserPointView(3L, ReadConsistency.ANY).entityTag();
+		assertTrue(!before.equals(after));
+		assertTrue(after.startsWith("\"" + charged.updateMillis() + "-"));
+
+		// 없는 유저는 ETag 를 만들기 전에 실패
+		assertThrows(CustomException.class, () -> pointService.getUserPointView(999L, ReadConsistency.ANY));
+	}
+
+	/**
+	 * hot 유저 충전/사용 동시성 테스트
+	 * 요청이 몰려 hot 으로 분류된 유저는 요청을 모아서 처리하지만, 결과는 개별 처리와 같아야 함
+	 * */
+	@Test
+	void hotUserBatchingTest() throws CustomException, InterruptedException, ExecutionException {
+		HotKeyDetector hotKeyDetector = new HotKeyDetector(true, 60_000L, 5L, 4, 1024);
+		PointService hotPointService = new PointService(userPointRepository, pointHistoryRepository, new PointReadModel(), hotKeyDetector, new ChargeLotLedger(1000L));
+
+		int threadCount = 30;
+		long userId = 2L;
+
+		ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+		List<Callable<UserPoint>> tasks = new ArrayList<>();
+		for (int i = 0; i < threadCount; i++) {
+			tasks.add(() -> hotPointService.chargePoints(userId, 3L));
+			tasks.add(() -> hotPointService.usePoints(userId, 1L));
+		}
+
+		List<Future<UserPoint>> futures = executorService.invokeAll(tasks);
+		for (Future<UserPoint> future : futures) {
+			future.get();
+		}
+
+		assertTrue(hotKeyDetector.isHot(userId));
+		assertEquals(100L + threadCount * 2L, hotPointService.getUserPoint(userId).point());
+		assertEquals(100L + threadCount * 2L, userPointRepository.selectById(userId).point());
+		assertEquals(threadCount * 2, hotPointService.getPointHistories(userId).size());
+	}
+
+	/**
+	 * hot 유저 모아서 처리 시 잔액 기준 테스트
+	 * 다른 인스턴스가 같은 저장소에서 차감해 read model 이 뒤처져 있어도, 모아서 처리할 때는 저장소의 잔액을 기준으로 해야 함
+	 * */
+	@Test
+	void hotUserBatchingUsesStoredBalanceTest() throws CustomException {
+		HotKeyDetector hotKeyDetector = new HotKeyDetector(true, 60_000L, 5L, 4, 1024);
+		PointService hotPointService = new PointService(userPointRepository, pointHistoryRepository, new PointReadModel(), hotKeyDetector, new ChargeLotLedger(1000L));
+		long userId = 2L;
+
+		while (!hotKeyDetector.isHot(userId)) {
+			hotPointService.chargePoints(userId, 1L);
+		}
+		long balance = hotPointService.getUserPoint(userId).point();
+
+		// 다른 인스턴스에서 차감, hotPointService 의 read model 은 이전 잔액을 들고 있음
+		pointService.usePoints(userId, balance - 10L);
+		assertEquals(balance, hotPointService.getUserPoint(userId).point());
+
+		assertThrows(CustomException.class, () -> hotPointService.usePoints(userId, 50L));
+		assertEquals(10L, userPointRepository.selectById(userId).point());
+		assertEquals(15L, hotPointService.chargePoints(userId, 5L).point());
+	}
+
+	/**
+	 * 포인트 만료 테스트
+	 * 사용은 오래된 충전분부터 차감되고, 만료 시각이 지나면 남은 만료 충전분만 소멸되어야 함
+	 * */
+	@Test
+	void expiringChargeTest() throws CustomException {
+		ChargeLotLedger chargeLotLedger = new ChargeLotLedger(1000L);
+		PointService expiryPointService = new PointService(userPointRepository, pointHistoryRepository, new PointReadModel(), HotKeyDetector.disabled(), chargeLotLedger);
+		PointExpiryWorker expiryWorker = new PointExpiryWorker(false, 1000L, 100, chargeLotLedger, expiryPointService);
+		long userId = 2L;
+		long expireAt = System.currentTimeMillis() + 5_000L;
+
+		// 기존 100 -> 만료되는 50 충전 -> 만료되지 않는 30 충전
+		expiryPointService.chargePoints(userId, 50L, expireAt);
+		expiryPointService.chargePoints(userId, 30L);
+
+		// 기존 100 을 먼저 쓰고 만료되는 충전분에서 20 차감
+		expiryPointService.usePoints(userId, 120L);
+		assertEquals(60L, expiryPointService.getUserPoint(userId).point());
+
+		// 만료 시각 전에는 소멸되지 않음
+		assertEquals(0, expiryWorker.expireDue(expireAt - 2_000L));
+		assertEquals(60L, userPointRepository.selectById(userId).point());
+
+		// 만료되는 충전분 중 남은 30 만 소멸
+		assertEquals(1, expiryWorker.expireDue(expireAt + 1_000L));
+		assertEquals(30L, userPointRepository.selectById(userId).point());
+		assertEquals(30L, expiryPointService.getUserPoint(userId).point());
+
+		List<PointHistory> histories = expiryPointService.getPointHistories(userId);
+		PointHistory expired = histories.get(histories.size() - 1);
+		assertEquals(TransactionType.EXPIRE, expired.type());
+		assertEquals(30L, expired.amount());
+
+		// 지난 시각으로는 만료 충전 불가
+		assertThrows(CustomException.class, () -> expiryPointService.chargePoints(userId, 10L, System.currentTimeMillis() - 1L));
+	}
+
+	/**
+	 * 포인트 예약 테스트
+	 * 예약된 포인트는 다른 사용/예약에 쓸 수 없고, 확정 시에만 잔액과 히스토리에 반영되며
+	 * 만료 시각까지 확정/취소되지 않은 예약은 일괄 취소되어야 함
+	 * */
+	@Test
+	void holdCaptureReleaseTest() throws CustomException {
+		PointHoldLedger pointHoldLedger = new PointHoldLedger(1000L, 600_000L);
+		PointService holdPointService = new PointService(userPointRepository, pointHistoryRepository, new PointReadModel(), HotKeyDetector.disabled(),
+				new ChargeLotLedger(1000L), pointHoldLedger);
+		PointHoldExpiryWorker holdExpiryWorker = new PointHoldExpiryWorker(false, 1000L, 100, pointHoldLedger, holdPointService);
+		long userId = 2L;
+
+		// 100 중 60 예약, 잔액과 히스토리는 그대로
+		PointHold first = holdPointService.holdPoints(userId, 60L, 0L);
+		assertEquals(100L, holdPointService.getUserPoint(userId).point());
+		assertEquals(60L, holdPointService.heldPoints(userId));
+
+		// 남은 사용 가능 포인트(40)를 넘는 예약/사용은 실패
+		assertThrows(CustomException.class, () -> holdPointService.holdPoints(userId, 50L, 0L));
+		assertThrows(CustomException.class, () -> holdPointService.usePoints(userId, 50L));
+
+		// 확정하면 잔액에서 차감되고 USE 히스토리가 남음, 같은 예약은 다시 확정할 수 없음
+		assertEquals(40L, holdPointService.captureHold(userId, first.holdId()).point());
+		assertEquals(0L, holdPointService.heldPoints(userId));
+		assertEquals(TransactionType.USE, holdPointService.getPointHistories(userId).get(0).type());
+		assertThrows(CustomException.class, () -> holdPointService.captureHold(userId, first.holdId()));
+
+		// 취소한 예약은 사용 가능 포인트로 돌아옴, 다른 유저의 예약 id 로는 취소할 수 없음
+		PointHold second = holdPointService.holdPoints(userId, 30L, 0L);
+		assertThrows(CustomException.class, () -> holdPointService.releaseHold(3L, second.holdId()));
+		holdPointService.releaseHold(userId, second.holdId());
+		assertEquals(0L, holdPointService.heldPoints(userId));
+
+		// 만료된 예약은 일괄 취소되고 확정할 수 없음
+		PointHold third = holdPointService.holdPoints(userId, 10L, 1_000L);
+		PointHold fourth = holdPointService.holdPoints(userId, 10L, 1_000L);
+		assertEquals(0, holdExpiryWorker.releaseDue(System.currentTimeMillis()));
+		assertEquals(2, holdExpiryWorker.releaseDue(third.expireAtMillis() + 2_000L));
+		assertEquals(0L, holdPointService.heldPoints(userId));
+		assertThrows(CustomException.class, () -> holdPointService.captureHold(userId, fourth.holdId()));
+		assertEquals(40L, userPointRepository.selectById(userId).point());
+	}
+
+	/**
+	 * 예약은 게시된 view 의 잔액으로 처리 테스트
+	 * read model 에 view 가 있으면 예약은 저장소를 조회하지 않고, view 가 없을 때만 저장소에서 읽어야 함
+	 * */
+	@Test
+	void holdReadsCommittedViewTest() throws CustomException {
+		AtomicInteger selects = new AtomicInteger();
+		UserPointRepository countingUserPointRepository = new UserPointRepository() {
+			@Override
+			public UserPoint selectById(Long id) {
+				selects.incrementAndGet();
+				return userPointRepository.selectById(id);
+			}
+
+			@Override
+			public UserPoint insertOrUpdate(long id, long amount) {
+				return userPointRepository.insertOrUpdate(id, amount);
+			}
+
+			@Override
+			public void forEach(Consumer<UserPoint> action) {
+				userPointRepository.forEach(action);
+			}
+
+			@Override
+			public void bulkInsert(UserPoint userPoint) {
+				userPointRepository.bulkInsert(userPoint);
+			}
+		};
+		PointService holdPointService = new PointService(countingUserPointRepository, pointHistoryRepository);
+		long userId = 2L;
+
+		// view 가 없으면 저장소에서 읽음
+		holdPointService.holdPoints(userId, 10L, 0L);
+		assertEquals(1, selects.get());
+
+		// 조회로 적재되고 충전으로 다시 게시된 view 가 있으면 저장소를 조회하지 않고, 충전 결과가 반영된 잔액으로 판단
+		holdPointService.getUserPoint(userId);
+		holdPointService.chargePoints(userId, 50L);
+		selects.set(0);
+		holdPointService.holdPoints(userId, 140L, 0L);
+		assertThrows(CustomException.class, () -> holdPointService.holdPoints(userId, 1L, 0L));
+		assertEquals(0, selects.get());
+		assertEquals(150L, holdPointService.heldPoints(userId));
+	}
+
+	/**
+	 * 예약 확정 실패 테스트
+	 * 히스토리 저장에 실패하면 잔액은 원복되고 예약은 그대로 남아 다시 확정하거나 취소할 수 있어야 함
+	 * */
+	@Test
+	void failedCaptureKeepsHoldTest() throws CustomException {
+		PointHistoryRepository failingPointHistoryRepository = new PointHistoryRepositoryImpl(List.of(new PointHistoryTable() {
+			@Override
+			public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+				if (amount == 7L) {
+					throw new IllegalStateException("history 저장 실패");
+				}
+				return super.insert(userId, amount, type, updateMillis);
+			}
+		}));
+		PointService holdPointService = new PointService(userPointRepository, failingPointHistoryRepository, new PointReadModel(), HotKeyDetector.disabled(),
+				new ChargeLotLedger(1000L), new PointHoldLedger(1000L, 600_000L));
+		long userId = 2L;
+
+		PointHold hold = holdPointService.holdPoints(userId, 7L, 0L);
+		assertThrows(IllegalStateException.class, () -> holdPointService.captureHold(userId, hold.holdId()));
+		assertEquals(100L, userPointRepository.selectById(userId).point());
+		assertEquals(7L, holdPointService.heldPoints(userId));
+
+		holdPointService.releaseHold(userId, hold.holdId());
+		assertEquals(0L, holdPointService.heldPoints(userId));
+	}
+
+	/**
+	 * 예약 중 포인트 만료 테스트
+	 * 잔액이 예약 합계 아래로 내려가지 않도록 사용 가능 포인트까지만 소멸되고,
+	 * 예약에 묶여 남은 만료분은 예약이 풀린 뒤 다음 만료 처리에서 소멸되어야 함
+	 * */
+	@Test
+	void expiryKeepsHeldPointsTest() throws CustomException {
+		ChargeLotLedger chargeLotLedger = new ChargeLotLedger(1000L);
+		PointService expiryPointService = new PointService(userPointRepository, pointHistoryRepository, new PointReadModel(), HotKeyDetector.disabled(),
+				chargeLotLedger, new PointHoldLedger(1000L, 600_000L));
+		PointExpiryWorker expiryWorker = new PointExpiryWorker(false, 1000L, 100, chargeLotLedger, expiryPointService);
+		long userId = 2L;
+		long expireAt = System.currentTimeMillis() + 5_000L;
+
+		// 기존 100 + 만료되는 50, 그중 130 예약
+		expiryPointService.chargePoints(userId, 50L, expireAt);
+		PointHold hold = expiryPointService.holdPoints(userId, 130L, 60_000L);
+
+		// 사용 가능 포인트 20 만 소멸
+		assertEquals(1, expiryWorker.expireDue(expireAt + 1_000L));
+		assertEquals(130L, userPointRepository.selectById(userId).point());
+		assertEquals(130L, expiryPointService.heldPoints(userId));
+
+		// 예약이 풀리면 남은 만료분 30 이 다음 만료 처리에서 소멸
+		expiryPointService.releaseHold(userId, hold.holdId());
+		assertEquals(1, expiryWorker.expireDue(expireAt + 3_000L));
+		assertEquals(100L, userPointRepository.selectById(userId).point());
+		assertEquals(List.of(20L, 30L), expiryPointService.getPointHistories(userId).stream()
+				.filter(history -> history.type() == TransactionType.EXPIRE).map(PointHistory::amount).toList());
+	}
+
+	/**
+	 * 유저 넘기기(handoff) 테스트
+	 * 넘긴 뒤에는 이전 노드의 데이터가 지워지고 쓰기가 거절되어야 하며,
+	 * 넘겨받는 쪽은 기존 데이터에 덧붙이지 않고 넘어온 데이터로 교체해야 함
+	 * */
+	@Test
+	void handOffUserTest() throws CustomException {
+		long userId = 2L;
+		pointService.chargePoints(userId, 50L);
+		pointService.usePoints(userId, 30L);
+
+		// 받는 쪽에는 같은 유저의 옛 데이터가 남아 있음
+		UserPointRepository targetUserPointRepository = new UserPointRepositoryImpl(new UserPointTable());
+		PointHistoryRepository targetPointHistoryRepository = new PointHistoryRepositoryImpl(new PointHistoryTable());
+		PointService targetPointService = new PointService(targetUserPointRepository, targetPointHistoryRepository);
+		targetUserPointRepository.insertOrUpdate(userId, 5L);
+		targetPointService.chargePoints(userId, 10L);
+
+		pointService.setOwnership(id -> id != userId);
+		List<UserPoint> sent = new ArrayList<>();
+		pointService.handOffUser(userId, snapshot -> {
+			sent.add(snapshot.userPoint());
+			targetPointService.restoreUser(userId, snapshot.userPoint().point(), snapshot.histories(), snapshot.rollups());
+		});
+
+		assertEquals(120L, sent.get(0).point());
+		assertEquals(120L, targetPointService.getUserPoint(userId).point());
+		List<PointHistory> restored = targetPointService.getPointHistories(userId);
+		assertEquals(2, restored.size());
+		assertEquals(List.of(50L, 30L), restored.stream().map(PointHistory::amount).toList());
+
+		// 이전 노드에는 아무것도 남지 않고 쓰기는 거절됨
+		assertEquals(0L, userPointRepository.selectById(userId).point());
+		assertTrue(pointHistoryRepository.selectAllByUserId(userId).isEmpty());
+		assertThrows(CustomException.class, () -> pointService.chargePoints(userId, 10L));
+		assertThrows(CustomException.class, () -> pointService.transferPoints(userId, 3L, 10L));
+		assertEquals(70L, pointService.chargePoints(3L, 20L).point());
+	}
+
+	// barrier 가 열려 있으면(armed) 쓰기마다 다른 스레드의 쓰기와 만날 때까지 기다리는 table
+	private static class RendezvousUserPointTable extends UserPointTable {
+
+		private final CyclicBarrier barrier;
+		private final AtomicBoolean armed;
+
+		RendezvousUserPointTable(CyclicBarrier barrier, AtomicBoolean armed) {
+			this.barrier = barrier;
+			this.armed = armed;
+		}
+
+		@Override
+		public UserPoint insertOrUpdate(long id, long amount) {
+			rendezvous(barrier, armed);
+			return super.insertOrUpdate(id, amount);
+		}
+	}
+
+	private static class RendezvousPointHistoryTable extends PointHistoryTable {
+
+		private final CyclicBarrier barrier;
+		private final AtomicBoolean armed;
+
+		RendezvousPointHistoryTable(CyclicBarrier barrier, AtomicBoolean armed) {
+			this.barrier = barrier;
+			this.armed = armed;
+		}
+
+		@Override
+		public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+			rendezvous(barrier, armed);
+			return super.insert(userId, amount, type, updateMillis);
+		}
+	}
+
+	private static void rendezvous(CyclicBarrier barrier, AtomicBoolean armed) {
+		if (!armed.get()) {
+			return;
+		}
+		try {
+			barrier.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+			throw new IllegalStateException("다른 이체의 쓰기와 만나지 못했습니다.", e);
+		}
+	}
 }
@@ -0,0 +1,184 @@
+package io.hhplus.tdd.point.stress;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 한 유저의 호출 기록이 순차 잔액 모델로 설명되는지 검사 (Wing & Gong / Lowe 방식)
+ *
+ * 호출 시작/응답 시각으로 이벤트 목록을 만들고, 아직 선형화하지 않은 호출 중 응답보다 먼저 시작한 호출을 하나씩
+ * 모델에 적용해 본다. 적용할 수 없으면 되돌아가서(backtrack) 다른 순서를 시도한다.
+ * (선형화한 호출 집합, 잔액) 쌍을 기억해서 같은 상태를 다시 탐색하지 않는다.
+ *
+ * 유저끼리는 잔액이 독립이므로 유저별로 나눠서 검사하면 전체 기록을 검사한 것과 같다.
+ *
+ * 순차 모델 (PointService 의 규칙과 같음)
+ * - 잔액 0 인 유저는 존재하지 않는 유저이므로 모든 호출이 거절된다.
+ * - charge : 잔액 + amount 로 성공
+ * - use : 잔액이 amount 보다 적으면 거절, 아니면 잔액 - amount 로 성공
+ * - get : 잔액을 그대로 반환
+ */
+final class LinearizabilityChecker {
+
+    private LinearizabilityChecker() {
+    }
+
+    /**
+     * @return 선형화할 수 없으면 그 이유, 선형화할 수 있으면 null
+     */
+    static String check(List<StressOperation> history, long initialBalance) {
+        if (history.isEmpty()) {
+            return null;
+        }
+
+        Entry head = buildEntries(history);
+        BitSet linearized = new BitSet(history.size());
+        Set<State> visited = new HashSet<>();
+        Deque<Step> steps = new ArrayDeque<>();
+        long balance = initialBalance;
+        // 가장 많이 선형화했던 지점, 실패 시 보고용
+        int deepest = 0;
+        long deepestBalance = initialBalance;
+        Entry deepestBlocker = null;
+
+        Entry entry = head.next;
+        while (head.next != null) {
+            if (entry.call) {
+                StressOperation operation = history.get(entry.index);
+                long next = apply(operation, balance);
+                if (next != REJECTED_BY_MODEL) {
+                    BitSet candidate = (BitSet) linearized.clone();
+                    candidate.set(entry.index);
+                    if (visited.add(new State(candidate, next))) {
+                        steps.push(new Step(entry, balance));
+                        linearized = candidate;
+                        balance = next;
+                        entry.lift();
+                        entry = head.next;
+                        continue;
+                    }
+                }
+                entry = entry.next;
+            } else {
+                // 응답 이전에 시작한 호출로는 이 호출을 설명할 수 없으므로 되돌아간다.
+                if (steps.size() >= deepest) {
+                    deepest = steps.size();
+                    deepestBalance = balance;
+                    deepestBlocker = entry;
+                }
+                if (steps.isEmpty()) {
+                    return String.format("선형화 실패: %d건까지 선형화, 잔액 %d 에서 %s 를 설명할 수 없음", deepest, deepestBalance,
+                            history.get(deepestBlocker.index));
+                }
+                Step step = steps.pop();
+                step.entry.unlift();
+                linearized.clear(step.entry.index);
+                balance = step.balance;
+                entry = step.entry.next;
+            }
+        }
+        return null;
+    }
+
+    // 모델에 호출을 적용한 뒤의 잔액, 기록된 결과와 맞지 않으면 REJECTED_BY_MODEL
+    private static final long REJECTED_BY_MODEL = Long.MIN_VALUE;
+
+    private static long apply(StressOperation operation, long balance) {
+        boolean exists = balance != 0L;
+        return switch (operation.type()) {
+            case CHARGE -> {
+                if (!exists) {
+                    yield operation.succeeded() ? REJECTED_BY_MODEL : balance;
+                }
+                long next = balance + operation.amount();
+                yield operation.succeeded() && operation.result() == next ? next : REJECTED_BY_MODEL;
+            }
+            case USE -> {
+                if (!exists || balance < operation.amount()) {
+                    yield operation.succeeded() ? REJECTED_BY_MODEL : balance;
+                }
+                long next = balance - operation.amount();
+                yield operation.succeeded() && operation.result() == next ? next : REJECTED_BY_MODEL;
+            }
+            case GET -> {
+                if (!exists) {
+                    yield operation.succeeded() ? REJECTED_BY_MODEL : balance;
+                }
+                yield operation.succeeded() && operation.result() == balance ? balance : REJECTED_BY_MODEL;
+            }
+        };
+    }
+
+    // 시각 순서의 call/return 이벤트 연결 리스트, 같은 시각이면 call 을 먼저 두어 동시 호출로 본다.
+    private static Entry buildEntries(List<StressOperation> history) {
+        List<Entry> events = new ArrayList<>(history.size() * 2);
+        for (int i = 0; i < history.size(); i++) {
+            StressOperation operation = history.get(i);
+            Entry call = new Entry(i, true, operation.invokeNanos());
+            Entry response = new Entry(i, false, operation.responseNanos());
+            call.match = response;
+            events.add(call);
+            events.add(response);
+        }
+        events.sort(Comparator.comparingLong((Entry event) -> event.time).thenComparing(event -> !event.call));
+
+        Entry head = new Entry(-1, false, Long.MIN_VALUE);
+        Entry previous = head;
+        for (Entry event : events) {
+            previous.next = event;
+            event.prev = previous;
+            previous = event;
+        }
+        return head;
+    }
+
+    private static final class Entry {
+        private final int index;
+        private final boolean call;
+        private final long time;
+        private Entry match;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(int index, boolean call, long time) {
+            this.index = index;
+            this.call = call;
+            this.time = time;
+        }
+
+        // call 과 짝이 되는 return 을 리스트에서 뺀다. 자신의 prev/next 는 되돌릴 때 쓰기 위해 그대로 둔다.
+        private void lift() {
+            prev.next = next;
+            if (next != null) {
+                next.prev = prev;
+            }
+            match.prev.next = match.next;
+            if (match.next != null) {
+                match.next.prev = match.prev;
+            }
+        }
+
+        private void unlift() {
+            match.prev.next = match;
+            if (match.next != null) {
+                match.next.prev = match;
+            }
+            prev.next = this;
+            if (next != null) {
+                next.prev = this;
+            }
+        }
+    }
+
+    private record Step(Entry entry, long balance) {
+    }
+
+    private record State(BitSet linearized, long balance) {
+    }
+}
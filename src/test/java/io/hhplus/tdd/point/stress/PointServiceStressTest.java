@@ -0,0 +1,159 @@
+package io.hhplus.tdd.point.stress;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.expiry.ChargeLotLedger;
+import io.hhplus.tdd.point.hotkey.HotKeyDetector;
+import io.hhplus.tdd.point.readmodel.PointReadModel;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.stress.StressOperation.Type;
+import io.hhplus.tdd.repository.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.repository.TieredPointHistoryRepository;
+import io.hhplus.tdd.repository.UserPointRepository;
+import io.hhplus.tdd.repository.UserPointRepositoryImpl;
+import io.hhplus.tdd.repository.history.HeapSegmentStore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointServiceStressTest {
+
+    // 검사기가 잘못된 기록을 잡아내는지 확인, 시각은 [invoke, response]
+    @Test
+    void checkerRejectsNonLinearizableHistoryTest() {
+        // 겹치는 두 charge 는 어느 순서로든 설명되면 통과
+        assertNull(LinearizabilityChecker.check(List.of(
+                operation(Type.CHARGE, 10, 0, 10, true, 130),
+                operation(Type.CHARGE, 20, 5, 15, true, 120),
+                operation(Type.GET, 0, 20, 25, true, 130)
+        ), 100L));
+
+        // 순서가 정해진 두 charge 가 같은 잔액을 기반으로 계산됨 (lost update)
+        assertNotNull(LinearizabilityChecker.check(List.of(
+                operation(Type.CHARGE, 10, 0, 10, true, 110),
+                operation(Type.CHARGE, 10, 20, 30, true, 110)
+        ), 100L));
+
+        // 겹치는 두 charge 가 같은 잔액을 기반으로 계산됨 (다른 인스턴스의 쓰기를 덮어쓴 lost update)
+        assertNotNull(LinearizabilityChecker.check(List.of(
+                operation(Type.CHARGE, 10, 0, 10, true, 110),
+                operation(Type.CHARGE, 20, 5, 15, true, 120)
+        ), 100L));
+
+        // 끝난 use 이후에 시작한 get 이 이전 잔액을 읽음 (stale read)
+        assertNotNull(LinearizabilityChecker.check(List.of(
+                operation(Type.USE, 30, 0, 10, true, 70),
+                operation(Type.GET, 0, 20, 30, true, 100)
+        ), 100L));
+
+        // 잔액이 충분한데 거절된 use
+        assertNotNull(LinearizabilityChecker.check(List.of(
+                operation(Type.USE, 30, 0, 10, false, 0)
+        ), 100L));
+    }
+
+    // 기본 구성 (유저별 lock + read model)
+    @Test
+    void defaultServiceStressTest() throws InterruptedException {
+        MemoryUserPointRepository userPointRepository = new MemoryUserPointRepository();
+        PointService pointService = new PointService(userPointRepository, new TieredPointHistoryRepository(256, new HeapSegmentStore()));
+
+        PointStressHarness.Result result = PointStressHarness.run(PointStressHarness.Config.of(42L), pointService, userPointRepository);
+        System.out.println("default >> " + result);
+        assertTrue(result.linearizable(), result.toString());
+        assertEquals(16 * 200, result.operations());
+    }
+
+    // hot 유저 요청을 모아서 처리하는 구성
+    @Test
+    void hotKeyBatchingStressTest() throws InterruptedException {
+        MemoryUserPointRepository userPointRepository = new MemoryUserPointRepository();
+        PointService pointService = new PointService(userPointRepository, new TieredPointHistoryRepository(256, new HeapSegmentStore()),
+                new PointReadModel(), new HotKeyDetector(true, 1_000L, 5L, 4, 1024), new ChargeLotLedger(1000L));
+
+        PointStressHarness.Result result = PointStressHarness.run(PointStressHarness.Config.of(7L), pointService, userPointRepository);
+        System.out.println("hot key batching >> " + result);
+        assertTrue(result.linearizable(), result.toString());
+    }
+
+    // 같은 repository 를 쓰는 두 인스턴스, 저장소의 조건부 증감(addPoint)이 원자적이면 charge/use 는 선형화 가능해야 함
+    // 조회는 인스턴스마다 read model 이 따로라서 다른 인스턴스의 쓰기를 늦게 볼 수 있으므로 섞지 않는다.
+    @Test
+    void sharedRepositoryAcrossInstancesStressTest() throws InterruptedException {
+        MemoryUserPointRepository userPointRepository = new MemoryUserPointRepository();
+        PointService first = new PointService(userPointRepository, new TieredPointHistoryRepository(256, new HeapSegmentStore()));
+        PointService second = new PointService(userPointRepository, new TieredPointHistoryRepository(256, new HeapSegmentStore()));
+
+        PointStressHarness.Result result = PointStressHarness.run(PointStressHarness.Config.of(11L).withGetPercent(0),
+                List.of(first, second), userPointRepository);
+        System.out.println("two instances >> " + result);
+        assertTrue(result.linearizable(), result.toString());
+    }
+
+    // 실제 table 구성, throttle 때문에 호출 수를 줄인다.
+    @Test
+    void tableRepositoryStressTest() throws InterruptedException {
+        UserPointRepository userPointRepository = new UserPointRepositoryImpl(new UserPointTable());
+        PointService pointService = new PointService(userPointRepository, new PointHistoryRepositoryImpl(new PointHistoryTable()));
+
+        PointStressHarness.Result result = PointStressHarness.run(PointStressHarness.Config.of(2024L).withOperationsPerThread(3),
+                pointService, userPointRepository);
+        System.out.println("table >> " + result);
+        assertTrue(result.linearizable(), result.toString());
+    }
+
+    private static StressOperation operation(Type type, long amount, long invokeNanos, long responseNanos, boolean succeeded, long result) {
+        return new StressOperation(type, 1L, amount, invokeNanos, responseNanos, succeeded, result);
+    }
+
+    // 저장소 지연 없이 서비스의 동시성 제어만 보기 위한 repository, 증감은 JDBC 저장소처럼 원자적으로 반영한다.
+    private static class MemoryUserPointRepository implements UserPointRepository {
+
+        private final ConcurrentHashMap<Long, UserPoint> users = new ConcurrentHashMap<>();
+
+        @Override
+        public UserPoint selectById(Long id) {
+            return users.getOrDefault(id, UserPoint.empty(id));
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+            users.put(id, userPoint);
+            return userPoint;
+        }
+
+        // 잔액이 음수가 되지 않을 때만 반영 (UPDATE ... WHERE point + delta >= 0 과 같은 동작)
+        @Override
+        public UserPoint addPoint(long id, long current, long delta) {
+            boolean[] applied = new boolean[1];
+            UserPoint updated = users.computeIfPresent(id, (userId, userPoint) -> {
+                if (userPoint.point() + delta < 0) {
+                    return userPoint;
+                }
+                applied[0] = true;
+                return new UserPoint(userId, userPoint.point() + delta, System.currentTimeMillis());
+            });
+            return applied[0] ? updated : null;
+        }
+
+        @Override
+        public void forEach(Consumer<UserPoint> action) {
+            users.values().forEach(action);
+        }
+
+        @Override
+        public void bulkInsert(UserPoint userPoint) {
+            users.put(userPoint.id(), userPoint);
+        }
+    }
+}
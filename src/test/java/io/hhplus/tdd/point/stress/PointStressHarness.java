@@ -0,0 +1,156 @@
+package io.hhplus.tdd.point.stress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.hhplus.tdd.custom.CustomException;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.repository.UserPointRepository;
+
+/**
+ * PointService 동시성 stress 실행기
+ *
+ * 스레드마다 seed 로 정해지는 charge/use/get 을 임의 유저에 대해 호출하고, 호출 시작/응답 시각과 결과를 기록한다.
+ * 실행이 끝나면 유저별 기록을 LinearizabilityChecker 로 검사하고 처리량을 함께 보고한다.
+ *
+ * 스레드별 호출 순서와 인자는 seed 로 재현되지만 스레드간 interleaving 은 실행마다 다르다.
+ * 실패한 seed 는 -Dpoint.stress.seed=<seed> 로 다시 실행할 수 있다.
+ */
+final class PointStressHarness {
+
+    private PointStressHarness() {
+    }
+
+    /**
+     * @param usePercent  use 비율(%), 나머지에서 getPercent 만큼이 get 이고 남은 비율이 charge
+     * @param maxAmount   charge/use 금액은 1 ~ maxAmount
+     */
+    record Config(long seed, int users, int threads, int operationsPerThread, long initialBalance, long maxAmount,
+                  int usePercent, int getPercent) {
+
+        static Config of(long seed) {
+            return new Config(Long.getLong("point.stress.seed", seed), 4, 16, 200, 1_000L, 100L, 40, 30);
+        }
+
+        Config withOperationsPerThread(int operationsPerThread) {
+            return new Config(seed, users, threads, operationsPerThread, initialBalance, maxAmount, usePercent, getPercent);
+        }
+
+        Config withGetPercent(int getPercent) {
+            return new Config(seed, users, threads, operationsPerThread, initialBalance, maxAmount, usePercent, getPercent);
+        }
+    }
+
+    /**
+     * @param violations 선형화할 수 없는 유저별 사유, 비어 있으면 모든 기록이 선형화 가능
+     */
+    record Result(Config config, int operations, long elapsedNanos, List<String> violations) {
+
+        double throughput() {
+            return operations * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        boolean linearizable() {
+            return violations.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("seed=%d, threads=%d, users=%d, operations=%d, throughput=%.1f ops/s, linearizable=%s%s",
+                    config.seed(), config.threads(), config.users(), operations, throughput(), linearizable(),
+                    violations.isEmpty() ? "" : ", violations=" + violations);
+        }
+    }
+
+    /**
+     * userPointRepository 에 유저 1 ~ users 를 initialBalance 로 만든 뒤 pointService 에 부하를 준다.
+     * pointService 는 해당 repository 를 쓰는 어떤 구성이든 될 수 있다.
+     */
+    static Result run(Config config, PointService pointService, UserPointRepository userPointRepository) throws InterruptedException {
+        return run(config, List.of(pointService), userPointRepository);
+    }
+
+    /**
+     * 같은 repository 를 쓰는 여러 인스턴스(노드)에 부하를 준다. 스레드는 인스턴스를 돌아가며 하나씩 맡는다.
+     */
+    static Result run(Config config, List<PointService> pointServices, UserPointRepository userPointRepository) throws InterruptedException {
+        for (long userId = 1; userId <= config.users(); userId++) {
+            userPointRepository.insertOrUpdate(userId, config.initialBalance());
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(config.threads());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<StressOperation>>> futures = new ArrayList<>();
+        for (int thread = 0; thread < config.threads(); thread++) {
+            Random random = new Random(config.seed() * 31 + thread);
+            PointService pointService = pointServices.get(thread % pointServices.size());
+            futures.add(executorService.submit(() -> {
+                start.await();
+                List<StressOperation> operations = new ArrayList<>(config.operationsPerThread());
+                for (int i = 0; i < config.operationsPerThread(); i++) {
+                    operations.add(invoke(config, pointService, random));
+                }
+                return operations;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        Map<Long, List<StressOperation>> historyByUser = new TreeMap<>();
+        try {
+            for (Future<List<StressOperation>> future : futures) {
+                for (StressOperation operation : future.get()) {
+                    historyByUser.computeIfAbsent(operation.userId(), id -> new ArrayList<>()).add(operation);
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("stress 실행 중 예상하지 못한 예외가 발생했습니다. seed=" + config.seed(), e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        List<String> violations = new ArrayList<>();
+        int operations = 0;
+        for (Map.Entry<Long, List<StressOperation>> entry : historyByUser.entrySet()) {
+            operations += entry.getValue().size();
+            String violation = LinearizabilityChecker.check(entry.getValue(), config.initialBalance());
+            if (violation != null) {
+                violations.add("user " + entry.getKey() + ": " + violation);
+            }
+        }
+        return new Result(config, operations, elapsedNanos, violations);
+    }
+
+    private static StressOperation invoke(Config config, PointService pointService, Random random) {
+        long userId = 1 + random.nextInt(config.users());
+        long amount = 1 + (long) random.nextInt((int) config.maxAmount());
+        int dice = random.nextInt(100);
+        StressOperation.Type type = dice < config.usePercent() ? StressOperation.Type.USE
+                : dice < config.usePercent() + config.getPercent() ? StressOperation.Type.GET
+                : StressOperation.Type.CHARGE;
+
+        long invokeNanos = System.nanoTime();
+        boolean succeeded = true;
+        long result = 0L;
+        try {
+            result = switch (type) {
+                case CHARGE -> pointService.chargePoints(userId, amount).point();
+                case USE -> pointService.usePoints(userId, amount).point();
+                case GET -> pointService.getUserPoint(userId).point();
+            };
+        } catch (CustomException e) {
+            succeeded = false;
+        }
+        long responseNanos = System.nanoTime();
+        return new StressOperation(type, userId, type == StressOperation.Type.GET ? 0L : amount, invokeNanos, responseNanos, succeeded, result);
+    }
+}
@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point.stress;
+
+/**
+ * stress 실행 중 기록한 호출 1건
+ * - invokeNanos / responseNanos : 호출 직전, 응답 직후의 System.nanoTime
+ * - succeeded : CustomException 없이 끝났는지
+ * - result : 성공한 경우 응답의 포인트 (charge/use 는 변경 후, get 은 조회된 값)
+ */
+record StressOperation(
+        Type type,
+        long userId,
+        long amount,
+        long invokeNanos,
+        long responseNanos,
+        boolean succeeded,
+        long result
+) {
+
+    enum Type {
+        CHARGE, USE, GET
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(user=%d, amount=%d) [%d, %d] -> %s", type, userId, amount, invokeNanos, responseNanos,
+                succeeded ? String.valueOf(result) : "rejected");
+    }
+}
@@ -0,0 +1,125 @@
+package io.hhplus.tdd.point.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.repository.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.repository.UserPointRepository;
+import io.hhplus.tdd.repository.UserPointRepositoryImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestTracerTest {
+
+    // 충전 요청의 단계별 소요 시간이 저장소 호출 단위로 기록되어야 함
+    @Test
+    void chargeTimelineTest() throws Exception {
+        RequestTracer tracer = new RequestTracer(true, 0L, 0.0, 16);
+        UserPointRepository userPointRepository = new UserPointRepositoryImpl(new UserPointTable());
+        PointService pointService = new PointService(userPointRepository, new PointHistoryRepositoryImpl(new PointHistoryTable()));
+        userPointRepository.insertOrUpdate(1L, 1_000L);
+
+        tracer.begin("PATCH", "/point/1/charge");
+        pointService.chargePoints(1L, 500L);
+        tracer.end();
+
+        List<RequestTrace> traces = tracer.slowest(10);
+        assertEquals(1, traces.size());
+        RequestTrace trace = traces.get(0);
+        assertEquals("PATCH /point/1/charge", trace.request());
+        assertEquals(List.of(TraceStage.HANDLER, TraceStage.LOCK_WAIT, TraceStage.SELECT_POINT,
+                        TraceStage.UPDATE_POINT, TraceStage.INSERT_HISTORY, TraceStage.RESPOND),
+                trace.spans().stream().map(TraceSpan::stage).toList());
+        assertTrue(trace.totalMicros() >= trace.spans().stream().mapToLong(TraceSpan::micros).sum());
+        System.out.println("trace >> " + trace);
+    }
+
+    // threshold 미만이고 샘플링 되지 않은 요청은 보관하지 않아야 함
+    @Test
+    void onlySlowRequestsAreKeptTest() throws InterruptedException {
+        RequestTracer tracer = new RequestTracer(true, 20L, 0.0, 16);
+        for (int i = 0; i < 10_000; i++) {
+            tracer.begin("GET", "/point/1");
+            RequestTracer.mark(TraceStage.READ_MODEL);
+            tracer.end();
+        }
+        assertEquals(0, tracer.slowest(10).size());
+
+        tracer.begin("GET", "/point/2");
+        RequestTracer.mark(TraceStage.LOCK_WAIT);
+        Thread.sleep(30L);
+        RequestTracer.mark(TraceStage.RESPOND);
+        tracer.end();
+
+        List<RequestTrace> traces = tracer.slowest(10);
+        assertEquals(1, traces.size());
+        assertTrue(!traces.get(0).sampled());
+        assertTrue(traces.get(0).spans().get(1).micros() >= 30_000L);
+    }
+
+    // 여러 스레드가 동시에 ring buffer 에 쓰고 읽어도 깨진 trace 가 조회되지 않아야 함
+    @Test
+    void concurrentRingBufferTest() throws Exception {
+        RequestTracer tracer = new RequestTracer(true, 0L, 0.0, 64);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String uri = "/point/" + t;
+            futures.add(executorService.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    tracer.begin("PATCH", uri);
+                    RequestTracer.mark(TraceStage.LOCK_WAIT);
+                    RequestTracer.mark(TraceStage.UPDATE_POINT);
+                    tracer.end();
+                }
+            }));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            for (RequestTrace trace : tracer.slowest(64)) {
+                assertEquals(3, trace.spans().size());
+                assertTrue(trace.request().startsWith("PATCH /point/"));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        assertEquals(64, tracer.slowest(100).size());
+    }
+
+    // 보관하지 않는 요청의 추적 비용은 ns 단위여야 함
+    // 실행 환경의 CPU 에 따라 결과가 달라지므로 performance 태그로 분리한다.
+    @Test
+    @Tag("performance")
+    void untracedOverheadTest() {
+        RequestTracer tracer = new RequestTracer(true, 1_000L, 0.0, 16);
+        int requests = 2_000_000;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                tracer.begin("PATCH", "/point/1/charge");
+                RequestTracer.mark(TraceStage.LOCK_WAIT);
+                RequestTracer.mark(TraceStage.SELECT_POINT);
+                RequestTracer.mark(TraceStage.UPDATE_POINT);
+                RequestTracer.mark(TraceStage.INSERT_HISTORY);
+                RequestTracer.mark(TraceStage.RESPOND);
+                tracer.end();
+            }
+            long perRequestNanos = (System.nanoTime() - start) / requests;
+            System.out.printf("untraced request overhead >> %dns (6 stages)%n", perRequestNanos);
+            if (round == 1) {
+                assertTrue(perRequestNanos < 1_000L);
+            }
+        }
+    }
+}
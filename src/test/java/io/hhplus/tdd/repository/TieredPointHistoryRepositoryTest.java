@@ -0,0 +1,263 @@
+package io.hhplus.tdd.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.repository.history.FileSegmentStore;
+import io.hhplus.tdd.repository.history.HeapSegmentStore;
+import io.hhplus.tdd.repository.history.OffHeapSegmentStore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TieredPointHistoryRepositoryTest {
+
+    // PointHistory 객체 1건이 힙에서 차지하는 크기 (객체 헤더 12 + long 4개 32 + enum 참조 4 + 리스트 슬롯 4, compressed oops 기준)
+    private static final long PLAIN_ROW_BYTES = 52L;
+
+    // 세그먼트 저장 위치와 관계없이 넣은 순서 그대로 조회되어야 함
+    @Test
+    void selectMergesHotAndColdTiersTest() throws Exception {
+        List<TieredPointHistoryRepository> repositories = List.of(
+                new TieredPointHistoryRepository(64, new HeapSegmentStore()),
+                new TieredPointHistoryRepository(64, new OffHeapSegmentStore(1024)),
+                new TieredPointHistoryRepository(64, new FileSegmentStore(Files.createTempDirectory("point-history-test")))
+        );
+
+        for (TieredPointHistoryRepository repository : repositories) {
+            List<PointHistory> expected1 = new ArrayList<>();
+            List<PointHistory> expected2 = new ArrayList<>();
+            Random random = new Random(42);
+            long millis = System.currentTimeMillis();
+            for (int i = 0; i < 1_000; i++) {
+                long userId = random.nextBoolean() ? 1L : 2L;
+                TransactionType type = random.nextBoolean() ? TransactionType.CHARGE : TransactionType.USE;
+                // 복원된 히스토리처럼 시각이 뒤로 가는 경우도 포함
+                millis += random.nextInt(2_000) - 200;
+                PointHistory inserted = repository.insert(userId, random.nextInt(100_000), type, millis);
+                (userId == 1L ? expected1 : expected2).add(inserted);
+            }
+
+            assertEquals(expected1, repository.selectAllByUserId(1L));
+            assertEquals(expected2, repository.selectAllByUserId(2L));
+            assertEquals(List.of(), repository.selectAllByUserId(3L));
+            assertTrue(repository.sealedRows() > 0);
+        }
+    }
+
+    // 봉인된 히스토리는 객체로 들고 있을 때보다 10배 이상 작아야 함
+    @Test
+    void sealedSegmentsShrinkHeapTest() {
+        TieredPointHistoryRepository repository = new TieredPointHistoryRepository(256, new HeapSegmentStore());
+        long[] amounts = {1_000L, 3_000L, 5_000L, 10_000L, 50_000L};
+        Random random = new Random(7);
+        long millis = System.currentTimeMillis();
+        // 유저 100명이 초당 10건 정도 충전/사용하는 상황
+        for (int i = 0; i < 100_000; i++) {
+            millis += random.nextInt(200);
+            repository.insert(1 + random.nextInt(100), amounts[random.nextInt(amounts.length)], random.nextBoolean() ? TransactionType.CHARGE : TransactionType.USE, millis);
+        }
+
+        double bytesPerRow = (double) repository.sealedBytes() / repository.sealedRows();
+        System.out.printf("sealed rows >> %d, bytes/row >> %.2f%n", repository.sealedRows(), bytesPerRow);
+        assertTrue(bytesPerRow * 10 < PLAIN_ROW_BYTES);
+    }
+
+    // 여러 스레드가 같은 유저에 동시에 쓰더라도 유저 안에서 id 는 증가 순서로 조회되어야 함
+    @Test
+    void concurrentInsertTest() throws Exception {
+        TieredPointHistoryRepository repository = new TieredPointHistoryRepository(32, new OffHeapSegmentStore(4096));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    repository.insert(1L, 1L, TransactionType.CHARGE, System.currentTimeMillis());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<PointHistory> histories = repository.selectAllByUserId(1L);
+        assertEquals(4_000, histories.size());
+        for (int i = 1; i < histories.size(); i++) {
+            assertTrue(histories.get(i - 1).id() < histories.get(i).id());
+        }
+    }
+
+    // 기준 시각 이전 히스토리는 일별 rollup 으로 접히고, 남은 히스토리는 순서 그대로 조회되어야 함
+    @Test
+    void compactFoldsOldRowsIntoDailyRollupsTest() {
+        ZoneId zone = ZoneId.of("Asia/Seoul");
+        long day0 = LocalDate.of(2024, 1, 1).atStartOfDay(zone).toInstant().toEpochMilli();
+        long dayMillis = 24 * 60 * 60 * 1000L;
+        TieredPointHistoryRepository repository = new TieredPointHistoryRepository(16, new HeapSegmentStore());
+
+        // 10일 동안 하루 30건 (충전 20, 사용 10)
+        List<PointHistory> inserted = new ArrayList<>();
+        for (int day = 0; day < 10; day++) {
+            for (int i = 0; i < 30; i++) {
+                TransactionType type = i % 3 == 2 ? TransactionType.USE : TransactionType.CHARGE;
+                inserted.add(repository.insert(1L, 100L, type, day0 + day * dayMillis + i * 1_000L));
+            }
+        }
+        repository.insert(2L, 100L, TransactionType.CHARGE, day0);
+        long sealedBefore = repository.sealedRows();
+
+        // 7일차 0시 이전을 접음
+        long cutoffMillis = day0 + 7 * dayMillis;
+        assertEquals(210, repository.compact(1L, cutoffMillis, zone));
+        assertEquals(0, repository.compact(1L, cutoffMillis, zone));
+
+        List<PointHistoryRollup> rollups = repository.selectRollupsByUserId(1L);
+        assertEquals(7, rollups.size());
+        for (int day = 0; day < 7; day++) {
+            PointHistoryRollup rollup = rollups.get(day);
+            assertEquals(LocalDate.of(2024, 1, 1 + day).toEpochDay(), rollup.epochDay());
+            assertEquals(1_000L, rollup.netAmount());
+            assertEquals(20, rollup.chargeCount());
+            assertEquals(10, rollup.useCount());
+            assertEquals(inserted.get(day * 30 + 29).id(), rollup.lastHistoryId());
+        }
+        assertEquals(inserted.subList(210, 300), repository.selectAllByUserId(1L));
+        assertTrue(repository.sealedRows() < sealedBefore);
+
+        // 다른 유저는 그대로, 이후 쓰기는 남은 히스토리 뒤에 이어짐
+        assertEquals(1, repository.selectAllByUserId(2L).size());
+        PointHistory next = repository.insert(1L, 100L, TransactionType.CHARGE, day0 + 10 * dayMillis);
+        assertEquals(next, repository.selectAllByUserId(1L).get(90));
+
+        // 같은 날의 rollup 은 합쳐짐
+        repository.insertRollup(new PointHistoryRollup(1L, rollups.get(0).epochDay(), -300L, 0, 3, 0, 1L));
+        assertEquals(700L, repository.selectRollupsByUserId(1L).get(0).netAmount());
+    }
+
+    // 세그먼트를 읽고 있는 조회가 있는 동안에는 compact 로 교체된 세그먼트를 반환하지 않고, 조회가 끝나면 바로 반환해야 함
+    @Test
+    void retiredSegmentsWaitForReadersTest() throws Exception {
+        ZoneId zone = ZoneId.of("Asia/Seoul");
+        ControlledSegmentStore segmentStore = new ControlledSegmentStore();
+        TieredPointHistoryRepository repository = new TieredPointHistoryRepository(16, segmentStore);
+        List<PointHistory> inserted = new ArrayList<>();
+        for (int i = 0; i < 48; i++) {
+            inserted.add(repository.insert(1L, 100L, TransactionType.CHARGE, 1_000L + i));
+        }
+
+        // 첫 세그먼트를 읽는 도중에 멈춘 조회
+        segmentStore.blockReads();
+        CompletableFuture<List<PointHistory>> reader = CompletableFuture.supplyAsync(() -> repository.selectAllByUserId(1L));
+        assertTrue(segmentStore.readStarted.await(10, TimeUnit.SECONDS));
+
+        // 조회 중에는 lock 을 잡지 않으므로 compact 는 진행되지만 교체된 세그먼트는 반환되지 않음
+        assertEquals(48, repository.compact(1L, 2_000L, zone));
+        assertEquals(0, segmentStore.released.get());
+
+        segmentStore.unblockReads();
+        assertEquals(inserted, reader.get(10, TimeUnit.SECONDS));
+        assertEquals(3, segmentStore.released.get());
+        assertEquals(0L, segmentStore.storedBytes());
+
+        // 조회가 없으면 삭제된 세그먼트는 바로 반환
+        for (int i = 0; i < 16; i++) {
+            repository.insert(1L, 100L, TransactionType.CHARGE, 3_000L + i);
+        }
+        repository.deleteAllByUserId(1L);
+        assertEquals(4, segmentStore.released.get());
+    }
+
+    // compact 중 세그먼트 쓰기가 실패하면 rollup 과 히스토리는 compact 이전 그대로 남아야 함
+    @Test
+    void failedCompactKeepsStateTest() {
+        ZoneId zone = ZoneId.of("Asia/Seoul");
+        ControlledSegmentStore segmentStore = new ControlledSegmentStore();
+        TieredPointHistoryRepository repository = new TieredPointHistoryRepository(16, segmentStore);
+        List<PointHistory> inserted = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            // 세그먼트마다 접힐 히스토리와 남을 히스토리가 섞여 있어 다시 써야 함
+            inserted.add(repository.insert(1L, 100L, TransactionType.CHARGE, i % 2 == 0 ? 1_000L : 5_000L));
+        }
+        long storedBytes = segmentStore.storedBytes();
+
+        // 두 번째 세그먼트를 다시 쓸 때 실패
+        segmentStore.failAppendsAfter(1);
+        assertThrows(IllegalStateException.class, () -> repository.compact(1L, 2_000L, zone));
+
+        assertTrue(repository.selectRollupsByUserId(1L).isEmpty());
+        assertEquals(inserted, repository.selectAllByUserId(1L));
+        assertEquals(storedBytes, segmentStore.storedBytes());
+
+        // 다시 시도하면 정상적으로 접힘
+        segmentStore.failAppendsAfter(Integer.MAX_VALUE);
+        assertEquals(16, repository.compact(1L, 2_000L, zone));
+        assertEquals(16, repository.selectRollupsByUserId(1L).get(0).chargeCount());
+    }
+
+    // 조회를 멈추거나 쓰기를 실패시킬 수 있는 세그먼트 저장소
+    private static class ControlledSegmentStore extends HeapSegmentStore {
+
+        private final CountDownLatch readStarted = new CountDownLatch(1);
+        private final AtomicInteger released = new AtomicInteger();
+        private final CountDownLatch readGate = new CountDownLatch(1);
+        private final AtomicBoolean blockNextRead = new AtomicBoolean();
+        private volatile int appendsBeforeFailure = Integer.MAX_VALUE;
+
+        // 다음 read 1건만 unblockReads 까지 멈춤
+        void blockReads() {
+            blockNextRead.set(true);
+        }
+
+        void unblockReads() {
+            readGate.countDown();
+        }
+
+        void failAppendsAfter(int appends) {
+            appendsBeforeFailure = appends;
+        }
+
+        @Override
+        public long append(byte[] encoded) {
+            if (appendsBeforeFailure-- <= 0) {
+                throw new IllegalStateException("세그먼트를 쓸 수 없습니다.");
+            }
+            return super.append(encoded);
+        }
+
+        @Override
+        public ByteBuffer read(long address, int length) {
+            if (blockNextRead.compareAndSet(true, false)) {
+                readStarted.countDown();
+                try {
+                    readGate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.read(address, length);
+        }
+
+        @Override
+        public void release(long address, int length) {
+            released.incrementAndGet();
+            super.release(address, length);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.hhplus.tdd.repository;
+
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.repository.journal.UserPointSlotFile;
+import io.hhplus.tdd.repository.membership.LongBloomFilter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserPointRepositoryImplTest {
+
+    // 기록된 적 없는 유저 조회는 table 의 throttle(최대 200ms) 을 거치지 않아야 함
+    @Test
+    void unknownUserLookupSkipsTableTest() {
+        UserPointRepositoryImpl repository = new UserPointRepositoryImpl(new UserPointTable());
+        repository.insertOrUpdate(1L, 1_000L);
+
+        long startNanos = System.nanoTime();
+        for (long userId = 1_000_000L; userId < 1_001_000L; userId++) {
+            assertEquals(0L, repository.selectById(userId).point());
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        System.out.printf("1000 unknown lookups >> %dms%n", elapsedMillis);
+
+        // 오탐으로 table 까지 간 조회가 몇 건 있더라도 1000건 모두 throttle 을 거친 경우(평균 100초)보다 훨씬 빨라야 함
+        assertTrue(elapsedMillis < 5_000L);
+        assertEquals(1_000L, repository.selectById(1L).point());
+    }
+
+    // 예상 개수만큼 넣었을 때 넣은 key 는 모두 있다고 답하고, 오탐 비율은 지정한 비율 근처여야 함
+    @Test
+    void bloomFilterFalsePositiveRateTest() {
+        int expected = 1_000_000;
+        LongBloomFilter filter = LongBloomFilter.create(expected, 0.01);
+        for (long key = 0; key < expected; key++) {
+            filter.put(key * 7919L);
+        }
+        for (long key = 0; key < expected; key++) {
+            assertTrue(filter.mightContain(key * 7919L));
+        }
+
+        int falsePositives = 0;
+        for (long key = 0; key < expected; key++) {
+            if (filter.mightContain(key * 7919L + 1)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / expected;
+        System.out.printf("false positive rate >> %.4f (bits=%d, hashes=%d)%n", rate, filter.bitSize(), filter.hashCount());
+        assertTrue(rate < 0.015);
+    }
+
+    // 재구성 후에도 import 된 유저와 기록된 유저는 모두 조회되어야 함
+    @Test
+    void rebuildKeepsKnownUsersTest() {
+        UserPointRepositoryImpl repository = new UserPointRepositoryImpl(new UserPointTable());
+        repository.insertOrUpdate(1L, 100L);
+        for (long userId = 2; userId <= 10_000; userId++) {
+            repository.bulkInsert(new UserPoint(userId, userId, 1L));
+        }
+
+        repository.rebuildUserFilter();
+
+        for (long userId = 1; userId <= 10_000; userId++) {
+            assertTrue(repository.mightExist(userId));
+        }
+        assertEquals(100L, repository.selectById(1L).point());
+        assertEquals(5_000L, repository.selectById(5_000L).point());
+    }
+
+    // table 쓰기는 유저 파일에 모아서 반영되지만, 순회(export)는 시작 전에 끝난 쓰기를 모두 보고
+    // import 된 유저는 쓰기 직후부터 import 된 값 대신 새 값으로 조회되어야 함
+    @Test
+    void bufferedWritesAreVisibleToExportTest() {
+        UserPointRepositoryImpl repository = new UserPointRepositoryImpl(new UserPointTable());
+        repository.bulkInsert(new UserPoint(1_000L, 50L, 1L));
+        for (long userId = 1; userId <= 10; userId++) {
+            repository.insertOrUpdate(userId, userId);
+        }
+        repository.insertOrUpdate(1_000L, 70L);
+        assertEquals(70L, repository.selectById(1_000L).point());
+
+        Map<Long, UserPoint> scanned = new HashMap<>();
+        repository.forEach(userPoint -> assertNull(scanned.put(userPoint.id(), userPoint)));
+        assertEquals(11, scanned.size());
+        assertEquals(10L, scanned.get(10L).point());
+        assertEquals(70L, scanned.get(1_000L).point());
+        repository.close();
+    }
+
+    // export 용 유저 파일은 예상보다 많은 유저가 들어와도 index 를 키워 유저마다 최신 값 하나만 순회해야 함
+    @Test
+    void slotFileKeepsLatestValuePerUserTest() throws Exception {
+        try (UserPointSlotFile slots = new UserPointSlotFile(Files.createTempDirectory("point-slot-test"), 16)) {
+            for (long userId = 1; userId <= 10_000; userId++) {
+                assertTrue(slots.importIfAbsent(new UserPoint(userId, userId, 1L)));
+            }
+            for (long userId = 1; userId <= 10_000; userId += 2) {
+                slots.write(new UserPoint(userId, userId * 10, 2L));
+            }
+
+            // table 에 쓴 유저는 다시 적재할 수 없고, import 된 값으로 조회되지도 않음
+            assertFalse(slots.importIfAbsent(new UserPoint(1L, 5L, 3L)));
+            assertNull(slots.imported(1L));
+            assertEquals(new UserPoint(2L, 2L, 1L), slots.imported(2L));
+            assertNull(slots.imported(10_001L));
+
+            Map<Long, UserPoint> scanned = new HashMap<>();
+            slots.forEach(userPoint -> assertNull(scanned.put(userPoint.id(), userPoint)));
+            assertEquals(10_000, scanned.size());
+            assertEquals(10_000L, slots.size());
+            for (long userId = 1; userId <= 10_000; userId++) {
+                assertEquals(userId % 2 == 1 ? userId * 10 : userId, scanned.get(userId).point());
+            }
+        }
+    }
+}
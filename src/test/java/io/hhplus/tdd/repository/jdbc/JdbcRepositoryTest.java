@@ -0,0 +1,256 @@
+package io.hhplus.tdd.repository.jdbc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryRollup;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.repository.PointHistoryRepository;
+import io.hhplus.tdd.repository.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.repository.UserPointRepository;
+import io.hhplus.tdd.repository.UserPointRepositoryImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * H2 드라이버가 classpath 에 있을 때만 실행된다.
+ */
+class JdbcRepositoryTest {
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private static final int USER_COUNT = 32;
+    private static final int CLIENT_THREADS = 32;
+    private static final long MEASURE_MILLIS = 3_000L;
+
+    // 잔액 증감은 원자적으로 반영되고, 잔액이 음수가 되는 차감은 반영되지 않아야 함
+    @Test
+    void atomicAddPointTest() throws Exception {
+        assumeTrue(h2Available(), "H2 드라이버가 없습니다.");
+        try (JdbcConnectionPool pool = pool(Files.createTempDirectory("point-jdbc-test"))) {
+            JdbcUserPointRepository repository = new JdbcUserPointRepository(pool);
+            repository.insertOrUpdate(1L, 1_000L);
+
+            assertEquals(700L, repository.addPoint(1L, 1_000L, -300L).point());
+            assertNull(repository.addPoint(1L, 700L, -1_000L));
+            assertEquals(0L, repository.selectById(2L).point());
+
+            // current 값과 관계없이 DB 의 잔액에 더해진다.
+            ExecutorService executorService = Executors.newFixedThreadPool(16);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 1_600; i++) {
+                futures.add(executorService.submit(() -> repository.addPoint(1L, 0L, 1L)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executorService.shutdown();
+
+            assertEquals(2_300L, repository.selectById(1L).point());
+        }
+    }
+
+    // group commit 으로 넣은 히스토리도 유저 안에서 id 순서로 조회되고, 다시 열면 id 가 이어져야 함
+    @Test
+    void historyGroupCommitTest() throws Exception {
+        assumeTrue(h2Available(), "H2 드라이버가 없습니다.");
+        Path dir = Files.createTempDirectory("point-jdbc-test");
+        try (JdbcConnectionPool pool = pool(dir)) {
+            JdbcPointHistoryRepository repository = new JdbcPointHistoryRepository(pool);
+            ExecutorService executorService = Executors.newFixedThreadPool(16);
+            List<Future<?>> futures = new ArrayList<>();
+            for (long userId = 1; userId <= 16; userId++) {
+                long id = userId;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        repository.insert(id, 10L + i, TransactionType.CHARGE, i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executorService.shutdown();
+
+            for (long userId = 1; userId <= 16; userId++) {
+                List<PointHistory> histories = repository.selectAllByUserId(userId);
+                assertEquals(50, histories.size());
+                for (int i = 1; i < histories.size(); i++) {
+                    assertTrue(histories.get(i - 1).id() < histories.get(i).id());
+                    assertEquals(10L + i, histories.get(i).amount());
+                }
+            }
+        }
+
+        try (JdbcConnectionPool pool = pool(dir)) {
+            JdbcPointHistoryRepository repository = new JdbcPointHistoryRepository(pool);
+            assertEquals(801L, repository.insert(1L, 1L, TransactionType.USE, 1L).id());
+        }
+    }
+
+    // 보관 기간이 지난 히스토리는 일별 rollup 으로 접히고 원본은 지워져야 함
+    @Test
+    void compactFoldsIntoRollupsTest() throws Exception {
+        assumeTrue(h2Available(), "H2 드라이버가 없습니다.");
+        try (JdbcConnectionPool pool = pool(Files.createTempDirectory("point-jdbc-test"))) {
+            JdbcPointHistoryRepository repository = new JdbcPointHistoryRepository(pool);
+            for (int day = 0; day < 3; day++) {
+                repository.insert(1L, 100L, TransactionType.CHARGE, day * DAY_MILLIS + 1);
+                repository.insert(1L, 30L, TransactionType.USE, day * DAY_MILLIS + 2);
+            }
+            repository.insert(1L, 1_000L, TransactionType.CHARGE, 10 * DAY_MILLIS);
+
+            assertEquals(6, repository.compact(1L, 5 * DAY_MILLIS, ZoneOffset.UTC));
+            assertEquals(1, repository.selectAllByUserId(1L).size());
+
+            List<PointHistoryRollup> rollups = repository.selectRollupsByUserId(1L);
+            assertEquals(3, rollups.size());
+            assertEquals(new PointHistoryRollup(1L, 0L, 70L, 1, 1, 0, 2L), rollups.get(0));
+
+            // 같은 날의 rollup 은 합쳐진다.
+            repository.insertRollup(new PointHistoryRollup(1L, 0L, 5L, 1, 0, 0, 100L));
+            assertEquals(new PointHistoryRollup(1L, 0L, 75L, 2, 1, 0, 100L), repository.selectRollupsByUserId(1L).get(0));
+        }
+    }
+
+    // group commit batch 중 한 행이 실패해도 같이 묶인 다른 유저의 insert 는 성공해야 함
+    @Test
+    void failedRowDoesNotFailBatchTest() throws Exception {
+        assumeTrue(h2Available(), "H2 드라이버가 없습니다.");
+        try (JdbcConnectionPool pool = pool(Files.createTempDirectory("point-jdbc-test"))) {
+            JdbcPointHistoryRepository repository = new JdbcPointHistoryRepository(pool);
+            // 발급될 id 중 하나를 미리 차지해 그 행만 PK 충돌로 실패하게 한다.
+            pool.execute(connection -> connection.statement(
+                    "INSERT INTO point_history (id, user_id, amount, type, update_millis) VALUES (100, 0, 1, 'CHARGE', 0)").executeUpdate());
+
+            LongAdder failures = new LongAdder();
+            ExecutorService executorService = Executors.newFixedThreadPool(16);
+            List<Future<?>> futures = new ArrayList<>();
+            for (long userId = 1; userId <= 16; userId++) {
+                long id = userId;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        try {
+                            repository.insert(id, 1L, TransactionType.CHARGE, i);
+                        } catch (IllegalStateException e) {
+                            failures.increment();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executorService.shutdown();
+
+            assertEquals(1L, failures.sum());
+            long stored = 0;
+            for (long userId = 1; userId <= 16; userId++) {
+                stored += repository.selectAllByUserId(userId).size();
+            }
+            assertEquals(16 * 20 - 1, stored);
+        }
+    }
+
+    // import 로 모아 둔 행은 flushBulkInserts 에서 반영되고, 반영에 실패하면 예외가 나야 함
+    @Test
+    void bulkInsertFlushTest() throws Exception {
+        assumeTrue(h2Available(), "H2 드라이버가 없습니다.");
+        try (JdbcConnectionPool pool = pool(Files.createTempDirectory("point-jdbc-test"))) {
+            JdbcUserPointRepository repository = new JdbcUserPointRepository(pool);
+            repository.insertOrUpdate(1L, 500L);
+            for (long userId = 2; userId <= 10; userId++) {
+                repository.bulkInsert(new UserPoint(userId, 100L, 1L));
+            }
+
+            // 조회는 모아 둔 행을 반영하지 않는다.
+            assertEquals(0L, repository.selectById(2L).point());
+            repository.flushBulkInserts();
+            assertEquals(100L, repository.selectById(2L).point());
+
+            // 이미 있는 유저는 반영할 때 실패
+            repository.bulkInsert(new UserPoint(1L, 100L, 1L));
+            assertThrows(IllegalStateException.class, repository::flushBulkInserts);
+            assertEquals(500L, repository.selectById(1L).point());
+        }
+    }
+
+    /**
+     * 같은 부하로 메모리 table 저장소와 JDBC 저장소의 charge 처리량 비교
+     * table 은 호출마다 최대 200~300ms 의 throttle 이 있어 유저 수만큼만 병렬로 처리된다.
+     * 실행 환경의 디스크와 CPU 에 따라 결과가 달라지므로 performance 태그로 분리한다.
+     */
+    @Test
+    @Tag("performance")
+    void storageThroughputComparisonTest() throws Exception {
+        assumeTrue(h2Available(), "H2 드라이버가 없습니다.");
+        double tableThroughput = measureThroughput(new UserPointRepositoryImpl(new UserPointTable()),
+                new PointHistoryRepositoryImpl(new PointHistoryTable()));
+        double jdbcThroughput;
+        try (JdbcConnectionPool pool = pool(Files.createTempDirectory("point-jdbc-test"))) {
+            jdbcThroughput = measureThroughput(new JdbcUserPointRepository(pool), new JdbcPointHistoryRepository(pool));
+        }
+
+        System.out.printf("charge throughput >> table=%.1f ops/s, jdbc=%.1f ops/s%n", tableThroughput, jdbcThroughput);
+        assertTrue(jdbcThroughput > tableThroughput);
+    }
+
+    private double measureThroughput(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository)
+            throws InterruptedException {
+        PointService pointService = new PointService(userPointRepository, pointHistoryRepository);
+        for (long userId = 1; userId <= USER_COUNT; userId++) {
+            userPointRepository.insertOrUpdate(userId, 1_000L);
+        }
+
+        LongAdder completed = new LongAdder();
+        long deadline = System.currentTimeMillis() + MEASURE_MILLIS;
+        ExecutorService executorService = Executors.newFixedThreadPool(CLIENT_THREADS);
+        for (int i = 0; i < CLIENT_THREADS; i++) {
+            executorService.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.currentTimeMillis() < deadline) {
+                    pointService.chargePoints(1 + random.nextInt(USER_COUNT), 1L);
+                    completed.increment();
+                }
+                return null;
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(MEASURE_MILLIS + 30_000L, TimeUnit.MILLISECONDS));
+        return completed.sum() * 1000.0 / MEASURE_MILLIS;
+    }
+
+    private static JdbcConnectionPool pool(Path dir) {
+        return new JdbcConnectionPool("jdbc:h2:file:" + dir.resolve("point").toAbsolutePath(), "sa", "", 16, 5_000L);
+    }
+
+    private static boolean h2Available() {
+        try {
+            Class.forName("org.h2.Driver");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}